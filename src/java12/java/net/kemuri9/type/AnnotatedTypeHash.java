@@ -23,7 +23,7 @@ import java.util.Objects;
 final class AnnotatedTypeHash {
 
     static int hashCode(AnnotatedArrayTypeImpl impl) {
-        return hashCode((AnnotatedTypeImpl) impl) ^ impl.genericComponentType.hashCode();
+        return hashCode((AnnotatedTypeImpl) impl) ^ impl.componentType().hashCode();
     }
 
     static int hashCode(AnnotatedElementImpl impl) {
@@ -31,7 +31,7 @@ final class AnnotatedTypeHash {
     }
 
     static int hashCode(AnnotatedParameterizedTypeImpl impl) {
-        return hashCode((AnnotatedTypeImpl) impl) ^ Objects.hash((Object[]) impl.actualTypeArguments);
+        return hashCode((AnnotatedTypeImpl) impl) ^ Objects.hash((Object[]) impl.typeArguments());
     }
 
     static int hashCode(AnnotatedTypeImpl impl) {
@@ -39,13 +39,15 @@ final class AnnotatedTypeHash {
     }
 
     static int hashCode(AnnotatedTypeVariableImpl impl) {
-        return hashCode((AnnotatedTypeImpl) impl) ^ Objects.hash((Object[]) impl.annotatedBounds);
+        int base = hashCode((AnnotatedTypeImpl) impl);
+        // boundaries referring to the type variable itself, as in E extends Enum<E>, are not hashed again
+        return TypeTraversal.traverseBounds(impl.getType(), ()-> base, ()-> base ^ Objects.hash((Object[]) impl.bounds()));
     }
 
     static int hashCode(AnnotatedWildcardTypeImpl impl) {
         return hashCode((AnnotatedTypeImpl) impl) ^
-                Objects.hash((Object[]) impl.lowerBounds) ^
-                Objects.hash((Object[]) impl.upperBounds);
+                Objects.hash((Object[]) impl.lowerBounds()) ^
+                Objects.hash((Object[]) impl.upperBounds());
     }
 
     private AnnotatedTypeHash() {}
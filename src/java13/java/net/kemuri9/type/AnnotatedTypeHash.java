@@ -23,7 +23,7 @@ import java.util.Objects;
 final class AnnotatedTypeHash {
 
     static int hashCode(AnnotatedArrayTypeImpl impl) {
-        return hashCode((AnnotatedTypeImpl) impl) ^ impl.genericComponentType.hashCode();
+        return hashCode((AnnotatedTypeImpl) impl) ^ impl.componentType().hashCode();
     }
 
     static int hashCode(AnnotatedElementImpl impl) {
@@ -31,7 +31,7 @@ final class AnnotatedTypeHash {
     }
 
     static int hashCode(AnnotatedParameterizedTypeImpl impl) {
-        return hashCode((AnnotatedTypeImpl) impl) ^ Objects.hash((Object[]) impl.actualTypeArguments);
+        return hashCode((AnnotatedTypeImpl) impl) ^ Objects.hash((Object[]) impl.typeArguments());
     }
 
     static int hashCode(AnnotatedTypeImpl impl) {
@@ -45,8 +45,8 @@ final class AnnotatedTypeHash {
 
     static int hashCode(AnnotatedWildcardTypeImpl impl) {
         return hashCode((AnnotatedTypeImpl) impl) ^
-                Objects.hash((Object[]) impl.lowerBounds) ^
-                Objects.hash((Object[]) impl.upperBounds);
+                Objects.hash((Object[]) impl.lowerBounds()) ^
+                Objects.hash((Object[]) impl.upperBounds());
     }
 
     private AnnotatedTypeHash() {}
@@ -31,8 +31,8 @@ final class AnnotatedWildcardTypeEquals {
     }
 
     static boolean isEqual(AnnotatedWildcardTypeImpl left, AnnotatedWildcardType right) {
-        return Arrays.equals(left.lowerBounds, right.getAnnotatedLowerBounds()) &&
-                Arrays.equals(left.upperBounds, right.getAnnotatedUpperBounds());
+        return Arrays.equals(left.lowerBounds(), right.getAnnotatedLowerBounds()) &&
+                Arrays.equals(left.upperBounds(), right.getAnnotatedUpperBounds());
     }
 
     private AnnotatedWildcardTypeEquals() {}
@@ -28,8 +28,11 @@ import java.util.Objects;
  */
 public final class AnnotatedArrayTypeImpl extends AnnotatedTypeImpl implements AnnotatedArrayType {
 
-    /** {@link AnnotatedType} that represents the annotated component of the array */
-    final AnnotatedType genericComponentType;
+    /** {@link AnnotatedType} that represents the annotated component of the array. {@code null} until first accessed when lazily created */
+    private volatile AnnotatedType genericComponentType;
+
+    /** {@link AnnotatedArrayType} to lazily convert the component type from. {@code null} when eagerly created, or once converted */
+    private volatile AnnotatedArrayType source;
 
     /**
      * Create an {@link AnnotatedArrayTypeImpl} from an existing {@link AnnotatedArrayType}
@@ -64,10 +67,19 @@ public final class AnnotatedArrayTypeImpl extends AnnotatedTypeImpl implements A
      * @since 1.1
      */
     public AnnotatedArrayTypeImpl(AnnotatedArrayType type, Annotation[] annotations) {
-        super(type, annotations);
-        AnnotatedType compType = Utils.notNull(type.getAnnotatedGenericComponentType(), "type.getAnnotatedGenericComponentType()");
-        Utils.checkMatching(getComponentType(), compType);
-        this.genericComponentType = AnnotatedTypeFactory.recreateAnnotatedTypeForEquals(compType);
+        this(type, annotations, false);
+    }
+
+    /**
+     * Create an {@link AnnotatedArrayTypeImpl} from an existing {@link AnnotatedArrayType}
+     * @param type {@link AnnotatedArrayType} to copy parameters from.
+     * @param annotations {@link Annotation}s to utilize for the {@link AnnotatedArrayType}
+     * @param lazy state of converting the component type on first access instead of immediately
+     */
+    AnnotatedArrayTypeImpl(AnnotatedArrayType type, Annotation[] annotations, boolean lazy) {
+        super(type, annotations, lazy);
+        this.source = lazy ? type : null;
+        this.genericComponentType = lazy ? null : convertComponentType(type, false);
     }
 
     /**
@@ -112,6 +124,7 @@ public final class AnnotatedArrayTypeImpl extends AnnotatedTypeImpl implements A
      */
     public AnnotatedArrayTypeImpl(Type type, Annotation[] typeAnnotations, AnnotatedType componentType) {
         super(type, null, typeAnnotations);
+        this.source = null;
         Utils.notNull(componentType, "componentType");
         Utils.checkMatching(getComponentType(), componentType);
         this.genericComponentType = AnnotatedTypeFactory.recreateAnnotatedTypeForEquals(componentType);
@@ -131,9 +144,38 @@ public final class AnnotatedArrayTypeImpl extends AnnotatedTypeImpl implements A
      */
     public AnnotatedArrayTypeImpl(Type type, Annotation[] arrayTypeAnns, Annotation... componentTypeAnns) {
         super(type, null, arrayTypeAnns);
+        this.source = null;
         this.genericComponentType = AnnotatedTypeFactory.newAnnotatedType(getComponentType(), componentTypeAnns);
     }
 
+    /**
+     * Retrieve the annotated component type, converting it from the source type when lazily created
+     * @return annotated component type
+     */
+    AnnotatedType componentType() {
+        AnnotatedType compType = genericComponentType;
+        if (compType == null) {
+            AnnotatedArrayType src = source;
+            if (src == null) {
+                // another thread completed the conversion, which publishes the component type before releasing the source
+                return genericComponentType;
+            }
+            // conversion is idempotent, so racing threads at worst perform it multiple times
+            compType = convertComponentType(src, true);
+            genericComponentType = compType;
+            // release the source once converted, so that it does not remain reachable
+            source = null;
+        }
+        return compType;
+    }
+
+    private AnnotatedType convertComponentType(AnnotatedArrayType type, boolean lazy) {
+        AnnotatedType compType = Utils.notNull(type.getAnnotatedGenericComponentType(), "type.getAnnotatedGenericComponentType()");
+        Utils.checkMatching(getComponentType(), compType);
+        return lazy ? AnnotatedTypeFactory.recreateAnnotatedTypeLazily(compType)
+                : AnnotatedTypeFactory.recreateAnnotatedTypeForEquals(compType);
+    }
+
     @Override
     protected void checkType(String name) {
         boolean valid = (type instanceof Class) && Class.class.cast(type).isArray();
@@ -153,12 +195,12 @@ public final class AnnotatedArrayTypeImpl extends AnnotatedTypeImpl implements A
         }
         AnnotatedArrayType o = (AnnotatedArrayType) other;
         // this depends on genericComponentType having a proper equals implementation!
-        return Objects.equals(genericComponentType, o.getAnnotatedGenericComponentType());
+        return Objects.equals(componentType(), o.getAnnotatedGenericComponentType());
     }
 
     @Override
     public AnnotatedType getAnnotatedGenericComponentType() {
-        return genericComponentType;
+        return componentType();
     }
 
     private Type getComponentType() {
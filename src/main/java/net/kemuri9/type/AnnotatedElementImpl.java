@@ -55,7 +55,8 @@ public class AnnotatedElementImpl implements AnnotatedElement {
      */
     public AnnotatedElementImpl(Annotation... annotations) {
         // if no annotations then default to EMPTY, otherwise validate that there are no nulls
-        this.annotations = Utils.checkedClone(annotations, "annotations", EMPTY_ANNS);
+        this.annotations = (annotations == null || annotations.length == 0) ? EMPTY_ANNS
+                : Utils.checkedClone(annotations, "annotations");
     }
 
     /** {@link Annotation}s held by the element */
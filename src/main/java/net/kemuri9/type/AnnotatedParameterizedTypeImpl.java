@@ -27,8 +27,11 @@ import java.util.Arrays;
  */
 public final class AnnotatedParameterizedTypeImpl extends AnnotatedTypeImpl implements AnnotatedParameterizedType {
 
-    /** {@link AnnotatedType}s representing the annotated actual type arguments */
-    final AnnotatedType[] actualTypeArguments;
+    /** {@link AnnotatedType}s representing the annotated actual type arguments. {@code null} until first accessed when lazily created */
+    private volatile AnnotatedType[] actualTypeArguments;
+
+    /** {@link AnnotatedParameterizedType} to lazily convert the type arguments from. {@code null} when eagerly created, or once converted */
+    private volatile AnnotatedParameterizedType source;
 
     /**
      * Create a new {@link AnnotatedParameterizedTypeImpl} from an existing {@link AnnotatedParameterizedType}
@@ -59,10 +62,19 @@ public final class AnnotatedParameterizedTypeImpl extends AnnotatedTypeImpl impl
      * @since 1.1
      */
     public AnnotatedParameterizedTypeImpl(AnnotatedParameterizedType type, Annotation[] annotations) {
-        super(type, annotations);
-        AnnotatedType[] typeArgs = Utils.noNullContained(type.getAnnotatedActualTypeArguments(), "type.getAnnotatedActualTypeArguments()");
-        Utils.checkMatching(getType().getActualTypeArguments(), typeArgs);
-        this.actualTypeArguments = AnnotatedTypeFactory.recreateAnnotatedTypesForEquals(typeArgs);
+        this(type, annotations, false);
+    }
+
+    /**
+     * Create a new {@link AnnotatedParameterizedTypeImpl} from an existing {@link AnnotatedParameterizedType}
+     * @param type {@link AnnotatedParameterizedType} to copy parameters from
+     * @param annotations {@link Annotation}s to utilize for the {@link AnnotatedParameterizedType}
+     * @param lazy state of converting the type arguments on first access instead of immediately
+     */
+    AnnotatedParameterizedTypeImpl(AnnotatedParameterizedType type, Annotation[] annotations, boolean lazy) {
+        super(type, annotations, lazy);
+        this.source = lazy ? type : null;
+        this.actualTypeArguments = lazy ? null : convertTypeArguments(type, false);
     }
 
     /**
@@ -106,7 +118,8 @@ public final class AnnotatedParameterizedTypeImpl extends AnnotatedTypeImpl impl
      */
     public AnnotatedParameterizedTypeImpl(ParameterizedType type, AnnotatedType ownerType, Annotation... typeAnnotations) {
         super(type, ownerType, typeAnnotations);
-        actualTypeArguments = AnnotatedTypeFactory.newAnnotatedTypes(type.getActualTypeArguments(), null);
+        this.source = null;
+        this.actualTypeArguments = AnnotatedTypeFactory.newAnnotatedTypes(type.getActualTypeArguments(), null);
     }
 
     /**
@@ -126,7 +139,8 @@ public final class AnnotatedParameterizedTypeImpl extends AnnotatedTypeImpl impl
     public AnnotatedParameterizedTypeImpl(ParameterizedType type, AnnotatedType ownerType,
             Annotation[] typeAnnotations, Annotation[][] actualTypeAnns) {
         super(type, ownerType, typeAnnotations);
-        actualTypeArguments = AnnotatedTypeFactory.newAnnotatedTypes(type.getActualTypeArguments(), actualTypeAnns);
+        this.source = null;
+        this.actualTypeArguments = AnnotatedTypeFactory.newAnnotatedTypes(type.getActualTypeArguments(), actualTypeAnns);
     }
 
     /**
@@ -146,9 +160,38 @@ public final class AnnotatedParameterizedTypeImpl extends AnnotatedTypeImpl impl
     public AnnotatedParameterizedTypeImpl(ParameterizedType type, AnnotatedType ownerType,
             Annotation[] typeAnnotations, AnnotatedType... actualTypeArgs) {
         super(type, ownerType, typeAnnotations);
+        this.source = null;
         this.actualTypeArguments = AnnotatedTypeFactory.checkAnnotated(type.getActualTypeArguments(), actualTypeArgs);
     }
 
+    private AnnotatedType[] convertTypeArguments(AnnotatedParameterizedType type, boolean lazy) {
+        AnnotatedType[] typeArgs = Utils.noNullContained(type.getAnnotatedActualTypeArguments(), "type.getAnnotatedActualTypeArguments()");
+        Utils.checkMatching(getType().getActualTypeArguments(), typeArgs);
+        return lazy ? AnnotatedTypeFactory.recreateAnnotatedTypesLazily(typeArgs)
+                : AnnotatedTypeFactory.recreateAnnotatedTypesForEquals(typeArgs);
+    }
+
+    /**
+     * Retrieve the annotated type arguments, converting them from the source type when lazily created
+     * @return annotated type arguments. this is the internal array and must not be modified
+     */
+    AnnotatedType[] typeArguments() {
+        AnnotatedType[] typeArgs = actualTypeArguments;
+        if (typeArgs == null) {
+            AnnotatedParameterizedType src = source;
+            if (src == null) {
+                // another thread completed the conversion, which publishes the type arguments before releasing the source
+                return actualTypeArguments;
+            }
+            // conversion is idempotent, so racing threads at worst perform it multiple times
+            typeArgs = convertTypeArguments(src, true);
+            actualTypeArguments = typeArgs;
+            // release the source once converted, so that it does not remain reachable
+            source = null;
+        }
+        return typeArgs;
+    }
+
     @Override
     protected void checkType(String name) {
         if (!(type instanceof ParameterizedType)) {
@@ -166,13 +209,13 @@ public final class AnnotatedParameterizedTypeImpl extends AnnotatedTypeImpl impl
         }
         AnnotatedParameterizedType o = (AnnotatedParameterizedType) other;
         // this depends on actualTypeArguments having usable equals implementations!
-        return Arrays.equals(actualTypeArguments, o.getAnnotatedActualTypeArguments());
+        return Arrays.equals(typeArguments(), o.getAnnotatedActualTypeArguments());
     }
 
     @Override
     public AnnotatedType[] getAnnotatedActualTypeArguments() {
         // clone to avoid modification by caller
-        return Utils.clone(actualTypeArguments);
+        return Utils.clone(typeArguments());
     }
 
     @Override
@@ -190,7 +233,7 @@ public final class AnnotatedParameterizedTypeImpl extends AnnotatedTypeImpl impl
         StringBuilder sb = new StringBuilder(128);
         sb.append(Utils.annsToString(annotations, Boolean.FALSE));
         sb.append(getType().getRawType().getTypeName());
-        sb.append(Utils.annTypesToString(actualTypeArguments, ", ", "<", ">"));
+        sb.append(Utils.annTypesToString(typeArguments(), ", ", "<", ">"));
         return sb.toString();
     }
 }
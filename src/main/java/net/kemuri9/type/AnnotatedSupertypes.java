@@ -0,0 +1,191 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedArrayType;
+import java.lang.reflect.AnnotatedParameterizedType;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>Resolution of the annotated generic supertypes of classes, retaining the {@code TYPE_USE} annotations
+ * declared throughout the class hierarchy.</p>
+ * <p>The annotated supertypes of each class are indexed once, keyed by the supertype's {@link Class}, and are expressed
+ * in terms of the class's own type variables. Annotations on the type arguments of supertypes are substituted into the
+ * supertypes further up the hierarchy, so with {@code class Names<T> implements List<@NonNull T>} and
+ * {@code class Codes extends Names<@Size(max=5) String>}, the {@code List} supertype of {@code Codes} is
+ * {@code List<@Size(max=5) @NonNull String>}. Annotations on the supertypes themselves, such as {@code extends @Immutable Base},
+ * are kept on the indexed supertype. Supertypes that are inherited as raw types are indexed by their unannotated erasure.</p>
+ * <p>Arrays of reference types are covariant in their component types, so the supertypes of an array are the arrays of the
+ * supertypes of its component type, along with {@link Object}, {@link Cloneable} and {@link Serializable}.
+ * With {@code Codes} above, the {@code List[]} supertype of {@code Codes[]} is {@code List<@Size(max=5) @NonNull String>[]}.
+ * Arrays of primitive types are only subtypes of themselves and of {@link Object}, {@link Cloneable} and {@link Serializable}.</p>
+ * <p>The indexed supertypes also provide the inherited bindings of {@link AnnotatedTypeResolver#forType(AnnotatedType)}.</p>
+ * <p>The indexed {@link AnnotatedType}s are implementations of this library, and so have usable {@link Object#equals(Object)}
+ * implementations without being recreated through {@link AnnotatedTypeFactory#recreateAnnotatedTypeForEquals(AnnotatedType)}.</p>
+ * @since 1.2
+ */
+public final class AnnotatedSupertypes {
+
+    private static final ClassValue<Map<Class<?>, AnnotatedType>> INDEXES = new ClassValue<Map<Class<?>, AnnotatedType>>() {
+        @Override
+        protected Map<Class<?>, AnnotatedType> computeValue(Class<?> type) {
+            Map<Class<?>, AnnotatedType> index = new HashMap<>();
+            if (type.isArray()) {
+                putArraySupertypes(index, type);
+                return Collections.unmodifiableMap(index);
+            }
+            index.put(type, AnnotatedTypeFactory.newAnnotatedType(SupertypeIndex.getGenericForm(type)));
+            AnnotatedType superclass = type.getAnnotatedSuperclass();
+            if (superclass != null) {
+                putSupertype(index, AnnotatedTypeFactory.newAnnotatedType(superclass));
+            }
+            for (AnnotatedType iface : type.getAnnotatedInterfaces()) {
+                putSupertype(index, AnnotatedTypeFactory.newAnnotatedType(iface));
+            }
+            if (!type.isPrimitive()) {
+                // interfaces do not have a superclass, but are still assignable to Object
+                index.computeIfAbsent(Object.class, AnnotatedTypeFactory::newAnnotatedType);
+            }
+            return Collections.unmodifiableMap(index);
+        }
+    };
+
+    /**
+     * <p>Retrieve the annotated generic supertype of {@code type} whose erasure is {@code supertype}.</p>
+     * <p>When {@code type} is an {@link AnnotatedParameterizedType}, the indexed supertype is resolved with its annotated
+     * type arguments. When {@code type} is an {@link AnnotatedArrayType}, the supertype is the array of the supertype of its
+     * annotated component type. When {@code supertype} is the erasure of {@code type}, {@code type} itself is returned.</p>
+     * @param type {@link AnnotatedType} of a {@link Class}, a {@link ParameterizedType}, or an array of those, to retrieve the supertype of
+     * @param supertype {@link Class} of the supertype to retrieve
+     * @return annotated generic supertype, or {@code null} when {@code supertype} is not a supertype of {@code type}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code supertype} is {@code null}</li>
+     *   <li>When {@code type} does not describe a {@link Class}, a {@link ParameterizedType} of a {@link Class},
+     *     or an array of those</li>
+     *   <li>When {@code type} does not have the same number of type arguments as its raw type declares</li>
+     * </ul>
+     */
+    public static AnnotatedType getSupertype(AnnotatedType type, Class<?> supertype) {
+        Utils.notNull(type, "type");
+        Utils.notNull(supertype, "supertype");
+        Type rawType = type.getType();
+        if (rawType == supertype) {
+            return type;
+        } else if (type instanceof AnnotatedArrayType) {
+            return getArraySupertype((AnnotatedArrayType) type, supertype);
+        } else if (rawType instanceof Class) {
+            return INDEXES.get((Class<?>) rawType).get(supertype);
+        } else if (!(type instanceof AnnotatedParameterizedType) || !(rawType instanceof ParameterizedType)
+                || !(((ParameterizedType) rawType).getRawType() instanceof Class)) {
+            throw new IllegalArgumentException("type must describe a Class or a ParameterizedType of a Class, was " + type);
+        }
+        Class<?> raw = (Class<?>) ((ParameterizedType) rawType).getRawType();
+        if (raw == supertype) {
+            return type;
+        }
+        AnnotatedType generic = INDEXES.get(raw).get(supertype);
+        return (generic == null) ? null
+                : AnnotatedTypeResolver.forArguments((AnnotatedParameterizedType) type).resolve(generic);
+    }
+
+    private static AnnotatedType getArraySupertype(AnnotatedArrayType type, Class<?> supertype) {
+        if (isArraySupertype(supertype)) {
+            return AnnotatedTypeFactory.newAnnotatedType(supertype);
+        } else if (!supertype.isArray()) {
+            return null;
+        }
+        AnnotatedType component = type.getAnnotatedGenericComponentType();
+        Type componentType = component.getType();
+        Class<?> superComponent = supertype.getComponentType();
+        if ((componentType instanceof Class && ((Class<?>) componentType).isPrimitive()) || superComponent.isPrimitive()) {
+            // primitive arrays are only subtypes of themselves
+            return null;
+        }
+        AnnotatedType found = getSupertype(component, superComponent);
+        if (found == null) {
+            return null;
+        }
+        return (found == component) ? type : newArrayType(found);
+    }
+
+    /**
+     * Retrieve the annotated generic supertypes of the specified {@link Class}, including itself as parameterized
+     * by its own type variables
+     * @param type {@link Class} to retrieve the annotated supertypes of
+     * @return unmodifiable {@link Map} of supertype {@link Class}es to the annotated generic supertypes of {@code type}
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     */
+    public static Map<Class<?>, AnnotatedType> getSupertypes(Class<?> type) {
+        return INDEXES.get(Utils.notNull(type, "type"));
+    }
+
+    private static boolean isArraySupertype(Class<?> type) {
+        return type == Object.class || type == Cloneable.class || type == Serializable.class;
+    }
+
+    private static AnnotatedType newArrayType(AnnotatedType component) {
+        return new AnnotatedArrayTypeImpl(Utils.newArrayType(component.getType()), new Annotation[0], component);
+    }
+
+    private static void putArraySupertypes(Map<Class<?>, AnnotatedType> index, Class<?> type) {
+        Class<?> component = type.getComponentType();
+        if (component.isPrimitive()) {
+            index.put(type, AnnotatedTypeFactory.newAnnotatedType(type));
+        } else {
+            // arrays are covariant in their component types
+            for (Map.Entry<Class<?>, AnnotatedType> entry : INDEXES.get(component).entrySet()) {
+                index.put(Utils.getArrayClass(entry.getKey()), newArrayType(entry.getValue()));
+            }
+        }
+        for (Class<?> supertype : new Class<?>[] { Object.class, Cloneable.class, Serializable.class }) {
+            index.put(supertype, AnnotatedTypeFactory.newAnnotatedType(supertype));
+        }
+    }
+
+    private static void putSupertype(Map<Class<?>, AnnotatedType> index, AnnotatedType supertype) {
+        Type type = supertype.getType();
+        if (type instanceof Class) {
+            Class<?> cls = (Class<?>) type;
+            boolean raw = cls.getTypeParameters().length > 0;
+            index.putIfAbsent(cls, supertype);
+            for (Map.Entry<Class<?>, AnnotatedType> entry : INDEXES.get(cls).entrySet()) {
+                // when inherited as a raw type, all of its supertypes are erased
+                index.computeIfAbsent(entry.getKey(), (key)-> raw ? AnnotatedTypeFactory.newAnnotatedType(key) : entry.getValue());
+            }
+            return;
+        }
+        Class<?> raw = (Class<?>) ((ParameterizedType) type).getRawType();
+        AnnotatedTypeResolver resolver = AnnotatedTypeResolver.forArguments((AnnotatedParameterizedType) supertype);
+        index.putIfAbsent(raw, supertype);
+        for (Map.Entry<Class<?>, AnnotatedType> entry : INDEXES.get(raw).entrySet()) {
+            if (!index.containsKey(entry.getKey())) {
+                index.put(entry.getKey(), resolver.resolve(entry.getValue()));
+            }
+        }
+    }
+
+    private AnnotatedSupertypes() {
+        // not instantiable
+    }
+}
@@ -17,18 +17,34 @@ package net.kemuri9.type;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Factory for creating instances of {@link AnnotatedType}
  */
 public class AnnotatedTypeFactory {
 
+    /** package prefix of the {@link AnnotatedType} implementations of the JDK */
+    private static final String CORE_PACKAGE = "sun.reflect.annotation.";
+
     /** registry of types and whether they have a usable equals on them */
     private static final Map<Class<?>, Boolean> USABLE_EQUALS = new java.util.concurrent.ConcurrentHashMap<>();
 
     private static final Object[] EMPTY = new Object[0];
 
+    /** shared {@link AnnotatedType}s for unannotated basic {@link Class}es, as they are immutable and frequently created */
+    private static final ClassValue<AnnotatedTypeImpl> UNANNOTATED_CLASSES = new ClassValue<AnnotatedTypeImpl>() {
+        @Override
+        protected AnnotatedTypeImpl computeValue(Class<?> type) {
+            // the owner type is created through the factory as well, so the whole owner chain is shared
+            return new AnnotatedTypeImpl(type);
+        }
+    };
+
     static {
         // the types in this package have usable equals methods
         for (Class<?> type : new Class<?>[] { AnnotatedArrayType.class, AnnotatedParameterizedTypeImpl.class,
@@ -65,6 +81,74 @@ public class AnnotatedTypeFactory {
         return annTypes;
     }
 
+    private static boolean hasUsableEquals(AnnotatedType type) {
+        Utils.notNull(type, "type");
+        /* not all implementations of AnnotatedType have a usable equals method, which causes problems
+         * in .equals implementations of the types with the large dependency of one AnnotatedType depending on others.
+         * So verify */
+        Class<?> typeClass = type.getClass();
+        Boolean usableEquals = USABLE_EQUALS.get(typeClass);
+        if (usableEquals == null) {
+            // calculate and fill the cache to avoid the lookup again later
+            try {
+                // to be considered to have a usable equals, the type itself must implement the equals method
+                Class<?> declared = typeClass.getMethod("equals", Object.class).getDeclaringClass();
+                usableEquals = Boolean.valueOf(typeClass.equals(declared));
+            } catch (NoSuchMethodException | SecurityException ex) {
+                usableEquals = Boolean.FALSE;
+            }
+            USABLE_EQUALS.put(typeClass, usableEquals);
+        }
+        return usableEquals;
+    }
+
+    /**
+     * Determine if the {@link AnnotatedType} is an implementation of the JDK
+     * @param type {@link AnnotatedType} to check
+     * @return state of {@code type} being reflected by the JDK
+     */
+    static boolean isCoreImplementation(AnnotatedType type) {
+        return type.getClass().getName().startsWith(CORE_PACKAGE);
+    }
+
+    /**
+     * Determine if the {@link AnnotatedType} is an implementation of this library or of the JDK, whose instances are known to be valid.
+     * Derivatives of the implementations of this library are not known, as they may override the validated details
+     * @param type {@link AnnotatedType} to check
+     * @return state of {@code type} being of a known implementation
+     */
+    static boolean isKnownImplementation(AnnotatedType type) {
+        Class<?> typeClass = type.getClass();
+        return typeClass == AnnotatedArrayTypeImpl.class || typeClass == AnnotatedParameterizedTypeImpl.class
+                || typeClass == AnnotatedTypeImpl.class || typeClass == AnnotatedTypeVariableImpl.class
+                || typeClass == AnnotatedWildcardTypeImpl.class || isCoreImplementation(type);
+    }
+
+    /**
+     * <p>Map the annotations on every level of the specified {@link AnnotatedType}.</p>
+     * <p>{@code mapper} is invoked for every level of {@code type}: the type itself, owner types, type arguments,
+     * array component types, and wildcard boundaries. The boundaries of type variables are part of their declaration,
+     * and are not visited. Only the levels whose annotations change, and the levels that contain them, are recreated.
+     * All other levels are reused as-is, so the cost of recreation is proportional to the size of the change.</p>
+     * @param <T> type of {@link AnnotatedType}
+     * @param type {@link AnnotatedType} to map the annotations of
+     * @param mapper {@link Function} that provides the new annotations for a level.
+     *  Returning annotations equivalent to the current annotations of the level indicates no change.
+     * @return {@code type} when no annotations changed, otherwise a new {@link AnnotatedType} with the mapped annotations
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code mapper} is {@code null}</li>
+     *   <li>When {@code mapper} returns {@code null} or annotations containing a {@code null}</li>
+     *   <li>When {@code type} does not represent a supported {@link AnnotatedType}</li>
+     * </ul>
+     * @since 1.2
+     */
+    public static <T extends AnnotatedType> T mapAnnotations(T type, Function<? super AnnotatedType, Annotation[]> mapper) {
+        Utils.notNull(type, "type");
+        Utils.notNull(mapper, "mapper");
+        return Utils.cast(AnnotatedTypeTransform.map(type, mapper));
+    }
+
     /**
      * Create a new {@link AnnotatedType} from the specified {@link AnnotatedType}
      * @param <T> type of {@link AnnotatedType}
@@ -111,7 +195,7 @@ public class AnnotatedTypeFactory {
      * @param <T> Type of {@link AnnotatedType} that is generated from {@code type}
      * @param type {@link Type} "plain" type to annotate
      * @param annotations {@link Annotation} array that annotates {@code type}
-     * @return new {@link AnnotatedType} from the parameters
+     * @return new {@link AnnotatedType} from the parameters. Unannotated basic {@link Class}es are shared instances
      * @throws IllegalArgumentException <ul>
      *   <li>When {@code type} is {@code null}</li>
      *   <li>When {@code annotations} contains a {@code null}</li>
@@ -134,7 +218,8 @@ public class AnnotatedTypeFactory {
      * @param type {@link Type} "plain" type to annotate
      * @param annotations {@link Annotation} array that annotates {@code type}
      * @param extraArgs any extra arguments that can be utilized to create the {@link AnnotatedType}
-     * @return new {@link AnnotatedType} from the parameters
+     * @return new {@link AnnotatedType} from the parameters. Unannotated basic {@link Class}es without a specified
+     *  annotated owner are shared instances
      * @throws IllegalArgumentException <ul>
      *   <li>When {@code type} is {@code null}</li>
      *   <li>When {@code annotations} contains a {@code null}</li>
@@ -160,6 +245,9 @@ public class AnnotatedTypeFactory {
             return Utils.cast(new AnnotatedArrayTypeImpl(type, annotations, componentAnns));
         } else if (type instanceof Class) {
             AnnotatedType owner = Utils.get(extraArgs, 0, AnnotatedType.class, null);
+            if (owner == null && (annotations == null || annotations.length == 0)) {
+                return Utils.cast(UNANNOTATED_CLASSES.get((Class<?>) type));
+            }
             return Utils.cast(new AnnotatedTypeImpl(type, owner, annotations));
         } else if (type instanceof ParameterizedType) {
             ParameterizedType pt = Utils.cast(type);
@@ -198,6 +286,32 @@ public class AnnotatedTypeFactory {
         throw new UnsupportedOperationException("Unsupported type " + type);
     }
 
+    /**
+     * <p>Create a new {@link AnnotatedType} for the specified {@link Type} with annotations addressed by {@link TypePath}.</p>
+     * <p>This allows annotations to be applied at any depth of {@code type} without building intermediate
+     * {@link Annotation} arrays or {@link AnnotatedType}s for each level, such as when applying annotation data read
+     * from class files. The levels of {@code type} that no path addresses are created without annotations.</p>
+     * @param <T> Type of {@link AnnotatedType} that is generated from {@code type}
+     * @param type {@link Type} "plain" type to annotate
+     * @param annotations {@link Map} of {@link TypePath}s to the {@link Annotation}s at that location within {@code type}
+     * @return new {@link AnnotatedType} from the parameters
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code annotations} is {@code null}</li>
+     *   <li>When {@code annotations} contains a {@code null} key or value</li>
+     *   <li>When any value of {@code annotations} contains a {@code null}</li>
+     *   <li>When any key of {@code annotations} does not address a location within {@code type}</li>
+     * </ul>
+     * @throws UnsupportedOperationException When {@code type} contains an unrecognized {@link Type}
+     * @see TypePath
+     * @since 1.2
+     */
+    public static <T extends AnnotatedType> T newAnnotatedTypeFromPaths(Type type, Map<TypePath, Annotation[]> annotations) {
+        Utils.notNull(type, "type");
+        Utils.notNull(annotations, "annotations");
+        return Utils.cast(AnnotatedTypeOverlay.build(type, annotations));
+    }
+
     /**
      * Create an array of {@link AnnotatedType} from arrays of parameters
      * @param types {@link Type} array to annotate
@@ -222,6 +336,41 @@ public class AnnotatedTypeFactory {
         return annTypes;
     }
 
+    /**
+     * <p>Create a new {@link AnnotatedType} from the specified {@link AnnotatedType}, deferring the conversion
+     * of any nested {@link AnnotatedType}s until they are first accessed.</p>
+     * <p>Only the top level of {@code type} is copied immediately; type arguments, component types, and boundaries
+     * are converted on first access, and are themselves lazily created, as is the owner type.
+     * Once its nested types are converted, a lazily created {@link AnnotatedType} no longer retains {@code type},
+     * other than an {@link AnnotatedTypeVariable} of an unknown implementation, which identifies the origin of its boundaries. This is beneficial when only the outer levels of
+     * a deeply nested type are inspected. The conversion of nested types is safe to occur across threads.</p>
+     * <p>As the nested types are converted on demand, their validation is also deferred,
+     * so an invalid nested type is only reported when it is first accessed.</p>
+     * @param <T> type of {@link AnnotatedType}
+     * @param type {@link AnnotatedType} to create a new {@link AnnotatedType} for
+     * @return new {@link AnnotatedType} from {@code type}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code type} does not represent a supported {@link AnnotatedType}</li>
+     * </ul>
+     * @see #newAnnotatedType(AnnotatedType)
+     * @since 1.2
+     */
+    public static <T extends AnnotatedType> T newLazyAnnotatedType(T type) {
+        Utils.notNull(type, "type");
+        Annotation[] annotations = Utils.getAnnotations(type);
+        if (type instanceof AnnotatedArrayType) {
+            return Utils.cast(new AnnotatedArrayTypeImpl((AnnotatedArrayType) type, annotations, true));
+        } else if (type instanceof AnnotatedParameterizedType) {
+            return Utils.cast(new AnnotatedParameterizedTypeImpl((AnnotatedParameterizedType) type, annotations, true));
+        } else if (type instanceof AnnotatedTypeVariable) {
+            return Utils.cast(new AnnotatedTypeVariableImpl((AnnotatedTypeVariable) type, annotations, true));
+        } else if (type instanceof AnnotatedWildcardType) {
+            return Utils.cast(new AnnotatedWildcardTypeImpl((AnnotatedWildcardType) type, annotations, true));
+        }
+        return Utils.cast(new AnnotatedTypeImpl(type, annotations, true));
+    }
+
     /**
      * Create a new instance from or return the provided {@link AnnotatedType} based on whether it
      * has a usable {@link Object#equals(Object)} implementation.
@@ -236,24 +385,16 @@ public class AnnotatedTypeFactory {
      * </ul>
      */
     public static AnnotatedType recreateAnnotatedTypeForEquals(AnnotatedType type) {
-        Utils.notNull(type, "type");
-        /* not all implementations of AnnotatedType have a usable equals method, which causes problems
-         * in .equals implementations of the types with the large dependency of one AnnotatedType depending on others.
-         * So verify */
-        Class<?> typeClass = type.getClass();
-        Boolean usableEquals = USABLE_EQUALS.get(typeClass);
-        if (usableEquals == null) {
-            // calculate and fill the cache to avoid the lookup again later
-            try {
-                // to be considered to have a usable equals, the type itself must implement the equals method
-                Class<?> declared = typeClass.getMethod("equals", Object.class).getDeclaringClass();
-                usableEquals = Boolean.valueOf(typeClass.equals(declared));
-            } catch (NoSuchMethodException | SecurityException ex) {
-                usableEquals = Boolean.FALSE;
-            }
-            USABLE_EQUALS.put(typeClass, usableEquals);
-        }
-        return usableEquals ? type : newAnnotatedType(type);
+        return hasUsableEquals(type) ? type : newAnnotatedType(type);
+    }
+
+    /**
+     * Variant of {@link #recreateAnnotatedTypeForEquals(AnnotatedType)} that lazily converts nested types
+     * @param type {@link AnnotatedType} to recreate as necessary for a usable {@link Object#equals(Object)} implementation.
+     * @return {@code type} or a lazily converted copy of it with a usable {@link Object#equals(Object)} implementation.
+     */
+    static AnnotatedType recreateAnnotatedTypeLazily(AnnotatedType type) {
+        return hasUsableEquals(type) ? type : newLazyAnnotatedType(type);
     }
 
     /**
@@ -278,6 +419,93 @@ public class AnnotatedTypeFactory {
         return ret;
     }
 
+    /**
+     * Variant of {@link #recreateAnnotatedTypesForEquals(AnnotatedType...)} that lazily converts nested types
+     * @param types {@link AnnotatedType}s to recreate as necessary for a usable {@link Object#equals(Object)} implementation.
+     * @return {@code type}s or lazily converted copies of them with a usable {@link Object#equals(Object)} implementation.
+     */
+    static AnnotatedType[] recreateAnnotatedTypesLazily(AnnotatedType... types) {
+        Utils.noNullContained(types, "types");
+        AnnotatedType[] ret = Utils.clone(types);
+        for (int idx = 0; idx < ret.length; ++idx) {
+            ret[idx] = recreateAnnotatedTypeLazily(ret[idx]);
+        }
+        return ret;
+    }
+
+    /**
+     * Remove annotations from every level of the specified {@link AnnotatedType}.
+     * @param <T> type of {@link AnnotatedType}
+     * @param type {@link AnnotatedType} to remove the annotations from
+     * @param annotationTypes types of {@link Annotation}s to remove. When none are specified, all annotations are removed
+     * @return {@code type} when no annotations were removed, otherwise a new {@link AnnotatedType} without the annotations
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code annotationTypes} is {@code null} or contains a {@code null}</li>
+     *   <li>When {@code type} does not represent a supported {@link AnnotatedType}</li>
+     * </ul>
+     * @see #mapAnnotations(AnnotatedType, Function)
+     * @since 1.2
+     */
+    @SafeVarargs
+    public static <T extends AnnotatedType> T stripAnnotations(T type, Class<? extends Annotation>... annotationTypes) {
+        Utils.notNull(type, "type");
+        Utils.notNull(annotationTypes, "annotationTypes");
+        List<Class<? extends Annotation>> stripped = new ArrayList<>(annotationTypes.length);
+        for (int idx = 0; idx < annotationTypes.length; ++idx) {
+            stripped.add(Utils.notNull(annotationTypes[idx], "annotationTypes[" + idx + "]"));
+        }
+        return Utils.cast(AnnotatedTypeTransform.map(type, AnnotatedTypeTransform.stripping(stripped)));
+    }
+
+    /**
+     * Add annotations to the specified {@link AnnotatedType}.
+     * Any existing annotations of the same annotation type as an added annotation are replaced.
+     * Nested levels of {@code type} are retained as-is.
+     * @param <T> type of {@link AnnotatedType}
+     * @param type {@link AnnotatedType} to add the annotations to
+     * @param annotations {@link Annotation}s to add
+     * @return {@code type} when no annotations are added, otherwise a new {@link AnnotatedType} with the annotations
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code annotations} is {@code null} or contains a {@code null}</li>
+     *   <li>When {@code type} does not represent a supported {@link AnnotatedType}</li>
+     * </ul>
+     * @see #withAnnotations(AnnotatedType, Predicate, Annotation...)
+     * @since 1.2
+     */
+    public static <T extends AnnotatedType> T withAnnotations(T type, Annotation... annotations) {
+        Utils.notNull(type, "type");
+        return withAnnotations(type, t-> t == type, annotations);
+    }
+
+    /**
+     * Add annotations to every level of the specified {@link AnnotatedType} that matches {@code filter}.
+     * Any existing annotations of the same annotation type as an added annotation are replaced.
+     * @param <T> type of {@link AnnotatedType}
+     * @param type {@link AnnotatedType} to add the annotations to
+     * @param filter {@link Predicate} that indicates the levels of {@code type} to add the annotations to
+     * @param annotations {@link Annotation}s to add
+     * @return {@code type} when no annotations are added, otherwise a new {@link AnnotatedType} with the annotations
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code filter} is {@code null}</li>
+     *   <li>When {@code annotations} is {@code null} or contains a {@code null}</li>
+     *   <li>When {@code type} does not represent a supported {@link AnnotatedType}</li>
+     * </ul>
+     * @see #mapAnnotations(AnnotatedType, Function)
+     * @since 1.2
+     */
+    public static <T extends AnnotatedType> T withAnnotations(T type, Predicate<? super AnnotatedType> filter, Annotation... annotations) {
+        Utils.notNull(type, "type");
+        Utils.notNull(filter, "filter");
+        Annotation[] additional = Utils.checkedClone(annotations, "annotations");
+        return Utils.cast(AnnotatedTypeTransform.map(type, t-> {
+            Annotation[] current = t.getAnnotations();
+            return filter.test(t) ? AnnotatedTypeTransform.merge(current, additional) : current;
+        }));
+    }
+
     /** Create a new instance, should not be used directly */
     protected AnnotatedTypeFactory() {
         // derivable, but not instantiable
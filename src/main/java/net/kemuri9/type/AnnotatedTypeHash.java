@@ -24,7 +24,7 @@ final class AnnotatedTypeHash {
     private AnnotatedTypeHash() {}
 
     static int hashCode(AnnotatedArrayTypeImpl impl) {
-        return Utils.hash(hashCode((AnnotatedTypeImpl) impl), 127, impl.genericComponentType);
+        return Utils.hash(hashCode((AnnotatedTypeImpl) impl), 127, impl.componentType());
     }
 
     static int hashCode(AnnotatedElementImpl impl) {
@@ -32,7 +32,7 @@ final class AnnotatedTypeHash {
     }
 
     static int hashCode(AnnotatedParameterizedTypeImpl impl) {
-        return Utils.hash(hashCode((AnnotatedTypeImpl) impl), 127, (Object[]) impl.actualTypeArguments);
+        return Utils.hash(hashCode((AnnotatedTypeImpl) impl), 127, (Object[]) impl.typeArguments());
     }
 
     static int hashCode(AnnotatedTypeImpl impl) {
@@ -40,10 +40,12 @@ final class AnnotatedTypeHash {
     }
 
     static int hashCode(AnnotatedTypeVariableImpl impl) {
-        return Utils.hash(hashCode((AnnotatedTypeImpl) impl), 127, (Object[]) impl.annotatedBounds);
+        int base = hashCode((AnnotatedTypeImpl) impl);
+        // boundaries referring to the type variable itself, as in E extends Enum<E>, are not hashed again
+        return TypeTraversal.traverseBounds(impl.getType(), ()-> base, ()-> Utils.hash(base, 127, (Object[]) impl.bounds()));
     }
 
     static int hashCode(AnnotatedWildcardTypeImpl impl) {
-        return Utils.hash(hashCode((AnnotatedTypeImpl) impl), 127, impl.lowerBounds, impl.upperBounds);
+        return Utils.hash(hashCode((AnnotatedTypeImpl) impl), 127, impl.lowerBounds(), impl.upperBounds());
     }
 }
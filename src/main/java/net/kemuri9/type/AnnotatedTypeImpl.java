@@ -28,6 +28,10 @@ import java.lang.reflect.Type;
 public class AnnotatedTypeImpl extends AnnotatedElementImpl implements AnnotatedType {
 
     private static AnnotatedType checkOwnerType(Type type, Type ownerType, AnnotatedType annType) {
+        return checkOwnerType(type, ownerType, annType, false);
+    }
+
+    private static AnnotatedType checkOwnerType(Type type, Type ownerType, AnnotatedType annType, boolean lazy) {
         if (ownerType == null && annType != null) {
                 throw new IllegalArgumentException("may not have an AnnotatedType ownerType when "
                         + type + " does not declare an owner type");
@@ -42,7 +46,8 @@ public class AnnotatedTypeImpl extends AnnotatedElementImpl implements Annotated
         }
         // if the annotated type does not have a usable equals, then recreate it to have one
         if (annType != null) {
-            annType = AnnotatedTypeFactory.recreateAnnotatedTypeForEquals(annType);
+            annType = lazy ? AnnotatedTypeFactory.recreateAnnotatedTypeLazily(annType)
+                    : AnnotatedTypeFactory.recreateAnnotatedTypeForEquals(annType);
         }
         return annType;
     }
@@ -77,10 +82,20 @@ public class AnnotatedTypeImpl extends AnnotatedElementImpl implements Annotated
      * @since 1.1
      */
     public AnnotatedTypeImpl(AnnotatedType type, Annotation[] annotations) {
+        this(type, annotations, false);
+    }
+
+    /**
+     * Create a new {@link AnnotatedTypeImpl} copying parameters from an existing {@link AnnotatedType}
+     * @param type {@link AnnotatedType} to copy parameters from.
+     * @param annotations {@link Annotation}s to utilize for this {@link AnnotatedType} type
+     * @param lazy state of converting the nested types of the owner type on first access instead of immediately
+     */
+    AnnotatedTypeImpl(AnnotatedType type, Annotation[] annotations, boolean lazy) {
         super(annotations);
         this.type = Utils.notNull(Utils.notNull(type, "type").getType(), "type.getType()");
         checkType("type.getType()");
-        this.ownerType = checkOwnerType(this.type, Utils.getOwnerType(this.type), AnnotatedTypeOwner.getAnnotatedOwnerType(type));
+        this.ownerType = checkOwnerType(this.type, Utils.getOwnerType(this.type), AnnotatedTypeOwner.getAnnotatedOwnerType(type), lazy);
     }
 
     /**
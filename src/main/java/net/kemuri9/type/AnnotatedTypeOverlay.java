@@ -0,0 +1,202 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Map;
+
+/**
+ * Construction of {@link AnnotatedType}s from a {@link Type} and annotations addressed by {@link TypePath}.
+ * The paths are first arranged into a trie, which is then walked alongside the {@link Type} in a single pass.
+ * Subtrees of the {@link Type} that no path reaches are created without annotations.
+ */
+final class AnnotatedTypeOverlay {
+
+    /** Node of the trie of paths. Each node represents the path from the root to it */
+    private static final class Node {
+        private final TypePath path;
+        private Annotation[] annotations;
+        private boolean applied;
+        private Node array;
+        private Node inner;
+        private Node wildcard;
+        private Node[] typeArgs;
+
+        private Node(TypePath path) {
+            this.path = path;
+        }
+
+        private Node child(TypePath path, TypePath.Kind kind, int typeArg) {
+            switch (kind) {
+            case ARRAY:
+                return (array == null) ? (array = new Node(path)) : array;
+            case INNER_TYPE:
+                return (inner == null) ? (inner = new Node(path)) : inner;
+            case WILDCARD:
+                return (wildcard == null) ? (wildcard = new Node(path)) : wildcard;
+            default:
+                if (typeArgs == null || typeArgs.length <= typeArg) {
+                    Node[] newArgs = new Node[typeArg + 1];
+                    if (typeArgs != null) {
+                        System.arraycopy(typeArgs, 0, newArgs, 0, typeArgs.length);
+                    }
+                    typeArgs = newArgs;
+                }
+                return (typeArgs[typeArg] == null) ? (typeArgs[typeArg] = new Node(path)) : typeArgs[typeArg];
+            }
+        }
+
+        private Annotation[] apply() {
+            if (annotations == null) {
+                return AnnotatedElementImpl.EMPTY_ANNS;
+            }
+            applied = true;
+            return annotations;
+        }
+
+        private Node typeArg(int idx) {
+            return (typeArgs == null || idx >= typeArgs.length) ? null : typeArgs[idx];
+        }
+
+        /**
+         * Find a node whose annotations were not applied
+         * @return node whose annotations were not applied, or {@code null} when all were applied
+         */
+        private Node unapplied() {
+            if (annotations != null && !applied) {
+                return this;
+            }
+            Node found = null;
+            for (Node child : new Node[] { array, inner, wildcard }) {
+                if (child != null && (found = child.unapplied()) != null) {
+                    return found;
+                }
+            }
+            if (typeArgs != null) {
+                for (Node child : typeArgs) {
+                    if (child != null && (found = child.unapplied()) != null) {
+                        return found;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Create an {@link AnnotatedType} for {@code type} annotated by the annotations of {@code annotations}
+     * @param type {@link Type} to annotate
+     * @param annotations {@link Map} of {@link TypePath} to the {@link Annotation}s at that path
+     * @return new {@link AnnotatedType}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code annotations} contains a {@code null} key or value, or a value contains a {@code null}</li>
+     *   <li>When a path of {@code annotations} does not address a location within {@code type}</li>
+     * </ul>
+     */
+    static AnnotatedType build(Type type, Map<TypePath, Annotation[]> annotations) {
+        Node root = new Node(TypePath.EMPTY);
+        for (Map.Entry<TypePath, Annotation[]> entry : annotations.entrySet()) {
+            TypePath path = Utils.notNull(entry.getKey(), "annotations key");
+            Node node = root;
+            for (int step = 0; step < path.getLength(); ++step) {
+                node = node.child(path, path.getKind(step), path.getTypeArgumentIndex(step));
+            }
+            node.annotations = Utils.checkedClone(entry.getValue(), "annotations[" + path + "]");
+        }
+        AnnotatedType annType = build(type, root);
+        Node unapplied = root.unapplied();
+        if (unapplied != null) {
+            throw new IllegalArgumentException("path " + unapplied.path + " does not address a location within " + type.getTypeName());
+        }
+        return annType;
+    }
+
+    /**
+     * Create an {@link AnnotatedType} for {@code type} from the trie
+     * @param type {@link Type} to annotate
+     * @param node trie node of the path that addresses {@code type}. {@code null} when no path reaches {@code type}
+     * @return new {@link AnnotatedType}
+     */
+    private static AnnotatedType build(Type type, Node node) {
+        if (node == null) {
+            return AnnotatedTypeFactory.newAnnotatedType(type);
+        }
+        if (type instanceof Class && ((Class<?>) type).isArray()) {
+            AnnotatedType component = build(((Class<?>) type).getComponentType(), node.array);
+            return new AnnotatedArrayTypeImpl(type, node.apply(), component);
+        } else if (type instanceof GenericArrayType) {
+            AnnotatedType component = build(((GenericArrayType) type).getGenericComponentType(), node.array);
+            return new AnnotatedArrayTypeImpl(type, node.apply(), component);
+        } else if (type instanceof TypeVariable) {
+            return new AnnotatedTypeVariableImpl((TypeVariable<?>) type, node.apply());
+        } else if (type instanceof WildcardType) {
+            WildcardType wc = (WildcardType) type;
+            Type[] lower = wc.getLowerBounds();
+            Type[] upper = wc.getUpperBounds();
+            // the single bound of a wildcard is the lower bound when present, otherwise the upper bound
+            AnnotatedType[] annLower = new AnnotatedType[lower.length];
+            AnnotatedType[] annUpper = new AnnotatedType[upper.length];
+            if (lower.length > 0) {
+                annLower[0] = build(lower[0], node.wildcard);
+            } else if (upper.length > 0) {
+                annUpper[0] = build(upper[0], node.wildcard);
+            }
+            return new AnnotatedWildcardTypeImpl(wc, node.apply(), annLower, annUpper);
+        }
+
+        /* for nested types the path addresses the outermost annotatable type,
+         * with every inner type one INNER_TYPE step deeper */
+        Node own = node;
+        int depth = Utils.getInnerDepth(type);
+        for (int idx = 0; idx < depth && own != null; ++idx) {
+            own = own.inner;
+        }
+        Type ownerType = Utils.getOwnerType(type);
+        AnnotatedType annOwner = null;
+        if (ownerType != null) {
+            // an owner that is only a qualifier of a static type cannot be annotated
+            annOwner = build(ownerType, (depth > 0) ? node : null);
+        }
+        Annotation[] anns = (own == null) ? AnnotatedElementImpl.EMPTY_ANNS : own.apply();
+        if (type instanceof ParameterizedType) {
+            ParameterizedType pt = (ParameterizedType) type;
+            Type[] args = pt.getActualTypeArguments();
+            AnnotatedType[] annArgs = new AnnotatedType[args.length];
+            if (own != null) {
+                for (int idx = 0; idx < args.length; ++idx) {
+                    Node argNode = own.typeArg(idx);
+                    if (argNode != null) {
+                        annArgs[idx] = build(args[idx], argNode);
+                    }
+                }
+            }
+            return new AnnotatedParameterizedTypeImpl(pt, annOwner, anns, annArgs);
+        } else if (type instanceof Class) {
+            return AnnotatedTypeFactory.newAnnotatedType(type, anns, annOwner);
+        }
+        throw new UnsupportedOperationException("Unsupported type " + type);
+    }
+
+    private AnnotatedTypeOverlay() {
+        // not instantiable
+    }
+}
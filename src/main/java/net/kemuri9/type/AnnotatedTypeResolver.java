@@ -0,0 +1,331 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedArrayType;
+import java.lang.reflect.AnnotatedParameterizedType;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.AnnotatedTypeVariable;
+import java.lang.reflect.AnnotatedWildcardType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Resolves {@link AnnotatedType}s by substituting {@link TypeVariable}s with the {@link AnnotatedType}s that they are bound to,
+ * retaining the annotations of both the usage of the {@link TypeVariable} and of the binding.</p>
+ * <p>The annotations of a substituted {@link TypeVariable} are merged onto the bound {@link AnnotatedType}, where annotations
+ * of the usage replace annotations of the binding that are of the same annotation type. For example,
+ * resolving {@code Repo<@NonNull T>} with {@code T} bound to {@code @Size(max=5) String} results in
+ * {@code Repo<@Size(max=5) @NonNull String>}.</p>
+ * <p>As with {@link TypeResolver}, resolution shares structure with the input: only the levels of an {@link AnnotatedType} that
+ * contain a substituted {@link TypeVariable} are recreated, all other levels are reused as-is.
+ * Substitution is a single step, bound {@link AnnotatedType}s are not themselves resolved again.</p>
+ * @since 1.2
+ */
+public final class AnnotatedTypeResolver {
+
+    /** {@link AnnotatedTypeResolver} that has no bindings, and so resolves every {@link AnnotatedType} to itself */
+    public static final AnnotatedTypeResolver EMPTY = new AnnotatedTypeResolver(Collections.emptyMap());
+
+    /** cached resolvers of classes, binding the type variables of all of their generic supertypes */
+    private static final ClassValue<AnnotatedTypeResolver> CLASS_RESOLVERS = new ClassValue<AnnotatedTypeResolver>() {
+        @Override
+        protected AnnotatedTypeResolver computeValue(Class<?> type) {
+            Map<TypeVariable<?>, AnnotatedType> bindings = new HashMap<>();
+            // the annotated supertypes are expressed in terms of the type variables of type, and bind those of the supertypes.
+            // supertypes inherited as raw types are indexed by their erasure, which does not bind
+            for (Map.Entry<Class<?>, AnnotatedType> entry : AnnotatedSupertypes.getSupertypes(type).entrySet()) {
+                if (entry.getKey() != type && entry.getValue() instanceof AnnotatedParameterizedType) {
+                    putArguments(bindings, (AnnotatedParameterizedType) entry.getValue());
+                }
+            }
+            return bindings.isEmpty() ? EMPTY : new AnnotatedTypeResolver(bindings);
+        }
+    };
+
+    /**
+     * Create an {@link AnnotatedTypeResolver} from the specified bindings
+     * @param bindings {@link Map} of {@link TypeVariable}s to the {@link AnnotatedType}s that they are bound to
+     * @return {@link AnnotatedTypeResolver} that resolves with {@code bindings}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code bindings} is {@code null}</li>
+     *   <li>When {@code bindings} contains a {@code null} key or value</li>
+     * </ul>
+     */
+    public static AnnotatedTypeResolver of(Map<? extends TypeVariable<?>, ? extends AnnotatedType> bindings) {
+        Utils.notNull(bindings, "bindings");
+        if (bindings.isEmpty()) {
+            return EMPTY;
+        }
+        Map<TypeVariable<?>, AnnotatedType> copy = new HashMap<>(bindings.size() * 2);
+        for (Map.Entry<? extends TypeVariable<?>, ? extends AnnotatedType> entry : bindings.entrySet()) {
+            TypeVariable<?> variable = Utils.notNull(entry.getKey(), "bindings key");
+            copy.put(TypeResolver.getDeclared(variable), Utils.notNull(entry.getValue(), "bindings[" + variable + "]"));
+        }
+        return new AnnotatedTypeResolver(copy);
+    }
+
+    /**
+     * <p>Create an {@link AnnotatedTypeResolver} that binds the type variables of {@code type} and of all of its generic supertypes.</p>
+     * <p>When {@code type} is an {@link AnnotatedParameterizedType}, its type variables are bound to its annotated type arguments,
+     * including those of its owner types. The type variables of the supertypes are then bound to their annotated type arguments
+     * as declared by the class hierarchy, expressed in terms of the annotated type arguments of {@code type}.
+     * Type variables of supertypes that are inherited as raw types remain unbound.</p>
+     * @param type {@link AnnotatedType} of a {@link Class} or {@link ParameterizedType} to create an {@link AnnotatedTypeResolver} for
+     * @return {@link AnnotatedTypeResolver} for {@code type}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code type} does not describe a {@link Class} or a {@link ParameterizedType} of a {@link Class}</li>
+     *   <li>When {@code type} does not have the same number of type arguments as its raw type declares</li>
+     * </ul>
+     */
+    public static AnnotatedTypeResolver forType(AnnotatedType type) {
+        Utils.notNull(type, "type");
+        Type rawType = type.getType();
+        if (rawType instanceof Class) {
+            return CLASS_RESOLVERS.get((Class<?>) rawType);
+        } else if (!(type instanceof AnnotatedParameterizedType) || !(rawType instanceof ParameterizedType)
+                || !(((ParameterizedType) rawType).getRawType() instanceof Class)) {
+            throw new IllegalArgumentException("type must describe a Class or a ParameterizedType of a Class, was " + type);
+        }
+        AnnotatedTypeResolver ownResolver = forArguments((AnnotatedParameterizedType) type);
+        AnnotatedTypeResolver inherited = CLASS_RESOLVERS.get((Class<?>) ((ParameterizedType) rawType).getRawType());
+        Map<TypeVariable<?>, AnnotatedType> all = new HashMap<>(ownResolver.bindings);
+        for (Map.Entry<TypeVariable<?>, AnnotatedType> entry : inherited.bindings.entrySet()) {
+            all.put(entry.getKey(), ownResolver.resolveType(entry.getValue()));
+        }
+        return new AnnotatedTypeResolver(all);
+    }
+
+    /**
+     * Create an {@link AnnotatedTypeResolver} that binds only the type variables of the raw type of {@code type},
+     * and of its owner types, to the annotated type arguments
+     * @param type {@link AnnotatedParameterizedType} of a {@link ParameterizedType} of a {@link Class}
+     * @return {@link AnnotatedTypeResolver} for the annotated type arguments of {@code type}
+     * @throws IllegalArgumentException When {@code type} does not have the same number of type arguments as its raw type declares
+     */
+    static AnnotatedTypeResolver forArguments(AnnotatedParameterizedType type) {
+        Map<TypeVariable<?>, AnnotatedType> own = new HashMap<>();
+        putArguments(own, type);
+        return new AnnotatedTypeResolver(own);
+    }
+
+    private static AnnotatedType[] getArguments(AnnotatedParameterizedType type) {
+        return (type instanceof AnnotatedParameterizedTypeImpl) ? ((AnnotatedParameterizedTypeImpl) type).typeArguments()
+                : type.getAnnotatedActualTypeArguments();
+    }
+
+    private static Type[] getTypes(AnnotatedType[] types) {
+        Type[] ret = new Type[types.length];
+        for (int idx = 0; idx < types.length; ++idx) {
+            ret[idx] = types[idx].getType();
+        }
+        return ret;
+    }
+
+    /**
+     * Bind the type variables of the raw type of {@code type}, and of its owner types, to the annotated type arguments
+     * @param bindings {@link Map} to populate
+     * @param type {@link AnnotatedParameterizedType} to bind the annotated type arguments of
+     */
+    private static void putArguments(Map<TypeVariable<?>, AnnotatedType> bindings, AnnotatedParameterizedType type) {
+        ParameterizedType pt = (ParameterizedType) type.getType();
+        TypeVariable<?>[] variables = ((Class<?>) pt.getRawType()).getTypeParameters();
+        AnnotatedType[] args = getArguments(type);
+        if (variables.length != args.length) {
+            throw new IllegalArgumentException(pt + " has " + args.length + " type arguments, but "
+                    + pt.getRawType().getTypeName() + " declares " + variables.length);
+        }
+        for (int idx = 0; idx < variables.length; ++idx) {
+            bindings.put(variables[idx], args[idx]);
+        }
+        AnnotatedType owner = AnnotatedTypeOwner.getAnnotatedOwnerType(type);
+        if (owner instanceof AnnotatedParameterizedType && owner.getType() instanceof ParameterizedType
+                && ((ParameterizedType) owner.getType()).getRawType() instanceof Class) {
+            putArguments(bindings, (AnnotatedParameterizedType) owner);
+        }
+    }
+
+    /** bindings of {@link TypeVariable}s, keyed by their declared variants */
+    private final Map<TypeVariable<?>, AnnotatedType> bindings;
+
+    private AnnotatedTypeResolver(Map<TypeVariable<?>, AnnotatedType> bindings) {
+        this.bindings = bindings;
+    }
+
+    /**
+     * Retrieve the bindings of this {@link AnnotatedTypeResolver}
+     * @return unmodifiable {@link Map} of {@link TypeVariable}s to the {@link AnnotatedType}s that they are bound to
+     */
+    public Map<TypeVariable<?>, AnnotatedType> getBindings() {
+        return Collections.unmodifiableMap(bindings);
+    }
+
+    /**
+     * Resolve the specified {@link AnnotatedType} by substituting its bound {@link TypeVariable}s.
+     * Array types whose component resolves to a {@link Class} are resolved to the array {@link Class}.
+     * @param type {@link AnnotatedType} to resolve
+     * @return {@code type} when it contains no bound {@link TypeVariable}s, otherwise the resolved {@link AnnotatedType}
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     */
+    public AnnotatedType resolve(AnnotatedType type) {
+        Utils.notNull(type, "type");
+        return bindings.isEmpty() ? type : resolveType(type);
+    }
+
+    /**
+     * Resolve the specified {@link AnnotatedType}s by substituting their bound {@link TypeVariable}s.
+     * @param types {@link AnnotatedType}s to resolve
+     * @return {@code types} when they contain no bound {@link TypeVariable}s, otherwise a new array of the resolved {@link AnnotatedType}s
+     * @throws IllegalArgumentException When {@code types} is {@code null} or contains a {@code null}
+     */
+    public AnnotatedType[] resolve(AnnotatedType... types) {
+        Utils.noNullContained(types, "types");
+        return bindings.isEmpty() ? types : resolveTypes(types);
+    }
+
+    @Override
+    public String toString() {
+        return "AnnotatedTypeResolver" + bindings;
+    }
+
+    /**
+     * Retrieve the annotated component of an array whose component resolved to {@code component}.
+     * As with {@link TypeResolver#toArrayComponent(Type)}, a wildcard component is replaced by its first upper boundary,
+     * or by {@link Object} when it has lower boundaries, carrying the annotations of the wildcard.
+     * @param component resolved annotated component
+     * @return {@code component} when it is not an {@link AnnotatedWildcardType}, otherwise the replacement component
+     */
+    private static AnnotatedType toArrayComponent(AnnotatedType component) {
+        if (!(component instanceof AnnotatedWildcardType)) {
+            return component;
+        }
+        AnnotatedWildcardType wc = (AnnotatedWildcardType) component;
+        Annotation[] annotations = Utils.getAnnotations(wc);
+        AnnotatedType[] upper = wc.getAnnotatedUpperBounds();
+        if (wc.getAnnotatedLowerBounds().length > 0 || upper.length == 0) {
+            return AnnotatedTypeFactory.newAnnotatedType(Object.class, annotations);
+        }
+        AnnotatedType bound = (annotations.length == 0) ? upper[0] : AnnotatedTypeFactory.withAnnotations(upper[0], annotations);
+        return toArrayComponent(bound);
+    }
+
+    private AnnotatedType lookup(TypeVariable<?> variable) {
+        AnnotatedType bound = bindings.get(variable);
+        return (bound == null) ? bindings.get(TypeResolver.getDeclared(variable)) : bound;
+    }
+
+    /**
+     * Resolve the boundaries of a wildcard, flattening any boundaries that resolve to a wildcard.
+     * The annotations of a flattened wildcard are merged onto each of its boundaries.
+     * @param bounds boundaries to resolve
+     * @param upper state of the boundaries being upper boundaries
+     * @return {@code bounds} when unchanged, otherwise the resolved boundaries
+     */
+    private AnnotatedType[] resolveBounds(AnnotatedType[] bounds, boolean upper) {
+        AnnotatedType[] resolved = resolveTypes(bounds);
+        if (resolved == bounds) {
+            return bounds;
+        }
+        List<AnnotatedType> flattened = new ArrayList<>(resolved.length);
+        for (AnnotatedType bound : resolved) {
+            if (bound instanceof AnnotatedWildcardType) {
+                AnnotatedWildcardType wc = (AnnotatedWildcardType) bound;
+                // the annotations of the wildcard, which include those of the usage, are carried to its boundaries
+                Annotation[] annotations = Utils.getAnnotations(wc);
+                for (AnnotatedType wcBound : upper ? wc.getAnnotatedUpperBounds() : wc.getAnnotatedLowerBounds()) {
+                    flattened.add((annotations.length == 0) ? wcBound : AnnotatedTypeFactory.withAnnotations(wcBound, annotations));
+                }
+            } else {
+                flattened.add(bound);
+            }
+        }
+        return flattened.toArray(new AnnotatedType[flattened.size()]);
+    }
+
+    AnnotatedType resolveType(AnnotatedType type) {
+        Annotation[] annotations = Utils.getAnnotations(type);
+        if (type instanceof AnnotatedTypeVariable) {
+            AnnotatedType bound = lookup((TypeVariable<?>) type.getType());
+            if (bound == null) {
+                return type;
+            }
+            // annotations of the usage take precedence over those of the binding
+            return (annotations.length == 0) ? bound : AnnotatedTypeFactory.withAnnotations(bound, annotations);
+        } else if (type instanceof AnnotatedParameterizedType) {
+            AnnotatedParameterizedType apt = (AnnotatedParameterizedType) type;
+            ParameterizedType pt = (ParameterizedType) type.getType();
+            AnnotatedType owner = AnnotatedTypeOwner.getAnnotatedOwnerType(type);
+            AnnotatedType newOwner = (owner == null) ? null : resolveType(owner);
+            AnnotatedType[] args = getArguments(apt);
+            AnnotatedType[] newArgs = resolveTypes(args);
+            if (newOwner == owner && newArgs == args) {
+                return type;
+            }
+            Type ownerType = (newOwner == null) ? pt.getOwnerType() : newOwner.getType();
+            ParameterizedType newPt = new ParameterizedTypeImpl(ownerType, pt.getRawType(), getTypes(newArgs));
+            return new AnnotatedParameterizedTypeImpl(newPt, newOwner, annotations, newArgs);
+        } else if (type instanceof AnnotatedArrayType) {
+            AnnotatedType component = (type instanceof AnnotatedArrayTypeImpl) ? ((AnnotatedArrayTypeImpl) type).componentType()
+                    : ((AnnotatedArrayType) type).getAnnotatedGenericComponentType();
+            AnnotatedType newComponent = resolveType(component);
+            if (newComponent == component) {
+                return type;
+            }
+            newComponent = toArrayComponent(newComponent);
+            return new AnnotatedArrayTypeImpl(Utils.newArrayType(newComponent.getType()), annotations, newComponent);
+        } else if (type instanceof AnnotatedWildcardType) {
+            AnnotatedWildcardType wc = (AnnotatedWildcardType) type;
+            AnnotatedType[] lower = (type instanceof AnnotatedWildcardTypeImpl) ? ((AnnotatedWildcardTypeImpl) type).lowerBounds()
+                    : wc.getAnnotatedLowerBounds();
+            AnnotatedType[] upper = (type instanceof AnnotatedWildcardTypeImpl) ? ((AnnotatedWildcardTypeImpl) type).upperBounds()
+                    : wc.getAnnotatedUpperBounds();
+            AnnotatedType[] newLower = resolveBounds(lower, false);
+            AnnotatedType[] newUpper = resolveBounds(upper, true);
+            if (newLower == lower && newUpper == upper) {
+                return type;
+            }
+            Type[] lowerTypes = getTypes(newLower);
+            Type[] upperTypes = getTypes(newUpper);
+            WildcardType newWc = (lowerTypes.length == 0 && upperTypes.length > 0) ? WildcardTypeImpl.forExtends(upperTypes)
+                    : new WildcardTypeImpl(lowerTypes, upperTypes);
+            return new AnnotatedWildcardTypeImpl(newWc, annotations, newLower, newUpper);
+        }
+        return type;
+    }
+
+    AnnotatedType[] resolveTypes(AnnotatedType[] types) {
+        AnnotatedType[] ret = types;
+        for (int idx = 0; idx < types.length; ++idx) {
+            AnnotatedType resolved = resolveType(types[idx]);
+            if (resolved != types[idx]) {
+                if (ret == types) {
+                    ret = types.clone();
+                }
+                ret[idx] = resolved;
+            }
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedArrayType;
+import java.lang.reflect.AnnotatedParameterizedType;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.AnnotatedTypeVariable;
+import java.lang.reflect.AnnotatedWildcardType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Structural transformations of the annotations on {@link AnnotatedType} trees.
+ * Only the nodes whose annotations change, and the nodes that contain them, are recreated.
+ * All other nodes are reused as-is.
+ */
+final class AnnotatedTypeTransform {
+
+    /**
+     * Map the annotations of every node within {@code type}
+     * @param type {@link AnnotatedType} to map the annotations of
+     * @param mapper {@link Function} providing the new annotations of a node
+     * @return {@code type} when no annotations changed, otherwise a new {@link AnnotatedType} with the mapped annotations
+     */
+    static AnnotatedType map(AnnotatedType type, Function<? super AnnotatedType, Annotation[]> mapper) {
+        Annotation[] current = Utils.getAnnotations(type);
+        Annotation[] mapped = Utils.noNullContained(mapper.apply(type), "mapped annotations of " + type);
+        boolean changed = !Arrays.equals(current, mapped);
+
+        if (type instanceof AnnotatedArrayType) {
+            AnnotatedArrayType arrType = (AnnotatedArrayType) type;
+            AnnotatedType component = (type instanceof AnnotatedArrayTypeImpl) ? ((AnnotatedArrayTypeImpl) type).componentType()
+                    : arrType.getAnnotatedGenericComponentType();
+            AnnotatedType newComponent = map(component, mapper);
+            if (!changed && newComponent == component) {
+                return type;
+            }
+            return new AnnotatedArrayTypeImpl(type.getType(), mapped, newComponent);
+        } else if (type instanceof AnnotatedTypeVariable) {
+            // boundaries are part of the declaration and not of this usage, so they are retained as-is
+            if (!changed) {
+                return type;
+            }
+            AnnotatedType[] bounds = (type instanceof AnnotatedTypeVariableImpl) ? ((AnnotatedTypeVariableImpl) type).bounds()
+                    : ((AnnotatedTypeVariable) type).getAnnotatedBounds();
+            return new AnnotatedTypeVariableImpl((TypeVariable<?>) type.getType(), mapped, bounds);
+        } else if (type instanceof AnnotatedWildcardType) {
+            AnnotatedWildcardType wcType = (AnnotatedWildcardType) type;
+            AnnotatedType[] lower = (type instanceof AnnotatedWildcardTypeImpl) ? ((AnnotatedWildcardTypeImpl) type).lowerBounds()
+                    : wcType.getAnnotatedLowerBounds();
+            AnnotatedType[] upper = (type instanceof AnnotatedWildcardTypeImpl) ? ((AnnotatedWildcardTypeImpl) type).upperBounds()
+                    : wcType.getAnnotatedUpperBounds();
+            AnnotatedType[] newLower = map(lower, mapper);
+            AnnotatedType[] newUpper = map(upper, mapper);
+            if (!changed && newLower == lower && newUpper == upper) {
+                return type;
+            }
+            return new AnnotatedWildcardTypeImpl((WildcardType) type.getType(), mapped, newLower, newUpper);
+        }
+
+        AnnotatedType owner = AnnotatedTypeOwner.getAnnotatedOwnerType(type);
+        AnnotatedType newOwner = (owner == null) ? null : map(owner, mapper);
+        if (type instanceof AnnotatedParameterizedType) {
+            AnnotatedType[] typeArgs = (type instanceof AnnotatedParameterizedTypeImpl) ? ((AnnotatedParameterizedTypeImpl) type).typeArguments()
+                    : ((AnnotatedParameterizedType) type).getAnnotatedActualTypeArguments();
+            AnnotatedType[] newTypeArgs = map(typeArgs, mapper);
+            if (!changed && newOwner == owner && newTypeArgs == typeArgs) {
+                return type;
+            }
+            return new AnnotatedParameterizedTypeImpl((ParameterizedType) type.getType(), newOwner, mapped, newTypeArgs);
+        }
+        if (!changed && newOwner == owner) {
+            return type;
+        }
+        return new AnnotatedTypeImpl(type.getType(), newOwner, mapped);
+    }
+
+    /**
+     * Map the annotations of every node within all of the {@code types}
+     * @param types {@link AnnotatedType}s to map the annotations of
+     * @param mapper {@link Function} providing the new annotations of a node
+     * @return {@code types} when no annotations changed, otherwise a new array with the mapped types
+     */
+    private static AnnotatedType[] map(AnnotatedType[] types, Function<? super AnnotatedType, Annotation[]> mapper) {
+        AnnotatedType[] ret = types;
+        for (int idx = 0; idx < types.length; ++idx) {
+            AnnotatedType mapped = map(types[idx], mapper);
+            if (mapped != types[idx]) {
+                if (ret == types) {
+                    ret = types.clone();
+                }
+                ret[idx] = mapped;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Create a mapper that removes the specified annotation types
+     * @param annotationTypes annotation types to remove. When empty, all annotations are removed
+     * @return {@link Function} removing the annotation types from a node
+     */
+    static Function<AnnotatedType, Annotation[]> stripping(List<Class<? extends Annotation>> annotationTypes) {
+        if (annotationTypes.isEmpty()) {
+            return t-> AnnotatedElementImpl.EMPTY_ANNS;
+        }
+        return t-> {
+            Annotation[] current = t.getAnnotations();
+            List<Annotation> retained = new ArrayList<>(current.length);
+            for (Annotation ann : current) {
+                if (!annotationTypes.contains(ann.annotationType())) {
+                    retained.add(ann);
+                }
+            }
+            // return the original annotations when unchanged to avoid any allocation
+            return (retained.size() == current.length) ? current : retained.toArray(AnnotatedElementImpl.EMPTY_ANNS);
+        };
+    }
+
+    /**
+     * Merge additional annotations into existing annotations.
+     * Any existing annotations with the same annotation type as an additional annotation are replaced.
+     * @param current existing annotations
+     * @param additional additional annotations to merge in
+     * @return {@code current} when it already contains all of {@code additional}, otherwise the merged annotations
+     */
+    static Annotation[] merge(Annotation[] current, Annotation[] additional) {
+        if (containsAll(current, additional)) {
+            // return the original annotations when unchanged, so that the type is not recreated
+            return current;
+        }
+        List<Annotation> merged = new ArrayList<>(current.length + additional.length);
+        for (Annotation ann : current) {
+            if (!containsType(additional, ann.annotationType())) {
+                merged.add(ann);
+            }
+        }
+        merged.addAll(Arrays.asList(additional));
+        return merged.toArray(AnnotatedElementImpl.EMPTY_ANNS);
+    }
+
+    private static boolean contains(Annotation[] annotations, Annotation annotation) {
+        for (Annotation ann : annotations) {
+            if (ann.equals(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsAll(Annotation[] annotations, Annotation[] contained) {
+        for (Annotation ann : contained) {
+            if (!contains(annotations, ann)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsType(Annotation[] annotations, Class<? extends Annotation> annotationType) {
+        for (Annotation ann : annotations) {
+            if (ann.annotationType().equals(annotationType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AnnotatedTypeTransform() {
+        // not instantiable
+    }
+}
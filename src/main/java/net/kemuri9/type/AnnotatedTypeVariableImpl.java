@@ -28,12 +28,32 @@ import java.util.Arrays;
  */
 public final class AnnotatedTypeVariableImpl extends AnnotatedTypeImpl implements AnnotatedTypeVariable {
 
+    private static Object boundsOrigin(AnnotatedTypeVariable type) {
+        if (type instanceof AnnotatedTypeVariableImpl) {
+            return ((AnnotatedTypeVariableImpl) type).boundsOrigin;
+        }
+        // the annotated type variables of the JDK report the declared boundaries of the type variable
+        return AnnotatedTypeFactory.isCoreImplementation(type) ? type.getType() : type;
+    }
+
     private static AnnotatedType[] cloneBounds(TypeVariable<?> type) {
-        return AnnotatedTypeFactory.recreateAnnotatedTypesForEquals(type.getAnnotatedBounds());
+        AnnotatedType[] bounds = type.getAnnotatedBounds();
+        return TypeTraversal.traverseBounds(type, ()-> AnnotatedTypeFactory.recreateAnnotatedTypesLazily(bounds),
+                ()-> AnnotatedTypeFactory.recreateAnnotatedTypesForEquals(bounds));
     }
 
-    /** {@link AnnotatedType}s representing the annotated boundaries */
-    final AnnotatedType[] annotatedBounds;
+    /** {@link AnnotatedType}s representing the annotated boundaries. {@code null} until first accessed when lazily created */
+    private volatile AnnotatedType[] annotatedBounds;
+
+    /**
+     * origin of the annotated boundaries: the {@link TypeVariable} when they are its declared boundaries,
+     * otherwise the object that supplied them. Comparing recursive boundaries only assumes equality
+     * when re-entering a comparison between the same origins
+     */
+    private final Object boundsOrigin;
+
+    /** {@link AnnotatedTypeVariable} to lazily convert the boundaries from. {@code null} when eagerly created, or once converted */
+    private volatile AnnotatedTypeVariable source;
 
     /**
      * Create a {@link AnnotatedTypeVariableImpl} from an existing {@link AnnotatedTypeVariable}
@@ -64,10 +84,20 @@ public final class AnnotatedTypeVariableImpl extends AnnotatedTypeImpl implement
      * @since 1.1
      */
     public AnnotatedTypeVariableImpl(AnnotatedTypeVariable type, Annotation[] annotations) {
-        super(type, annotations);
-        AnnotatedType[] bounds = Utils.notEmpty(type.getAnnotatedBounds(), "type.getAnnotatedBounds()");
-        // recreate types to have valid equals implementations
-        this.annotatedBounds = AnnotatedTypeFactory.recreateAnnotatedTypesForEquals(bounds);
+        this(type, annotations, false);
+    }
+
+    /**
+     * Create a {@link AnnotatedTypeVariableImpl} from an existing {@link AnnotatedTypeVariable}
+     * @param type {@link AnnotatedTypeVariable} to copy details from
+     * @param annotations {@link Annotation}s to utilize for the {@link AnnotatedTypeVariable}
+     * @param lazy state of converting the boundaries on first access instead of immediately
+     */
+    AnnotatedTypeVariableImpl(AnnotatedTypeVariable type, Annotation[] annotations, boolean lazy) {
+        super(type, annotations, lazy);
+        this.boundsOrigin = boundsOrigin(type);
+        this.source = lazy ? type : null;
+        this.annotatedBounds = lazy ? null : convertBounds(type, false);
     }
 
     /**
@@ -81,6 +111,8 @@ public final class AnnotatedTypeVariableImpl extends AnnotatedTypeImpl implement
      */
     public AnnotatedTypeVariableImpl(TypeVariable<?> type) {
         super(Utils.notNull(type, "type"), null, type.getAnnotations());
+        this.boundsOrigin = type;
+        this.source = null;
         // clone to avoid modification by caller
         this.annotatedBounds = cloneBounds(type);
     }
@@ -98,6 +130,8 @@ public final class AnnotatedTypeVariableImpl extends AnnotatedTypeImpl implement
      */
     public AnnotatedTypeVariableImpl(TypeVariable<?> type, Annotation... annotations) {
         super(type, null, annotations);
+        this.boundsOrigin = type;
+        this.source = null;
         // clone to avoid modification by caller
         this.annotatedBounds = cloneBounds(type);
     }
@@ -117,7 +151,9 @@ public final class AnnotatedTypeVariableImpl extends AnnotatedTypeImpl implement
      */
     public AnnotatedTypeVariableImpl(TypeVariable<?> type, Annotation[] annotations, Annotation[][] boundsAnnotations) {
         super(type, null, annotations);
-        annotatedBounds = cloneBounds(type);
+        this.source = null;
+        AnnotatedType[] annotatedBounds = cloneBounds(type);
+        boolean overridden = false;
         // loop through the incoming annotations bound arrays and check against the type's boundaries
         for (int idx = 0; idx < annotatedBounds.length; ++idx) {
             AnnotatedType bound = annotatedBounds[idx];
@@ -130,7 +166,10 @@ public final class AnnotatedTypeVariableImpl extends AnnotatedTypeImpl implement
             Utils.noNullContained(boundAnns, "boundsAnnotations[" + idx + "]");
             bound = AnnotatedTypeFactory.newAnnotatedType(bound.getType(), boundAnns);
             annotatedBounds[idx] = bound;
+            overridden = true;
         }
+        this.boundsOrigin = overridden ? this : type;
+        this.annotatedBounds = annotatedBounds;
     }
 
     /**
@@ -150,7 +189,9 @@ public final class AnnotatedTypeVariableImpl extends AnnotatedTypeImpl implement
      */
     public AnnotatedTypeVariableImpl(TypeVariable<?> type, Annotation[] annotations, AnnotatedType... annotatedBoundaries) {
         super(type, null, annotations);
-        annotatedBounds = cloneBounds(type);
+        this.source = null;
+        AnnotatedType[] annotatedBounds = cloneBounds(type);
+        boolean overridden = false;
         // loop through the incoming annotated types and check against the type's boundaries
         for (int idx = 0; idx < annotatedBounds.length; ++idx) {
             AnnotatedType override = Utils.get(annotatedBoundaries, idx);
@@ -159,7 +200,42 @@ public final class AnnotatedTypeVariableImpl extends AnnotatedTypeImpl implement
             }
             override = AnnotatedTypeFactory.recreateAnnotatedTypeForEquals(override);
             annotatedBounds[idx] = Utils.checkMatching(annotatedBounds[idx].getType(), override);
+            overridden = true;
+        }
+        this.boundsOrigin = overridden ? this : type;
+        this.annotatedBounds = annotatedBounds;
+    }
+
+    /**
+     * Retrieve the annotated boundaries, converting them from the source type when lazily created
+     * @return annotated boundaries. this is the internal array and must not be modified
+     */
+    AnnotatedType[] bounds() {
+        AnnotatedType[] bounds = annotatedBounds;
+        if (bounds == null) {
+            AnnotatedTypeVariable src = source;
+            if (src == null) {
+                // another thread completed the conversion, which publishes the boundaries before releasing the source
+                return annotatedBounds;
+            }
+            // conversion is idempotent, so racing threads at worst perform it multiple times
+            bounds = convertBounds(src, true);
+            annotatedBounds = bounds;
+            // release the source once converted, so that it does not remain reachable
+            source = null;
+        }
+        return bounds;
+    }
+
+    private static AnnotatedType[] convertBounds(AnnotatedTypeVariable type, boolean lazy) {
+        AnnotatedType[] bounds = Utils.notEmpty(type.getAnnotatedBounds(), "type.getAnnotatedBounds()");
+        // recreate types to have valid equals implementations
+        if (lazy) {
+            return AnnotatedTypeFactory.recreateAnnotatedTypesLazily(bounds);
         }
+        // boundaries referring to the type variable itself, as in E extends Enum<E>, are converted lazily when re-entered
+        return TypeTraversal.traverseBounds(type.getType(), ()-> AnnotatedTypeFactory.recreateAnnotatedTypesLazily(bounds),
+                ()-> AnnotatedTypeFactory.recreateAnnotatedTypesForEquals(bounds));
     }
 
     @Override
@@ -177,13 +253,16 @@ public final class AnnotatedTypeVariableImpl extends AnnotatedTypeImpl implement
         }
         AnnotatedTypeVariable o = (AnnotatedTypeVariable) other;
         // this depends on annotatedBounds having usable equals implementations!
-        return Arrays.equals(annotatedBounds, o.getAnnotatedBounds());
+        // boundaries referring back to the compared type variables are equal when the same comparison is re-entered,
+        // as the rest of the boundaries decide
+        return TypeTraversal.compareBounds(boundsOrigin, boundsOrigin(o),
+                ()-> Arrays.equals(bounds(), o.getAnnotatedBounds()));
     }
 
     @Override
     public AnnotatedType[] getAnnotatedBounds() {
         // clone to avoid modification by caller
-        return Utils.clone(annotatedBounds);
+        return Utils.clone(bounds());
     }
 
     @Override
@@ -42,10 +42,10 @@ final class AnnotatedWildcardTypeEquals {
     }
 
     static boolean isEqual(AnnotatedWildcardTypeImpl left, AnnotatedWildcardType right) {
-        if (!Arrays.equals(left.lowerBounds, right.getAnnotatedLowerBounds())) {
+        if (!Arrays.equals(left.lowerBounds(), right.getAnnotatedLowerBounds())) {
             return false;
         }
-        AnnotatedType[] leftAnnUB = left.upperBounds;
+        AnnotatedType[] leftAnnUB = left.upperBounds();
         AnnotatedType[] rightAnnUB = right.getAnnotatedUpperBounds();
         if (Arrays.equals(leftAnnUB, rightAnnUB)) {
             return true;
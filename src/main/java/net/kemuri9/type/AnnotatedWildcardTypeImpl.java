@@ -27,11 +27,14 @@ import java.lang.reflect.WildcardType;
  */
 public final class AnnotatedWildcardTypeImpl extends AnnotatedTypeImpl implements AnnotatedWildcardType {
 
-    /** {@link AnnotatedType}s representing the annotated lower bounds ({@code super}) */
-    final AnnotatedType[] lowerBounds;
+    /** {@link AnnotatedType}s representing the annotated lower bounds ({@code super}). {@code null} until first accessed when lazily created */
+    private volatile AnnotatedType[] lowerBounds;
 
-    /** {@link AnnotatedType}s representing the annotated upper bounds ({@code extends}) */
-    final AnnotatedType[] upperBounds;
+    /** {@link AnnotatedType}s representing the annotated upper bounds ({@code extends}). {@code null} until first accessed when lazily created */
+    private volatile AnnotatedType[] upperBounds;
+
+    /** {@link AnnotatedWildcardType} to lazily convert the boundaries from. {@code null} when eagerly created, or once converted */
+    private volatile AnnotatedWildcardType source;
 
     /**
      * Create an {@link AnnotatedWildcardTypeImpl} from an existing {@link AnnotatedWildcardType}
@@ -74,15 +77,21 @@ public final class AnnotatedWildcardTypeImpl extends AnnotatedTypeImpl implement
      * @since 1.1
      */
     public AnnotatedWildcardTypeImpl(AnnotatedWildcardType type, Annotation[] annotations) {
-        super(type, annotations);
-        WildcardType wc = getType();
-        AnnotatedType[] annLb = Utils.noNullContained(type.getAnnotatedLowerBounds(), "type.getAnnotatedLowerBounds()");
-        AnnotatedType[] annUb = Utils.noNullContained(type.getAnnotatedUpperBounds(), "type.getAnnotatedUpperBounds()");
-        Type[] ub = wc.getUpperBounds();
-        Type[] lb = wc.getLowerBounds();
-        AnnotatedWildcardTypeEquals.checkBoundaries(lb, ub, annLb, annUb);
-        this.lowerBounds = AnnotatedTypeFactory.recreateAnnotatedTypesForEquals(annLb);
-        this.upperBounds = AnnotatedTypeFactory.recreateAnnotatedTypesForEquals(annUb);
+        this(type, annotations, false);
+    }
+
+    /**
+     * Create an {@link AnnotatedWildcardTypeImpl} from an existing {@link AnnotatedWildcardType}
+     * @param type {@link AnnotatedWildcardType} to copy parameters from.
+     * @param annotations {@link Annotation}s to utilize for this {@link AnnotatedWildcardType}
+     * @param lazy state of converting the boundaries on first access instead of immediately
+     */
+    AnnotatedWildcardTypeImpl(AnnotatedWildcardType type, Annotation[] annotations, boolean lazy) {
+        super(type, annotations, lazy);
+        this.source = lazy ? type : null;
+        if (!lazy) {
+            convertBounds(type, false);
+        }
     }
 
     /**
@@ -135,8 +144,9 @@ public final class AnnotatedWildcardTypeImpl extends AnnotatedTypeImpl implement
     public AnnotatedWildcardTypeImpl(WildcardType type, Annotation[] typeAnnotations,
             Annotation[][] lowerBoundAnns, Annotation[][] upperBoundAnns) {
         super(type, null, typeAnnotations);
-        lowerBounds = AnnotatedTypeFactory.newAnnotatedTypes(type.getLowerBounds(), lowerBoundAnns);
-        upperBounds = AnnotatedTypeFactory.newAnnotatedTypes(type.getUpperBounds(), upperBoundAnns);
+        this.source = null;
+        this.lowerBounds = AnnotatedTypeFactory.newAnnotatedTypes(type.getLowerBounds(), lowerBoundAnns);
+        this.upperBounds = AnnotatedTypeFactory.newAnnotatedTypes(type.getUpperBounds(), upperBoundAnns);
     }
 
     /**
@@ -158,10 +168,65 @@ public final class AnnotatedWildcardTypeImpl extends AnnotatedTypeImpl implement
     public AnnotatedWildcardTypeImpl(WildcardType type, Annotation[] typeAnnotations,
             AnnotatedType[] lowerBounds, AnnotatedType[] upperBounds) {
         super(type, null, typeAnnotations);
+        this.source = null;
         this.lowerBounds = AnnotatedTypeFactory.checkAnnotated(type.getLowerBounds(), lowerBounds);
         this.upperBounds = AnnotatedTypeFactory.checkAnnotated(type.getUpperBounds(), upperBounds);
     }
 
+    private void convertBounds(AnnotatedWildcardType type, boolean lazy) {
+        WildcardType wc = getType();
+        AnnotatedType[] annLb = Utils.noNullContained(type.getAnnotatedLowerBounds(), "type.getAnnotatedLowerBounds()");
+        AnnotatedType[] annUb = Utils.noNullContained(type.getAnnotatedUpperBounds(), "type.getAnnotatedUpperBounds()");
+        Type[] ub = wc.getUpperBounds();
+        Type[] lb = wc.getLowerBounds();
+        AnnotatedWildcardTypeEquals.checkBoundaries(lb, ub, annLb, annUb);
+        // upper bounds are assigned first, so that observing the lower bounds implies both are available
+        this.upperBounds = lazy ? AnnotatedTypeFactory.recreateAnnotatedTypesLazily(annUb)
+                : AnnotatedTypeFactory.recreateAnnotatedTypesForEquals(annUb);
+        this.lowerBounds = lazy ? AnnotatedTypeFactory.recreateAnnotatedTypesLazily(annLb)
+                : AnnotatedTypeFactory.recreateAnnotatedTypesForEquals(annLb);
+    }
+
+    /**
+     * Convert the boundaries from the source type, unless another thread has completed the conversion
+     */
+    private void convertLazily() {
+        AnnotatedWildcardType src = source;
+        // another thread completing the conversion publishes the boundaries before releasing the source
+        if (src != null) {
+            // conversion is idempotent, so racing threads at worst perform it multiple times
+            convertBounds(src, true);
+            // release the source once converted, so that it does not remain reachable
+            source = null;
+        }
+    }
+
+    /**
+     * Retrieve the annotated lower bounds, converting them from the source type when lazily created
+     * @return annotated lower bounds. this is the internal array and must not be modified
+     */
+    AnnotatedType[] lowerBounds() {
+        AnnotatedType[] bounds = lowerBounds;
+        if (bounds == null) {
+            convertLazily();
+            bounds = lowerBounds;
+        }
+        return bounds;
+    }
+
+    /**
+     * Retrieve the annotated upper bounds, converting them from the source type when lazily created
+     * @return annotated upper bounds. this is the internal array and must not be modified
+     */
+    AnnotatedType[] upperBounds() {
+        AnnotatedType[] bounds = upperBounds;
+        if (bounds == null) {
+            convertLazily();
+            bounds = upperBounds;
+        }
+        return bounds;
+    }
+
     @Override
     protected void checkType(String name) {
         if (!(type instanceof WildcardType)) {
@@ -184,13 +249,13 @@ public final class AnnotatedWildcardTypeImpl extends AnnotatedTypeImpl implement
     @Override
     public AnnotatedType[] getAnnotatedLowerBounds() {
         // clone to avoid modification by caller
-        return Utils.clone(lowerBounds);
+        return Utils.clone(lowerBounds());
     }
 
     @Override
     public AnnotatedType[] getAnnotatedUpperBounds() {
         // clone to avoid modification by caller
-        return Utils.clone(upperBounds);
+        return Utils.clone(upperBounds());
     }
 
     @Override
@@ -207,11 +272,11 @@ public final class AnnotatedWildcardTypeImpl extends AnnotatedTypeImpl implement
     public String toString() {
         StringBuilder sb = new StringBuilder(128);
         sb.append(Utils.annsToString(annotations, Boolean.FALSE)).append("?");
-        AnnotatedType[] bounds = lowerBounds;
+        AnnotatedType[] bounds = lowerBounds();
         if (bounds.length > 0) {
             sb.append(" super ");
         } else {
-            bounds = upperBounds;
+            bounds = upperBounds();
             // if the sole upper bound is a bare Object, then there is no further output
             if (bounds.length == 1 && bounds[0].getType().equals(Object.class) && bounds[0].getAnnotations().length == 0) {
                 return sb.toString();
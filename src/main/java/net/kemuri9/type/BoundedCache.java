@@ -0,0 +1,80 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Concurrent cache that holds at most a fixed number of entries.
+ * When full, an arbitrary quarter of the entries are evicted, which keeps reads lock-free
+ * and avoids the bookkeeping of a least recently used policy.
+ * Keys and values are strongly referenced, so the class loaders of cached types are retained until their entries are evicted.
+ * @param <K> Type of the keys
+ * @param <V> Type of the values
+ */
+final class BoundedCache<K, V> {
+
+    private final ConcurrentHashMap<K, V> entries;
+    private final int capacity;
+
+    /**
+     * Create a new {@link BoundedCache}
+     * @param capacity maximum number of entries to hold
+     */
+    BoundedCache(int capacity) {
+        this.entries = new ConcurrentHashMap<>(Math.min(capacity, 256));
+        this.capacity = capacity;
+    }
+
+    /**
+     * Retrieve the cached value for the key, computing and caching it when not present.
+     * The computation is performed outside of any lock, so it may recursively use the cache,
+     * and concurrent callers may compute the same value.
+     * @param key key to retrieve the value of
+     * @param compute {@link Function} computing the value of the key
+     * @return cached value of {@code key}
+     */
+    V get(K key, Function<? super K, ? extends V> compute) {
+        V value = entries.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = compute.apply(key);
+        if (entries.size() >= capacity) {
+            evict();
+        }
+        V existing = entries.putIfAbsent(key, value);
+        return (existing == null) ? value : existing;
+    }
+
+    /**
+     * Retrieve the number of entries that are cached
+     * @return number of cached entries
+     */
+    int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        int remove = Math.max(capacity / 4, 1);
+        for (Iterator<K> iter = entries.keySet().iterator(); iter.hasNext() && remove > 0; --remove) {
+            iter.next();
+            iter.remove();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Synthetic {@link TypeVariable} that is the result of capture conversion of a {@link WildcardType} type argument.
+ * Each capture is a fresh type variable, so it is only equivalent to itself.
+ */
+final class CapturedTypeVariable extends AnnotatedElementImpl implements TypeVariable<GenericDeclaration> {
+
+    /**
+     * Boundaries of the captures of the type arguments of a single {@link java.lang.reflect.ParameterizedType}.
+     * The boundaries of the captures may refer to any of the captures, including themselves, so the captures are created
+     * before their boundaries, which are completed by capture conversion before the captured type is created and published.
+     */
+    static final class Captures {
+
+        /** upper boundaries of each capture, by the index of its type argument */
+        final Type[][] bounds;
+
+        /** lower boundary of each capture, or {@code null} when the captured wildcard has no lower boundary */
+        final Type[] lowerBounds;
+
+        /**
+         * Create new {@link Captures}
+         * @param size number of type arguments of the captured type
+         */
+        Captures(int size) {
+            this.bounds = new Type[size][];
+            this.lowerBounds = new Type[size];
+        }
+    }
+
+    /** sequence for distinguishing the names of captures */
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final GenericDeclaration genericDeclaration;
+    private final String name;
+
+    /** boundaries of the captures of the same type */
+    private final Captures captures;
+
+    /** index of the captured type argument */
+    private final int index;
+
+    /**
+     * Create a new {@link CapturedTypeVariable}
+     * @param genericDeclaration {@link GenericDeclaration} that declared the type variable whose argument is captured
+     * @param wildcard {@link WildcardType} that is captured
+     * @param captures {@link Captures} holding the boundaries of the capture, which must be completed before publication
+     * @param index index of the captured type argument
+     */
+    CapturedTypeVariable(GenericDeclaration genericDeclaration, WildcardType wildcard, Captures captures, int index) {
+        this.genericDeclaration = genericDeclaration;
+        this.name = "capture#" + SEQUENCE.incrementAndGet() + " of " + wildcard.getTypeName();
+        this.captures = captures;
+        this.index = index;
+    }
+
+    /**
+     * Retrieve the upper boundaries of the capture, without copying them. The result must not be modified.
+     * @return upper boundaries
+     */
+    Type[] bounds() {
+        return captures.bounds[index];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other == this;
+    }
+
+    @Override
+    public AnnotatedType[] getAnnotatedBounds() {
+        return AnnotatedTypeFactory.newAnnotatedTypes(bounds(), null);
+    }
+
+    @Override
+    public Type[] getBounds() {
+        // clone to avoid modifications by caller
+        return Utils.clone(bounds());
+    }
+
+    @Override
+    public GenericDeclaration getGenericDeclaration() {
+        return genericDeclaration;
+    }
+
+    /**
+     * Retrieve the lower boundary of the capture
+     * @return lower boundary, or {@code null} when the captured wildcard has no lower boundary
+     */
+    Type getLowerBound() {
+        return captures.lowerBounds[index];
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
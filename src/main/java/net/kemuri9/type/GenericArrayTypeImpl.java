@@ -29,6 +29,12 @@ public class GenericArrayTypeImpl implements GenericArrayType {
     /** {@link Type} representing the component of the array */
     protected final Type genericComponentType;
 
+    /** erasure of this type, computed on first use by {@link Types#erase(Type)} */
+    Class<?> erasure;
+
+    /** reifiability of this type, computed on first use by {@link Types#isReifiable(Type)} */
+    Boolean reifiable;
+
     /**
      * Create a new {@link GenericArrayTypeImpl} with the specified component type.
      * This variation exists simplify to the scenario of nested {@link GenericArrayType} creation.
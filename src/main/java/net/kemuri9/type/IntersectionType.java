@@ -0,0 +1,35 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.Type;
+
+/**
+ * Intersection type, as computed by the greatest lower bound and least upper bound of {@link TypeLattice}.
+ * As there is no reflective representation of an intersection, it is a {@link WildcardTypeImpl} whose upper bounds are
+ * its members, and so is equal to such a {@link WildcardTypeImpl}. It is distinguished from a genuine wildcard by its type,
+ * so that only intersections are treated as their members.
+ */
+final class IntersectionType extends WildcardTypeImpl {
+
+    /**
+     * Create a new {@link IntersectionType}
+     * @param members {@link Type}s that are the members of the intersection
+     */
+    IntersectionType(Type[] members) {
+        super(null, members);
+    }
+}
@@ -35,6 +35,12 @@ public class ParameterizedTypeImpl implements ParameterizedType {
     /** {@link Type} arguments that parameterize {@link #rawType} */
     protected final Type[] actualTypeArguments;
 
+    /** erasure of this type, computed on first use by {@link Types#erase(Type)} */
+    Class<?> erasure;
+
+    /** reifiability of this type, computed on first use by {@link Types#isReifiable(Type)} */
+    Boolean reifiable;
+
     /**
      * Create a {@link ParameterizedTypeImpl} with the specified parameters
      * @param parameterizedType {@link ParameterizedType} to copy details from
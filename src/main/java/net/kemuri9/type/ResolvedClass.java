@@ -0,0 +1,204 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>A {@link Class} or {@link ParameterizedType} of a {@link Class} as the receiver of its members,
+ * providing the types of its fields, and of its methods' and constructors' parameters and returns,
+ * with the type variables of the receiver and of its supertypes resolved.</p>
+ * <p>For example, given {@code class Page<T> { List<T> items; }}, the type of {@code items} resolved for
+ * {@code ResolvedClass.of(Page<Order>)} is {@code List<Order>}.</p>
+ * <p>Member types are resolved on first use and cached for the receiver, and receivers are cached with bounded eviction,
+ * so that each pair of receiver and member is typically only resolved once.
+ * Type variables declared by generic methods and constructors themselves are not bound, and so remain as-is.</p>
+ * <p>Wildcard type arguments of the receiver, and of its owner types, are {@link Types#capture(Type) captured},
+ * as a member's type can not be a wildcard. So for {@code ResolvedClass.of(Page<? extends Number>)},
+ * the type of {@code items} is {@code List<capture#1 of ? extends Number>}, and the members of the same
+ * {@link ResolvedClass} share the same captured type variables.</p>
+ * @since 1.2
+ */
+public final class ResolvedClass {
+
+    /** cache of resolved receivers */
+    private static final BoundedCache<Type, ResolvedClass> RESOLVED = new BoundedCache<>(1024);
+
+    /**
+     * Retrieve the {@link ResolvedClass} of the specified receiver type
+     * @param type {@link Class} or {@link ParameterizedType} of a {@link Class} to resolve the members of
+     * @return {@link ResolvedClass} of {@code type}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code type} is not a {@link Class} and not a {@link ParameterizedType} of a {@link Class}</li>
+     *   <li>When {@code type} does not have the same number of type arguments as its raw type declares</li>
+     * </ul>
+     */
+    public static ResolvedClass of(Type type) {
+        Utils.notNull(type, "type");
+        return RESOLVED.get(type, (t)-> new ResolvedClass(t, TypeResolver.forType(capture(t))));
+    }
+
+    /**
+     * Retrieve the generic parameter types of the method or constructor, aligned with all of its parameters
+     * @param executable {@link Executable} to retrieve the generic parameter types of
+     * @return generic parameter types of {@code executable}, with the erased types of leading parameters that do not have generic types
+     */
+    private static Type[] getGenericParameterTypes(Executable executable) {
+        Type[] generic = executable.getGenericParameterTypes();
+        Class<?>[] erased = executable.getParameterTypes();
+        if (generic.length >= erased.length) {
+            return generic;
+        }
+        // compiler generated parameters precede the declared parameters, and do not have generic types
+        Type[] aligned = new Type[erased.length];
+        int offset = erased.length - generic.length;
+        System.arraycopy(erased, 0, aligned, 0, offset);
+        System.arraycopy(generic, 0, aligned, offset, generic.length);
+        return aligned;
+    }
+
+    /**
+     * Capture the wildcard type arguments of the receiver type and of its owner types
+     * @param type receiver type
+     * @return captured receiver type
+     */
+    private static Type capture(Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            return type;
+        }
+        ParameterizedType pt = (ParameterizedType) type;
+        Type owner = pt.getOwnerType();
+        Type newOwner = (owner == null) ? null : capture(owner);
+        if (newOwner != owner) {
+            pt = new ParameterizedTypeImpl(newOwner, pt.getRawType(), pt.getActualTypeArguments());
+        }
+        return Types.capture(pt);
+    }
+
+    /** receiver type */
+    private final Type type;
+
+    /** erasure of the receiver type */
+    private final Class<?> rawType;
+
+    /** resolver binding the type variables of the receiver and of its supertypes */
+    private final TypeResolver resolver;
+
+    /** resolved types of fields */
+    private final ConcurrentMap<Field, Type> fieldTypes = new ConcurrentHashMap<>();
+
+    /** resolved parameter types of methods and constructors */
+    private final ConcurrentMap<Executable, Type[]> parameterTypes = new ConcurrentHashMap<>();
+
+    /** resolved return types of methods */
+    private final ConcurrentMap<Method, Type> returnTypes = new ConcurrentHashMap<>();
+
+    private ResolvedClass(Type type, TypeResolver resolver) {
+        this.type = type;
+        this.rawType = Types.erase(type);
+        this.resolver = resolver;
+    }
+
+    /**
+     * Retrieve the resolved type of the field
+     * @param field {@link Field} of the receiver, or of one of its supertypes, to retrieve the resolved type of
+     * @return resolved type of {@code field}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code field} is {@code null}</li>
+     *   <li>When {@code field} is not a member of the receiver</li>
+     * </ul>
+     */
+    public Type getFieldType(Field field) {
+        checkMember(field, "field");
+        return fieldTypes.computeIfAbsent(field, (f)-> resolver.resolve(f.getGenericType()));
+    }
+
+    /**
+     * Retrieve the resolved parameter types of the method or constructor.
+     * Leading compiler generated parameters that do not have generic types, such as the enclosing instance of the
+     * constructor of an inner class, are retained as their erased types, while the remaining parameters are resolved
+     * from their generic types.
+     * @param executable {@link Method} or {@link java.lang.reflect.Constructor Constructor} of the receiver,
+     *  or of one of its supertypes, to retrieve the resolved parameter types of
+     * @return resolved parameter types of {@code executable}, one for each of its parameters
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code executable} is {@code null}</li>
+     *   <li>When {@code executable} is not a member of the receiver</li>
+     * </ul>
+     */
+    public Type[] getParameterTypes(Executable executable) {
+        checkMember(executable, "executable");
+        Type[] resolved = parameterTypes.get(executable);
+        if (resolved == null) {
+            resolved = resolver.resolve(getGenericParameterTypes(executable));
+            Type[] existing = parameterTypes.putIfAbsent(executable, resolved);
+            if (existing != null) {
+                resolved = existing;
+            }
+        }
+        return resolved.clone();
+    }
+
+    /**
+     * Retrieve the erasure of the receiver type
+     * @return {@link Class} of the receiver
+     */
+    public Class<?> getRawType() {
+        return rawType;
+    }
+
+    /**
+     * Retrieve the resolved return type of the method
+     * @param method {@link Method} of the receiver, or of one of its supertypes, to retrieve the resolved return type of
+     * @return resolved return type of {@code method}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code method} is {@code null}</li>
+     *   <li>When {@code method} is not a member of the receiver</li>
+     * </ul>
+     */
+    public Type getReturnType(Method method) {
+        checkMember(method, "method");
+        return returnTypes.computeIfAbsent(method, (m)-> resolver.resolve(m.getGenericReturnType()));
+    }
+
+    /**
+     * Retrieve the receiver type
+     * @return {@link Type} of the receiver
+     */
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return "ResolvedClass[" + type.getTypeName() + "]";
+    }
+
+    private void checkMember(Member member, String name) {
+        Utils.notNull(member, name);
+        if (!member.getDeclaringClass().isAssignableFrom(rawType)) {
+            throw new IllegalArgumentException(name + " " + member + " is not a member of " + type.getTypeName());
+        }
+    }
+}
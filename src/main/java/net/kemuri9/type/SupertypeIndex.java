@@ -0,0 +1,128 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index of the generic supertypes of each class, keyed by the supertype's {@link Class}.
+ * The supertypes are expressed in terms of the class's own type variables, so {@code ArrayList} indexes
+ * {@code Iterable} as {@code Iterable<E>}. Supertypes that are inherited as raw types are indexed by their erasure.
+ * Each index is built once from the reflected generic supertypes, reusing the indexes of the direct supertypes.
+ */
+final class SupertypeIndex {
+
+    private static final ClassValue<Map<Class<?>, Type>> INDEXES = new ClassValue<Map<Class<?>, Type>>() {
+        @Override
+        protected Map<Class<?>, Type> computeValue(Class<?> type) {
+            Map<Class<?>, Type> index = new HashMap<>();
+            index.put(type, getGenericForm(type));
+            Type superclass = type.getGenericSuperclass();
+            if (superclass != null) {
+                putSupertype(index, superclass);
+            }
+            for (Type iface : type.getGenericInterfaces()) {
+                putSupertype(index, iface);
+            }
+            if (!type.isPrimitive()) {
+                // interfaces do not have a superclass, but are still assignable to Object
+                index.putIfAbsent(Object.class, Object.class);
+            }
+            return Collections.unmodifiableMap(index);
+        }
+    };
+
+    /**
+     * Retrieve the index of the generic supertypes of the specified {@link Class}
+     * @param type {@link Class} to retrieve the index of
+     * @return unmodifiable {@link Map} of supertype {@link Class}es to the generic supertypes of {@code type}
+     */
+    static Map<Class<?>, Type> get(Class<?> type) {
+        return INDEXES.get(type);
+    }
+
+    /**
+     * Retrieve the generic supertype of {@code type} whose erasure is {@code supertype}
+     * @param type {@link Class} to retrieve the generic supertype of
+     * @param supertype {@link Class} of the supertype
+     * @return generic supertype, or {@code null} when {@code supertype} is not a supertype of {@code type}
+     */
+    static Type get(Class<?> type, Class<?> supertype) {
+        return INDEXES.get(type).get(supertype);
+    }
+
+    /**
+     * Retrieve the generic form of the specified {@link Class}, which is parameterized by its own type variables
+     * @param type {@link Class} to retrieve the generic form of
+     * @return {@code type} when it is not generic, otherwise the {@link ParameterizedType} of its type variables
+     */
+    static Type getGenericForm(Class<?> type) {
+        TypeVariable<?>[] variables = TypeVariableIndex.getChainParameters(type);
+        return parameterize(type, variables, variables.length);
+    }
+
+    /**
+     * Parameterize the {@link Class} and its owner chain by the specified type arguments. Inner classes are parameterized
+     * by the type arguments of their enclosing instance classes, which precede their own type arguments.
+     * @param type {@link Class} to parameterize
+     * @param arguments type arguments of the owner chain of {@code type}, outermost first
+     * @param end index after the last type argument of {@code type} in {@code arguments}
+     * @return {@code type} when neither it nor its owner chain is generic, otherwise the {@link ParameterizedType}
+     */
+    static Type parameterize(Class<?> type, Type[] arguments, int end) {
+        int start = end - TypeVariableIndex.getTypeParameters(type).length;
+        Class<?> declaring = type.getDeclaringClass();
+        Type owner = declaring;
+        if (declaring != null && !Modifier.isStatic(type.getModifiers())) {
+            // inner classes are also parameterized by the type arguments of their enclosing classes
+            owner = parameterize(declaring, arguments, start);
+        }
+        if (start == end && owner == declaring) {
+            return type;
+        }
+        return new ParameterizedTypeImpl(owner, type, Arrays.copyOfRange(arguments, start, end, Type[].class));
+    }
+
+    private static void putSupertype(Map<Class<?>, Type> index, Type supertype) {
+        if (supertype instanceof Class) {
+            Map<Class<?>, Type> superIndex = INDEXES.get((Class<?>) supertype);
+            boolean raw = ((Class<?>) supertype).getTypeParameters().length > 0;
+            for (Map.Entry<Class<?>, Type> entry : superIndex.entrySet()) {
+                // when inherited as a raw type, all of its supertypes are erased
+                index.putIfAbsent(entry.getKey(), raw ? entry.getKey() : entry.getValue());
+            }
+            return;
+        }
+        ParameterizedType pt = (ParameterizedType) supertype;
+        TypeResolver resolver = TypeResolver.forArguments(pt);
+        for (Map.Entry<Class<?>, Type> entry : INDEXES.get((Class<?>) pt.getRawType()).entrySet()) {
+            if (!index.containsKey(entry.getKey())) {
+                index.put(entry.getKey(), resolver.resolveType(entry.getValue()));
+            }
+        }
+    }
+
+    private SupertypeIndex() {
+        // not instantiable
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>An immutable environment of {@link TypeVariable}s bound to {@link Type}s, for use with {@link TypeResolver}.</p>
+ * <p>Extending the environment with {@link #with(TypeVariable, Type)} or {@link #withArguments(ParameterizedType)} does not copy
+ * the existing bindings: the new bindings form a layer on top of the existing environment, which is shared, and bindings of
+ * a layer shadow those of the layers beneath it. Small layers are kept as arrays that are scanned linearly, and larger layers
+ * as hash tables. Deep chains of layers are flattened, so that lookups remain bounded.</p>
+ * <p>As with {@link TypeResolver}, {@link TypeVariable}s are bound by their variants as declared by their
+ * {@link java.lang.reflect.GenericDeclaration}, so that {@link TypeVariableImpl}s and the JDK's {@link TypeVariable}s
+ * look up the same bindings.</p>
+ * @since 1.2
+ */
+public final class TypeBindings {
+
+    /** {@link TypeBindings} without any bindings */
+    public static final TypeBindings EMPTY = new TypeBindings(null, new TypeVariable<?>[0], Utils.EMPTY, null);
+
+    /** largest layer that is scanned linearly rather than hashed */
+    private static final int SMALL_SIZE = 8;
+
+    /** deepest chain of layers before it is flattened into a single layer */
+    private static final int MAX_DEPTH = 16;
+
+    /**
+     * Create {@link TypeBindings} from the specified bindings
+     * @param bindings {@link Map} of {@link TypeVariable}s to the {@link Type}s that they are bound to
+     * @return {@link TypeBindings} of {@code bindings}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code bindings} is {@code null}</li>
+     *   <li>When {@code bindings} contains a {@code null} key or value</li>
+     * </ul>
+     */
+    public static TypeBindings of(Map<? extends TypeVariable<?>, ? extends Type> bindings) {
+        Utils.notNull(bindings, "bindings");
+        Map<TypeVariable<?>, Type> copy = new HashMap<>(bindings.size() * 2);
+        for (Map.Entry<? extends TypeVariable<?>, ? extends Type> entry : bindings.entrySet()) {
+            TypeVariable<?> variable = Utils.notNull(entry.getKey(), "bindings key");
+            copy.put(TypeResolver.getDeclared(variable), Utils.notNull(entry.getValue(), "bindings[" + variable + "]"));
+        }
+        return ofDeclared(copy);
+    }
+
+    /**
+     * Create {@link TypeBindings} from bindings that are already keyed by their declared variables
+     * @param bindings {@link Map} of declared {@link TypeVariable}s to their bound {@link Type}s, which is not copied
+     * @return {@link TypeBindings} of {@code bindings}
+     */
+    static TypeBindings ofDeclared(Map<TypeVariable<?>, Type> bindings) {
+        if (bindings.isEmpty()) {
+            return EMPTY;
+        } else if (bindings.size() > SMALL_SIZE) {
+            return new TypeBindings(null, null, null, bindings);
+        }
+        TypeVariable<?>[] variables = bindings.keySet().toArray(new TypeVariable<?>[bindings.size()]);
+        Type[] types = new Type[variables.length];
+        for (int idx = 0; idx < variables.length; ++idx) {
+            types[idx] = bindings.get(variables[idx]);
+        }
+        return new TypeBindings(null, variables, types, null);
+    }
+
+    /** bindings beneath this layer, {@code null} for the bottom layer */
+    private final TypeBindings parent;
+
+    /** bound variables of this layer when it is scanned linearly */
+    private final TypeVariable<?>[] variables;
+
+    /** bound types of this layer when it is scanned linearly, in the order of {@link #variables} */
+    private final Type[] types;
+
+    /** bindings of this layer when it is hashed */
+    private final Map<TypeVariable<?>, Type> hashed;
+
+    /** number of layers, including this one */
+    private final int depth;
+
+    private TypeBindings(TypeBindings parent, TypeVariable<?>[] variables, Type[] types, Map<TypeVariable<?>, Type> hashed) {
+        this.parent = parent;
+        this.variables = variables;
+        this.types = types;
+        this.hashed = hashed;
+        this.depth = (parent == null) ? 1 : parent.depth + 1;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        } else if (!(obj instanceof TypeBindings)) {
+            return false;
+        }
+        return toMap().equals(((TypeBindings) obj).toMap());
+    }
+
+    /**
+     * Retrieve the {@link Type} that the {@link TypeVariable} is bound to
+     * @param variable {@link TypeVariable} to retrieve the binding of
+     * @return bound {@link Type}, or {@code null} when {@code variable} is not bound
+     * @throws IllegalArgumentException When {@code variable} is {@code null}
+     */
+    public Type get(TypeVariable<?> variable) {
+        return lookup(Utils.notNull(variable, "variable"));
+    }
+
+    @Override
+    public int hashCode() {
+        return toMap().hashCode();
+    }
+
+    /**
+     * Determine if there are no bindings
+     * @return state of there being no bindings
+     */
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    /**
+     * Retrieve the bindings as a {@link Map}, where bindings of upper layers replace those of the layers beneath them
+     * @return unmodifiable {@link Map} of {@link TypeVariable}s to the {@link Type}s that they are bound to
+     */
+    public Map<TypeVariable<?>, Type> toMap() {
+        if (parent == null && hashed != null) {
+            return Collections.unmodifiableMap(hashed);
+        }
+        return Collections.unmodifiableMap(flatten());
+    }
+
+    @Override
+    public String toString() {
+        return "TypeBindings" + toMap();
+    }
+
+    /**
+     * Extend these bindings with the {@link TypeVariable} bound to the {@link Type}
+     * @param variable {@link TypeVariable} to bind
+     * @param type {@link Type} to bind {@code variable} to
+     * @return {@link TypeBindings} that include the binding, sharing these bindings
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code variable} is {@code null}</li>
+     *   <li>When {@code type} is {@code null}</li>
+     * </ul>
+     */
+    public TypeBindings with(TypeVariable<?> variable, Type type) {
+        Utils.notNull(variable, "variable");
+        Utils.notNull(type, "type");
+        return extend(new TypeVariable<?>[] { TypeResolver.getDeclared(variable) }, new Type[] { type });
+    }
+
+    /**
+     * Extend these bindings with the {@link TypeVariable}s bound to the {@link Type}s at the same positions
+     * @param variables {@link TypeVariable}s to bind
+     * @param types {@link Type}s to bind {@code variables} to
+     * @return {@link TypeBindings} that include the bindings, sharing these bindings
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code variables} is {@code null} or contains a {@code null}</li>
+     *   <li>When {@code types} is {@code null} or contains a {@code null}</li>
+     *   <li>When {@code variables} and {@code types} are of different lengths</li>
+     * </ul>
+     */
+    public TypeBindings with(TypeVariable<?>[] variables, Type[] types) {
+        TypeVariable<?>[] declared = Utils.checkedClone(variables, "variables");
+        Type[] bound = Arrays.copyOf(Utils.noNullContained(types, "types"), types.length, Type[].class);
+        if (declared.length != bound.length) {
+            throw new IllegalArgumentException(declared.length + " variables can not be bound to " + bound.length + " types");
+        }
+        for (int idx = 0; idx < declared.length; ++idx) {
+            declared[idx] = TypeResolver.getDeclared(declared[idx]);
+        }
+        return extend(declared, bound);
+    }
+
+    /**
+     * Extend these bindings with the type variables of the raw type of the {@link ParameterizedType}, and of its owner types,
+     * bound to its type arguments. This is the environment for the members of a nested generic class.
+     * @param type {@link ParameterizedType} of a {@link Class} to bind the type arguments of
+     * @return {@link TypeBindings} that include the bindings of {@code type}, sharing these bindings
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code type} is not a {@link ParameterizedType} of a {@link Class}</li>
+     *   <li>When {@code type} does not have the same number of type arguments as its raw type declares</li>
+     * </ul>
+     */
+    public TypeBindings withArguments(ParameterizedType type) {
+        Utils.notNull(type, "type");
+        if (!(type.getRawType() instanceof Class)) {
+            throw new IllegalArgumentException("type must be a ParameterizedType of a Class, was " + type);
+        }
+        return extendArguments(type);
+    }
+
+    /**
+     * Extend these bindings with the type arguments of the {@link ParameterizedType}, without validating it
+     * @param type {@link ParameterizedType} of a {@link Class}
+     * @return {@link TypeBindings} that include the bindings of {@code type}
+     * @throws IllegalArgumentException When {@code type} does not have the same number of type arguments as its raw type declares
+     */
+    TypeBindings extendArguments(ParameterizedType type) {
+        Type owner = type.getOwnerType();
+        TypeBindings base = this;
+        if (owner instanceof ParameterizedType && ((ParameterizedType) owner).getRawType() instanceof Class) {
+            // owner types are bound beneath the type itself
+            base = extendArguments((ParameterizedType) owner);
+        }
+        // the declared variables and the arguments of the library's own parameterized types are immutable, so are shared
+        TypeVariable<?>[] declared = TypeVariableIndex.getTypeParameters((Class<?>) type.getRawType());
+        Type[] args = (type.getClass() == ParameterizedTypeImpl.class) ? ((ParameterizedTypeImpl) type).actualTypeArguments
+                : type.getActualTypeArguments();
+        if (declared.length != args.length) {
+            throw new IllegalArgumentException(type + " has " + args.length + " type arguments, but "
+                    + type.getRawType().getTypeName() + " declares " + declared.length);
+        }
+        return base.extend(declared, args);
+    }
+
+    /**
+     * Retrieve the {@link Type} that the {@link TypeVariable} is bound to, without validation
+     * @param variable {@link TypeVariable} to retrieve the binding of
+     * @return bound {@link Type}, or {@code null} when {@code variable} is not bound
+     */
+    Type lookup(TypeVariable<?> variable) {
+        Type bound = find(variable);
+        if (bound == null && variable.getClass() != TypeVariableIndex.CORE_TYPE_VARIABLE) {
+            bound = find(TypeResolver.getDeclared(variable));
+        }
+        return bound;
+    }
+
+    private TypeBindings extend(TypeVariable<?>[] declared, Type[] bound) {
+        if (declared.length == 0) {
+            return this;
+        } else if (isEmpty() && declared.length <= SMALL_SIZE) {
+            return new TypeBindings(null, declared, bound, null);
+        } else if (depth >= MAX_DEPTH || declared.length > SMALL_SIZE) {
+            Map<TypeVariable<?>, Type> layer = (depth >= MAX_DEPTH) ? flatten() : new HashMap<>(declared.length * 2);
+            for (int idx = 0; idx < declared.length; ++idx) {
+                layer.put(declared[idx], bound[idx]);
+            }
+            // flattened bindings start a new chain of layers
+            return new TypeBindings((depth >= MAX_DEPTH || isEmpty()) ? null : this, null, null, layer);
+        }
+        return new TypeBindings(isEmpty() ? null : this, declared, bound, null);
+    }
+
+    private Type find(TypeVariable<?> variable) {
+        for (TypeBindings layer = this; layer != null; layer = layer.parent) {
+            if (layer.hashed != null) {
+                Type bound = layer.hashed.get(variable);
+                if (bound != null) {
+                    return bound;
+                }
+                continue;
+            }
+            TypeVariable<?>[] layerVariables = layer.variables;
+            // later bindings of a layer replace earlier ones
+            for (int idx = layerVariables.length - 1; idx >= 0; --idx) {
+                TypeVariable<?> bound = layerVariables[idx];
+                if (bound == variable || variable.equals(bound)) {
+                    return layer.types[idx];
+                }
+            }
+        }
+        return null;
+    }
+
+    private Map<TypeVariable<?>, Type> flatten() {
+        ArrayDeque<TypeBindings> layers = new ArrayDeque<>(depth);
+        for (TypeBindings layer = this; layer != null; layer = layer.parent) {
+            layers.push(layer);
+        }
+        Map<TypeVariable<?>, Type> flattened = new HashMap<>();
+        for (TypeBindings layer : layers) {
+            if (layer.hashed != null) {
+                flattened.putAll(layer.hashed);
+                continue;
+            }
+            for (int idx = 0; idx < layer.variables.length; ++idx) {
+                flattened.put(layer.variables[idx], layer.types[idx]);
+            }
+        }
+        return flattened;
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>An equivalence relation of {@link Type}s that ignores cosmetic differences, with a matching hash code.</p>
+ * <p>{@link Type}s are equivalent when their {@link Types#normalize(Type) normalized} forms are equal, so that for example
+ * {@code Map<?, ?>} and {@code Map<? extends Object, ?>} are equivalent. {@link #RAW_AS_WILDCARDS} additionally considers
+ * raw types to be equivalent to their parameterization by full wildcards, so that raw {@code Map} is also equivalent to
+ * {@code Map<?, ?>}.</p>
+ * <p>For use in hash based collections, {@link #wrap(Type)} creates a {@link Key} that computes the canonical form
+ * of its {@link Type} once, and whose {@link Key#equals(Object) equals} and {@link Key#hashCode() hashCode}
+ * follow the equivalence.</p>
+ * @since 1.2
+ */
+public final class TypeEquivalence {
+
+    /**
+     * A {@link Type} wrapped for use in hash based collections, where equality and hash code follow a {@link TypeEquivalence}
+     * @since 1.2
+     */
+    public static final class Key {
+
+        private final TypeEquivalence equivalence;
+        private final Type type;
+        private final Type canonical;
+        private final int hash;
+
+        Key(TypeEquivalence equivalence, Type type) {
+            this.equivalence = equivalence;
+            this.type = type;
+            this.canonical = equivalence.canonicalize(type);
+            this.hash = canonical.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return equivalence == other.equivalence && hash == other.hash && isSame(canonical, other.canonical);
+        }
+
+        /**
+         * Retrieve the canonical form of the wrapped {@link Type}, which is equal for all equivalent {@link Type}s
+         * @return canonical form of the wrapped {@link Type}
+         */
+        public Type getCanonical() {
+            return canonical;
+        }
+
+        /**
+         * Retrieve the {@link TypeEquivalence} that this {@link Key} follows
+         * @return {@link TypeEquivalence} of this {@link Key}
+         */
+        public TypeEquivalence getEquivalence() {
+            return equivalence;
+        }
+
+        /**
+         * Retrieve the wrapped {@link Type}
+         * @return wrapped {@link Type}, as it was specified
+         */
+        public Type getType() {
+            return type;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return type.getTypeName();
+        }
+    }
+
+    /** {@link TypeEquivalence} of {@link Type}s whose {@link Types#normalize(Type) normalized} forms are equal */
+    public static final TypeEquivalence NORMALIZED = new TypeEquivalence(false);
+
+    /**
+     * {@link TypeEquivalence} of {@link Type}s whose {@link Types#normalize(Type) normalized} forms are equal,
+     * when raw types are considered as their parameterization by full wildcards
+     */
+    public static final TypeEquivalence RAW_AS_WILDCARDS = new TypeEquivalence(true);
+
+    private static boolean isSame(Type type1, Type type2) {
+        return type1.equals(type2) || type2.equals(type1);
+    }
+
+    /** state of raw types being equivalent to their parameterization by full wildcards */
+    private final boolean rawAsWildcards;
+
+    private TypeEquivalence(boolean rawAsWildcards) {
+        this.rawAsWildcards = rawAsWildcards;
+    }
+
+    /**
+     * Retrieve the canonical form of the {@link Type}, which is equal for all equivalent {@link Type}s
+     * @param type {@link Type} to retrieve the canonical form of
+     * @return canonical form of {@code type}
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     * @throws UnsupportedOperationException When {@code type} contains an unrecognized {@link Type}
+     */
+    public Type canonicalize(Type type) {
+        Type normalized = Types.normalize(type);
+        return rawAsWildcards ? expandRaw(normalized) : normalized;
+    }
+
+    /**
+     * Determine if the {@link Type}s are equivalent
+     * @param type1 first {@link Type}
+     * @param type2 second {@link Type}
+     * @return state of {@code type1} being equivalent to {@code type2}
+     * @throws IllegalArgumentException When {@code type1} or {@code type2} is {@code null}
+     * @throws UnsupportedOperationException When {@code type1} or {@code type2} contains an unrecognized {@link Type}
+     */
+    public boolean equivalent(Type type1, Type type2) {
+        return isSame(canonicalize(type1), canonicalize(type2));
+    }
+
+    /**
+     * Compute the hash code of the {@link Type}, which is equal for all equivalent {@link Type}s
+     * @param type {@link Type} to compute the hash code of
+     * @return hash code of {@code type}
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     * @throws UnsupportedOperationException When {@code type} contains an unrecognized {@link Type}
+     */
+    public int hash(Type type) {
+        return canonicalize(type).hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return rawAsWildcards ? "TypeEquivalence[RAW_AS_WILDCARDS]" : "TypeEquivalence[NORMALIZED]";
+    }
+
+    /**
+     * Wrap the {@link Type} into a {@link Key} following this equivalence, computing its canonical form once
+     * @param type {@link Type} to wrap
+     * @return {@link Key} wrapping {@code type}
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     * @throws UnsupportedOperationException When {@code type} contains an unrecognized {@link Type}
+     */
+    public Key wrap(Type type) {
+        return new Key(this, type);
+    }
+
+    /**
+     * Expand raw types within the normalized {@link Type} into their parameterization by full wildcards
+     * @param type normalized {@link Type} to expand the raw types of
+     * @return {@code type} when it contains no raw types, otherwise the expanded {@link Type}
+     */
+    private Type expandRaw(Type type) {
+        if (type instanceof Class) {
+            Class<?> cls = (Class<?>) type;
+            if (cls.isArray()) {
+                Type component = expandRaw(cls.getComponentType());
+                return (component == cls.getComponentType()) ? type : new GenericArrayTypeImpl(component);
+            }
+            Type generic = SupertypeIndex.getGenericForm(cls);
+            if (!(generic instanceof ParameterizedType)) {
+                return type;
+            }
+            Map<TypeVariable<?>, Type> wildcards = new HashMap<>();
+            for (TypeVariable<?> variable : TypeResolver.forArguments((ParameterizedType) generic).getBindings().keySet()) {
+                wildcards.put(variable, WildcardTypeImpl.FULL_WILDCARD);
+            }
+            return TypeResolver.of(wildcards).resolve(generic);
+        } else if (type instanceof ParameterizedType) {
+            // the owner of a parameterization is not raw, even when it is a Class
+            ParameterizedType pt = (ParameterizedType) type;
+            Type[] args = pt.getActualTypeArguments();
+            Type[] newArgs = expandRaw(args);
+            return (newArgs == args) ? type : new ParameterizedTypeImpl(pt.getOwnerType(), pt.getRawType(), newArgs);
+        } else if (type instanceof GenericArrayType) {
+            Type component = ((GenericArrayType) type).getGenericComponentType();
+            Type newComponent = expandRaw(component);
+            return (newComponent == component) ? type : new GenericArrayTypeImpl(newComponent);
+        } else if (type instanceof WildcardType) {
+            WildcardType wildcard = (WildcardType) type;
+            Type[] lower = wildcard.getLowerBounds();
+            Type[] upper = wildcard.getUpperBounds();
+            Type[] newLower = expandRaw(lower);
+            Type[] newUpper = expandRaw(upper);
+            return (newLower == lower && newUpper == upper) ? type : new WildcardTypeImpl(newLower, newUpper);
+        }
+        return type;
+    }
+
+    private Type[] expandRaw(Type[] types) {
+        Type[] ret = types;
+        for (int idx = 0; idx < types.length; ++idx) {
+            Type expanded = expandRaw(types[idx]);
+            if (expanded != types[idx]) {
+                if (ret == types) {
+                    ret = Arrays.copyOf(types, types.length, Type[].class);
+                }
+                ret[idx] = expanded;
+            }
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>An index of values registered by {@link Type}, finding the values whose {@link Type} is compatible with a query {@link Type}.</p>
+ * <p>A registered {@link Type} without {@link TypeVariable}s is compatible with the query {@link Type}s that are
+ * {@link Types#isAssignable(Type, Type) assignable} to it. A registered {@link Type} with {@link TypeVariable}s is a
+ * {@link TypePattern}, which is compatible with the query {@link Type}s whose supertype of the same raw type matches it.
+ * For example, values registered by {@code Handler<List<T>>} are found for a query of {@code Handler<List<String>>},
+ * or of a class implementing it.</p>
+ * <p>The index is a discrimination tree keyed on the raw type of the registered {@link Type}s, and then on the erasure of their
+ * first type argument, so that only the registrations for the supertypes of a query, and within those only the registrations
+ * whose first type argument could match, are checked. Registrations that can not be keyed, such as arrays and
+ * type variables, are checked for every query. Registration and lookup may be performed concurrently.</p>
+ * @param <V> type of the registered values
+ * @since 1.2
+ */
+public final class TypeIndex<V> {
+
+    /** a registration */
+    private static final class Entry<V> {
+        final long sequence;
+        final Type type;
+        final TypePattern pattern;
+        final V value;
+
+        Entry(long sequence, Type type, TypePattern pattern, V value) {
+            this.sequence = sequence;
+            this.type = type;
+            this.pattern = pattern;
+            this.value = value;
+        }
+
+        boolean isCompatible(Type query, Class<?> raw) {
+            if (pattern == null) {
+                return Types.isAssignable(query, type);
+            } else if (raw == null) {
+                return pattern.matches(query);
+            }
+            Type supertype = Types.findSupertype(query, raw);
+            return supertype != null && pattern.matches(supertype);
+        }
+    }
+
+    /** registrations of a raw type, keyed on the erasure of their first type argument */
+    private static final class RawNode<V> {
+        final ConcurrentMap<Class<?>, List<Entry<V>>> byArgument = new ConcurrentHashMap<>();
+        /** registrations whose first type argument is not keyed, or that have no type arguments */
+        final List<Entry<V>> anyArgument = new CopyOnWriteArrayList<>();
+    }
+
+    private static final Comparator<Entry<?>> REGISTRATION_ORDER = Comparator.comparingLong((entry)-> entry.sequence);
+
+    /**
+     * Retrieve the key of a type argument
+     * @param arg type argument
+     * @return {@link Class} of {@code arg} when it is a {@link Class} or a {@link ParameterizedType} of a {@link Class},
+     *  otherwise {@code null}
+     */
+    private static Class<?> getArgumentKey(Type arg) {
+        if (arg instanceof Class) {
+            return (Class<?>) arg;
+        } else if (arg instanceof ParameterizedType && ((ParameterizedType) arg).getRawType() instanceof Class) {
+            return (Class<?>) ((ParameterizedType) arg).getRawType();
+        }
+        return null;
+    }
+
+    private static Class<?> getRawKey(Type type) {
+        if (type instanceof Class && !((Class<?>) type).isArray()) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() instanceof Class) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return null;
+    }
+
+    private static boolean hasVariables(Type type) {
+        return TypePattern.compile(type).getVariables().length > 0;
+    }
+
+    /** registrations by their raw type */
+    private final ConcurrentMap<Class<?>, RawNode<V>> byRaw = new ConcurrentHashMap<>();
+
+    /** registrations that can not be keyed on their raw type */
+    private final List<Entry<V>> unkeyed = new CopyOnWriteArrayList<>();
+
+    /** sequence of registrations, to retain the registration order */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /** number of registrations that have been added */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Create a new {@link TypeIndex} with no registrations
+     */
+    public TypeIndex() {
+        // nothing is registered initially
+    }
+
+    /**
+     * Find the values whose registered {@link Type}s are compatible with the query {@link Type}
+     * @param query {@link Type} to find the compatible values of
+     * @return unmodifiable {@link List} of the compatible values, in their registration order
+     * @throws IllegalArgumentException When {@code query} is {@code null}
+     * @throws UnsupportedOperationException When {@code query} contains an unrecognized {@link Type}
+     */
+    public List<V> find(Type query) {
+        Utils.notNull(query, "query");
+        List<Entry<V>> found = new ArrayList<>();
+        collect(unkeyed, query, null, found);
+        Class<?> queryRaw = getRawKey(query);
+        if (queryRaw != null) {
+            for (Class<?> supertype : SupertypeIndex.get(queryRaw).keySet()) {
+                RawNode<V> node = byRaw.get(supertype);
+                if (node != null) {
+                    collect(node, query, supertype, found);
+                }
+            }
+        } else {
+            // the supertypes of arrays, type variables and wildcards are not indexed, so check all registrations
+            byRaw.forEach((raw, node)-> collect(node, query, raw, found));
+        }
+        if (found.isEmpty()) {
+            return Collections.emptyList();
+        }
+        found.sort(REGISTRATION_ORDER);
+        List<V> values = new ArrayList<>(found.size());
+        for (Entry<V> entry : found) {
+            values.add(entry.value);
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Register the value by the {@link Type}
+     * @param type {@link Type} to register {@code value} by
+     * @param value value to register
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code value} is {@code null}</li>
+     * </ul>
+     * @throws UnsupportedOperationException When {@code type} contains an unrecognized {@link Type}
+     */
+    public void register(Type type, V value) {
+        Utils.notNull(type, "type");
+        Utils.notNull(value, "value");
+        TypePattern pattern = hasVariables(type) ? TypePattern.compile(type) : null;
+        Entry<V> entry = new Entry<>(sequence.getAndIncrement(), type, pattern, value);
+        Class<?> raw = getRawKey(type);
+        if (raw == null) {
+            unkeyed.add(entry);
+            size.incrementAndGet();
+            return;
+        }
+        RawNode<V> node = byRaw.computeIfAbsent(raw, (r)-> new RawNode<>());
+        Class<?> argKey = (type instanceof ParameterizedType)
+                ? getArgumentKey(((ParameterizedType) type).getActualTypeArguments()[0]) : null;
+        if (argKey == null) {
+            node.anyArgument.add(entry);
+        } else {
+            node.byArgument.computeIfAbsent(argKey, (k)-> new CopyOnWriteArrayList<>()).add(entry);
+        }
+        size.incrementAndGet();
+    }
+
+    /**
+     * Retrieve the number of registrations
+     * @return number of registered values, counting a registration once it has been added
+     */
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public String toString() {
+        return "TypeIndex[" + size() + " registrations]";
+    }
+
+    private void collect(Collection<Entry<V>> entries, Type query, Class<?> raw, List<Entry<V>> found) {
+        for (Entry<V> entry : entries) {
+            if (entry.isCompatible(query, raw)) {
+                found.add(entry);
+            }
+        }
+    }
+
+    private void collect(RawNode<V> node, Type query, Class<?> raw, List<Entry<V>> found) {
+        collect(node.anyArgument, query, raw, found);
+        Type supertype = Types.findSupertype(query, raw);
+        Class<?> argKey = (supertype instanceof ParameterizedType)
+                ? getArgumentKey(((ParameterizedType) supertype).getActualTypeArguments()[0]) : null;
+        if (argKey == null || (query instanceof Class && Types.isRaw((Class<?>) query))) {
+            // raw types and unkeyed arguments may be compatible with any argument
+            for (List<Entry<V>> entries : node.byArgument.values()) {
+                collect(entries, query, raw, found);
+            }
+            return;
+        }
+        List<Entry<V>> entries = node.byArgument.get(argKey);
+        if (entries != null) {
+            collect(entries, query, raw, found);
+        }
+    }
+}
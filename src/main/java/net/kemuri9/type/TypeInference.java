@@ -0,0 +1,374 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inference of the type arguments of a generic method or constructor from the types of the arguments of an invocation.
+ * Constraints are reduced from each pair of formal parameter type and argument type into bounds on the type parameters,
+ * then each type parameter is resolved from its bounds: an equality bound, otherwise the least upper bound of its
+ * lower bounds, otherwise the greatest lower bound of its upper bounds. As a type argument can not be an intersection,
+ * the first member of an intersection that satisfies the declared bounds of the type parameter is used, where members are
+ * ordered with classes before interfaces and then by name. The declared bounds of the type parameters are incorporated,
+ * so that type parameters only appearing in the bounds of others are also inferred. Once all type parameters are inferred,
+ * those whose type arguments do not satisfy their declared bounds are omitted, as the invocation is not applicable.
+ */
+final class TypeInference {
+
+    /** relation of a formal type to an actual type that a constraint requires */
+    private enum Relation {
+        /** the actual type is a subtype of the formal type */
+        SUBTYPE,
+        /** the actual type is the same as the formal type */
+        EQUAL,
+        /** the actual type is a supertype of the formal type */
+        SUPERTYPE;
+    }
+
+    /** bounds collected for a type parameter */
+    private static final class Bounds {
+        final List<Type> equal = new ArrayList<>(1);
+        final List<Type> lower = new ArrayList<>(1);
+        final List<Type> upper = new ArrayList<>(1);
+    }
+
+    /**
+     * Infer the type arguments of the {@link Executable} from the argument types of an invocation
+     * @param executable {@link Executable} being invoked
+     * @param argumentTypes {@link Type}s of the arguments of the invocation
+     * @return unmodifiable {@link Map} of the inferred type parameters to their type arguments
+     * @throws IllegalArgumentException When the number of {@code argumentTypes} is not applicable to {@code executable}
+     */
+    static Map<TypeVariable<?>, Type> infer(Executable executable, Type[] argumentTypes) {
+        TypeVariable<?>[] variables = executable.getTypeParameters();
+        Type[] formals = getFormals(executable, argumentTypes);
+        if (variables.length == 0) {
+            return Collections.emptyMap();
+        }
+        Map<TypeVariable<?>, Bounds> bounds = new LinkedHashMap<>();
+        for (TypeVariable<?> variable : variables) {
+            bounds.put(variable, new Bounds());
+        }
+        for (int idx = 0; idx < formals.length; ++idx) {
+            reduce(bounds, formals[idx], argumentTypes[idx], Relation.SUBTYPE);
+        }
+
+        Map<TypeVariable<?>, Type> inferred = new HashMap<>();
+        // each round may infer more type parameters through the declared bounds of those inferred
+        for (boolean changed = true; changed;) {
+            changed = false;
+            for (TypeVariable<?> variable : variables) {
+                if (inferred.containsKey(variable)) {
+                    continue;
+                }
+                Type type = resolve(variable, bounds.get(variable), inferred, variables);
+                if (type != null) {
+                    inferred.put(variable, type);
+                    for (Type declared : TypeVariableIndex.getBounds(variable)) {
+                        reduce(bounds, declared, type, Relation.SUBTYPE);
+                    }
+                    changed = true;
+                }
+            }
+        }
+        // the declared bounds are checked with all type arguments inferred, as they may refer to each other
+        List<TypeVariable<?>> invalid = new ArrayList<>(0);
+        for (Map.Entry<TypeVariable<?>, Type> entry : inferred.entrySet()) {
+            if (!satisfiesBounds(entry.getKey(), entry.getValue(), inferred, variables)) {
+                invalid.add(entry.getKey());
+            }
+        }
+        inferred.keySet().removeAll(invalid);
+        return Collections.unmodifiableMap(inferred);
+    }
+
+    /**
+     * Retrieve the formal parameter types that correspond to the argument types, expanding variable arity parameters
+     * @param executable {@link Executable} being invoked
+     * @param argumentTypes {@link Type}s of the arguments of the invocation
+     * @return formal parameter {@link Type}s of the same length as {@code argumentTypes}
+     */
+    private static Type[] getFormals(Executable executable, Type[] argumentTypes) {
+        Type[] formals = executable.getGenericParameterTypes();
+        if (formals.length != executable.getParameterCount()) {
+            // some compiler generated parameters do not have generic types
+            formals = executable.getParameterTypes();
+        }
+        if (executable.isVarArgs() && (argumentTypes.length != formals.length
+                || !Types.assignable(argumentTypes[formals.length - 1], Types.erase(formals[formals.length - 1])))) {
+            // variable arity invocation, where the trailing arguments are the components of the last parameter
+            if (argumentTypes.length < formals.length - 1) {
+                throw new IllegalArgumentException(executable + " requires at least " + (formals.length - 1)
+                        + " arguments, but " + argumentTypes.length + " were specified");
+            }
+            Type component = getComponentType(formals[formals.length - 1]);
+            Type[] expanded = new Type[argumentTypes.length];
+            System.arraycopy(formals, 0, expanded, 0, formals.length - 1);
+            for (int idx = formals.length - 1; idx < expanded.length; ++idx) {
+                expanded[idx] = component;
+            }
+            return expanded;
+        } else if (argumentTypes.length != formals.length) {
+            throw new IllegalArgumentException(executable + " requires " + formals.length + " arguments, but "
+                    + argumentTypes.length + " were specified");
+        }
+        return formals;
+    }
+
+    private static Type getComponentType(Type type) {
+        if (type instanceof Class) {
+            return ((Class<?>) type).getComponentType();
+        } else if (type instanceof GenericArrayType) {
+            return ((GenericArrayType) type).getGenericComponentType();
+        }
+        return null;
+    }
+
+    /**
+     * Reduce the constraint that {@code actual} is related to {@code formal} into bounds on the type parameters
+     * @param bounds {@link Map} of the type parameters being inferred to their collected {@link Bounds}
+     * @param formal formal {@link Type}, which may refer to the type parameters
+     * @param actual actual {@link Type}
+     * @param relation {@link Relation} that {@code actual} must have to {@code formal}
+     */
+    private static void reduce(Map<TypeVariable<?>, Bounds> bounds, Type formal, Type actual, Relation relation) {
+        if (formal instanceof TypeVariable) {
+            Bounds variableBounds = bounds.get(formal);
+            if (variableBounds == null) {
+                return;
+            }
+            // primitive arguments are inferred as their boxed type, as through boxing conversion
+            Type type = (actual instanceof Class) ? Utils.box((Class<?>) actual) : actual;
+            List<Type> target = (relation == Relation.SUBTYPE) ? variableBounds.lower
+                    : (relation == Relation.EQUAL) ? variableBounds.equal : variableBounds.upper;
+            if (!target.contains(type)) {
+                target.add(type);
+            }
+        } else if (formal instanceof GenericArrayType) {
+            Type component = getComponentType(actual);
+            if (component != null && !(component instanceof Class && ((Class<?>) component).isPrimitive())) {
+                reduce(bounds, ((GenericArrayType) formal).getGenericComponentType(), component, relation);
+            }
+        } else if (formal instanceof ParameterizedType) {
+            reduceParameterized(bounds, (ParameterizedType) formal, actual, relation);
+        }
+    }
+
+    private static void reduceArgument(Map<TypeVariable<?>, Bounds> bounds, Type formalArg, Type actualArg) {
+        if (formalArg instanceof WildcardType) {
+            WildcardType formalWildcard = (WildcardType) formalArg;
+            Type[] lower = formalWildcard.getLowerBounds();
+            if (lower.length > 0) {
+                // the argument must contain the lower bound
+                Type actualLower = (actualArg instanceof WildcardType)
+                        ? first(((WildcardType) actualArg).getLowerBounds()) : actualArg;
+                if (actualLower != null) {
+                    reduce(bounds, lower[0], actualLower, Relation.SUPERTYPE);
+                }
+                return;
+            }
+            Type actualUpper = (actualArg instanceof WildcardType)
+                    ? first(((WildcardType) actualArg).getUpperBounds()) : actualArg;
+            for (Type upper : formalWildcard.getUpperBounds()) {
+                if (actualUpper != null && upper != Object.class) {
+                    reduce(bounds, upper, actualUpper, Relation.SUBTYPE);
+                }
+            }
+        } else if (actualArg instanceof WildcardType) {
+            // a wildcard is equal only to a wildcard of the same bounds, so the bounds are equal
+            WildcardType actualWildcard = (WildcardType) actualArg;
+            Type lower = first(actualWildcard.getLowerBounds());
+            reduce(bounds, formalArg, (lower != null) ? lower : first(actualWildcard.getUpperBounds()), Relation.EQUAL);
+        } else {
+            reduce(bounds, formalArg, actualArg, Relation.EQUAL);
+        }
+    }
+
+    private static void reduceParameterized(Map<TypeVariable<?>, Bounds> bounds, ParameterizedType formal, Type actual,
+            Relation relation) {
+        if (!(formal.getRawType() instanceof Class)) {
+            return;
+        }
+        Class<?> raw = (Class<?>) formal.getRawType();
+        if (relation == Relation.SUPERTYPE) {
+            // formal <: actual, so the supertype of the formal is compared against the actual
+            if (!(actual instanceof ParameterizedType)) {
+                return;
+            }
+            Type supertype = Types.findSupertype(formal, Types.erase(actual));
+            if (supertype instanceof ParameterizedType) {
+                reduceArguments(bounds, ((ParameterizedType) actual).getActualTypeArguments(),
+                        ((ParameterizedType) supertype).getActualTypeArguments(), true);
+            }
+            return;
+        }
+        if (actual instanceof Class && Types.isRaw((Class<?>) actual)) {
+            // raw types are only compatible through unchecked conversion, which does not constrain
+            return;
+        }
+        Type supertype = (relation == Relation.EQUAL) ? actual : Types.findSupertype(actual, raw);
+        if (supertype instanceof ParameterizedType && ((ParameterizedType) supertype).getRawType() == raw) {
+            reduceArguments(bounds, formal.getActualTypeArguments(),
+                    ((ParameterizedType) supertype).getActualTypeArguments(), false);
+            Type formalOwner = formal.getOwnerType();
+            if (formalOwner instanceof ParameterizedType) {
+                reduce(bounds, formalOwner, ((ParameterizedType) supertype).getOwnerType(), Relation.EQUAL);
+            }
+        }
+    }
+
+    private static void reduceArguments(Map<TypeVariable<?>, Bounds> bounds, Type[] formalArgs, Type[] actualArgs,
+            boolean reversed) {
+        if (formalArgs.length != actualArgs.length) {
+            return;
+        }
+        for (int idx = 0; idx < formalArgs.length; ++idx) {
+            if (!reversed) {
+                reduceArgument(bounds, formalArgs[idx], actualArgs[idx]);
+                continue;
+            }
+            // the formal arguments are the containing side, the actual arguments the inferred side
+            Type container = formalArgs[idx];
+            Type contained = actualArgs[idx];
+            if (container instanceof WildcardType) {
+                WildcardType wildcard = (WildcardType) container;
+                Type lower = first(wildcard.getLowerBounds());
+                if (lower != null) {
+                    reduce(bounds, contained, lower, Relation.SUBTYPE);
+                } else if (first(wildcard.getUpperBounds()) != Object.class) {
+                    reduce(bounds, contained, first(wildcard.getUpperBounds()), Relation.SUPERTYPE);
+                }
+            } else {
+                reduce(bounds, contained, container, Relation.EQUAL);
+            }
+        }
+    }
+
+    /**
+     * Determine if the type contains any of the type parameters that are not inferred
+     * @param type {@link Type} to check
+     * @param variables type parameters being inferred
+     * @param inferred {@link Map} of the inferred type parameters to their type arguments
+     * @return state of {@code type} containing a type parameter that is not inferred
+     */
+    private static boolean refersToUninferred(Type type, TypeVariable<?>[] variables, Map<TypeVariable<?>, Type> inferred) {
+        if (type instanceof TypeVariable) {
+            return Arrays.asList(variables).contains(type) && !inferred.containsKey(type);
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType pt = (ParameterizedType) type;
+            Type owner = pt.getOwnerType();
+            if (owner != null && refersToUninferred(owner, variables, inferred)) {
+                return true;
+            }
+            for (Type arg : pt.getActualTypeArguments()) {
+                if (refersToUninferred(arg, variables, inferred)) {
+                    return true;
+                }
+            }
+        } else if (type instanceof GenericArrayType) {
+            return refersToUninferred(((GenericArrayType) type).getGenericComponentType(), variables, inferred);
+        } else if (type instanceof WildcardType) {
+            WildcardType wildcard = (WildcardType) type;
+            for (Type bound : wildcard.getUpperBounds()) {
+                if (refersToUninferred(bound, variables, inferred)) {
+                    return true;
+                }
+            }
+            for (Type bound : wildcard.getLowerBounds()) {
+                if (refersToUninferred(bound, variables, inferred)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolve the type argument of a type parameter from its bounds
+     * @param variable type parameter to resolve the type argument of
+     * @param bounds {@link Bounds} of the type parameter
+     * @param inferred {@link Map} of the type parameters inferred so far to their type arguments
+     * @param variables type parameters being inferred
+     * @return resolved {@link Type}, or {@code null} when there are no bounds to resolve from
+     */
+    private static Type resolve(TypeVariable<?> variable, Bounds bounds, Map<TypeVariable<?>, Type> inferred,
+            TypeVariable<?>[] variables) {
+        if (!bounds.equal.isEmpty()) {
+            return bounds.equal.get(0);
+        }
+        List<Type> from = bounds.lower.isEmpty() ? bounds.upper : bounds.lower;
+        if (from.isEmpty()) {
+            return null;
+        }
+        Type[] types = from.toArray(Utils.EMPTY);
+        Type bound = (from == bounds.lower) ? Types.lub(types) : Types.glb(types);
+        // a type argument can not be an intersection, so use the first member satisfying the declared bounds
+        Type[] members = TypeLattice.getMembers(bound);
+        if (members.length > 1) {
+            for (Type member : members) {
+                if (satisfiesBounds(variable, member, inferred, variables)) {
+                    return member;
+                }
+            }
+        }
+        // otherwise the invocation is not applicable, which is detected once all type parameters are inferred
+        return members[0];
+    }
+
+    /**
+     * Determine if the type argument satisfies the declared bounds of the type parameter, with the inferred type arguments
+     * substituted. Declared bounds that refer to type parameters that are not inferred can not be checked, and are satisfied.
+     * @param variable type parameter whose declared bounds are checked
+     * @param type type argument of {@code variable}
+     * @param inferred {@link Map} of the inferred type parameters to their type arguments
+     * @param variables type parameters being inferred
+     * @return state of {@code type} satisfying the declared bounds of {@code variable}
+     */
+    private static boolean satisfiesBounds(TypeVariable<?> variable, Type type, Map<TypeVariable<?>, Type> inferred,
+            TypeVariable<?>[] variables) {
+        Map<TypeVariable<?>, Type> bindings = new HashMap<>(inferred);
+        bindings.put(variable, type);
+        TypeResolver resolver = TypeResolver.of(bindings);
+        for (Type declared : TypeVariableIndex.getBounds(variable)) {
+            if (declared != Object.class && !refersToUninferred(declared, variables, bindings)
+                    && !Types.isAssignable(type, resolver.resolve(declared))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Type first(Type[] types) {
+        return (types.length == 0) ? null : types[0];
+    }
+
+    private TypeInference() {
+        // not instantiable
+    }
+}
@@ -0,0 +1,331 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.io.Serializable;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computation of the least upper bound and greatest lower bound of types, following the Java Language Specification.
+ * As there is no reflective representation of an intersection type, intersections are represented as an
+ * {@link IntersectionType}, which is a {@link WildcardTypeImpl} whose upper bounds are the members of the intersection.
+ * The least upper bound is recursive for generic types, so the recursion is limited to {@link #MAX_DEPTH},
+ * beyond which type arguments are the full wildcard.
+ */
+final class TypeLattice {
+
+    /** depth of nested least upper bound computations at which type arguments become the full wildcard */
+    static final int MAX_DEPTH = 2;
+
+    /** the erased supertypes of all arrays */
+    private static final List<Class<?>> ARRAY_SUPERTYPES = Arrays.asList(Object.class, Cloneable.class, Serializable.class);
+
+    /**
+     * order of the members of an intersection, with classes before interfaces and then by name.
+     * Arrays are ordered by their innermost component type, so arrays of classes precede arrays of interfaces
+     */
+    private static final Comparator<Type> MEMBER_ORDER = Comparator.<Type, Boolean>comparing((member)-> isInterfaceMember(member))
+            .thenComparing((member)-> Types.erase(member).getName());
+
+    /**
+     * Compute the greatest lower bound of the types
+     * @param types {@link Type}s to compute the greatest lower bound of
+     * @return greatest lower bound
+     */
+    static Type glb(Type[] types) {
+        List<Type> bounds = new ArrayList<>(types.length);
+        for (Type type : types) {
+            type = box(type);
+            for (Type member : getMembers(type)) {
+                addMostSpecific(bounds, member);
+            }
+        }
+        // classes before interfaces, as with the bounds of type variables
+        bounds.sort(MEMBER_ORDER);
+        return toType(bounds);
+    }
+
+    /**
+     * Compute the least upper bound of the types
+     * @param types {@link Type}s to compute the least upper bound of
+     * @param depth depth of nested least upper bound computations
+     * @return least upper bound, or {@code null} when {@code depth} has reached {@link #MAX_DEPTH}
+     */
+    static Type lub(Type[] types, int depth) {
+        List<Type> distinct = new ArrayList<>(types.length);
+        for (Type type : types) {
+            type = box(type);
+            if (!containsSame(distinct, type)) {
+                distinct.add(type);
+            }
+        }
+        if (distinct.size() == 1) {
+            return distinct.get(0);
+        } else if (depth >= MAX_DEPTH) {
+            return null;
+        }
+
+        // erased candidates are the erased supertypes common to all the types
+        Set<Class<?>> candidates = getErasedSupertypes(distinct.get(0));
+        for (int idx = 1; idx < distinct.size(); ++idx) {
+            candidates.retainAll(getErasedSupertypes(distinct.get(idx)));
+        }
+        // of which only the minimal ones are of interest
+        List<Class<?>> minimal = new ArrayList<>(candidates.size());
+        for (Class<?> candidate : candidates) {
+            boolean isMinimal = true;
+            for (Class<?> other : candidates) {
+                if (other != candidate && candidate.isAssignableFrom(other)) {
+                    isMinimal = false;
+                    break;
+                }
+            }
+            if (isMinimal) {
+                minimal.add(candidate);
+            }
+        }
+        minimal.sort(MEMBER_ORDER);
+
+        List<Type> members = new ArrayList<>(minimal.size());
+        for (Class<?> erased : minimal) {
+            List<Type> relevant = new ArrayList<>(distinct.size());
+            for (Type type : distinct) {
+                // the supertypes of raw types are raw
+                boolean raw = type instanceof Class && Types.isRaw((Class<?>) type);
+                relevant.add(raw ? erased : Types.findSupertype(type, erased));
+            }
+            members.add(getCandidate(erased, relevant, depth));
+        }
+        return toType(members);
+    }
+
+    /**
+     * Retrieve the members of the type when it is an intersection
+     * @param type {@link Type} to retrieve the members of
+     * @return members of the intersection, otherwise {@code type} alone
+     */
+    static Type[] getMembers(Type type) {
+        if (type instanceof IntersectionType) {
+            return ((IntersectionType) type).getUpperBounds();
+        }
+        return new Type[] { type };
+    }
+
+    private static boolean isInterfaceMember(Type member) {
+        Class<?> erased = Types.erase(member);
+        while (erased.isArray()) {
+            erased = erased.getComponentType();
+        }
+        return erased.isInterface();
+    }
+
+    /**
+     * Add the bound to the bounds, keeping only the most specific of related bounds
+     * @param bounds bounds to add to
+     * @param bound bound to add
+     */
+    private static void addMostSpecific(List<Type> bounds, Type bound) {
+        for (Type existing : bounds) {
+            if (Types.assignable(existing, bound)) {
+                return;
+            }
+        }
+        bounds.removeIf((existing)-> Types.assignable(bound, existing));
+        bounds.add(bound);
+    }
+
+    private static Type box(Type type) {
+        return (type instanceof Class) ? Utils.box((Class<?>) type) : type;
+    }
+
+    private static boolean containsOnlySame(List<Type> types) {
+        Type first = types.get(0);
+        for (int idx = 1; idx < types.size(); ++idx) {
+            Type type = types.get(idx);
+            if (!first.equals(type) && !type.equals(first)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsSame(List<Type> types, Type type) {
+        for (Type existing : types) {
+            if (existing.equals(type) || type.equals(existing)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retrieve the candidate parameterization of the erased supertype, which is the least containing parameterization
+     * of the relevant parameterizations
+     * @param erased erased supertype
+     * @param relevant relevant parameterizations of {@code erased}, one per type
+     * @param depth depth of nested least upper bound computations
+     * @return candidate parameterization of {@code erased}
+     */
+    private static Type getCandidate(Class<?> erased, List<Type> relevant, int depth) {
+        Type first = relevant.get(0);
+        if (containsOnlySame(relevant)) {
+            return first;
+        } else if (erased.isArray()) {
+            List<Type> components = new ArrayList<>(relevant.size());
+            for (Type type : relevant) {
+                components.add(getComponentType(type));
+            }
+            Type component = getCandidate(erased.getComponentType(), components, depth);
+            return Utils.newArrayType(component);
+        }
+        for (Type type : relevant) {
+            if (!(type instanceof ParameterizedType)) {
+                // any raw parameterization makes the candidate raw
+                return erased;
+            }
+        }
+        ParameterizedType firstPt = (ParameterizedType) first;
+        // copy into a Type[] as the arguments may be a narrower array such as Class[]
+        Type[] args = Arrays.copyOf(firstPt.getActualTypeArguments(), firstPt.getActualTypeArguments().length, Type[].class);
+        for (int pIdx = 1; pIdx < relevant.size(); ++pIdx) {
+            Type[] otherArgs = ((ParameterizedType) relevant.get(pIdx)).getActualTypeArguments();
+            for (int aIdx = 0; aIdx < args.length; ++aIdx) {
+                args[aIdx] = getContainingArgument(args[aIdx], otherArgs[aIdx], depth);
+            }
+        }
+        Type owner = firstPt.getOwnerType();
+        if (owner instanceof ParameterizedType && erased.getDeclaringClass() != null) {
+            List<Type> owners = new ArrayList<>(relevant.size());
+            for (Type type : relevant) {
+                owners.add(((ParameterizedType) type).getOwnerType());
+            }
+            owner = getCandidate(erased.getDeclaringClass(), owners, depth);
+        }
+        return new ParameterizedTypeImpl(owner, erased, args);
+    }
+
+    private static Type getComponentType(Type type) {
+        return (type instanceof GenericArrayType) ? ((GenericArrayType) type).getGenericComponentType()
+                : ((Class<?>) type).getComponentType();
+    }
+
+    /**
+     * Retrieve the least containing type argument of two type arguments
+     * @param arg1 first type argument
+     * @param arg2 second type argument
+     * @param depth depth of nested least upper bound computations
+     * @return least type argument containing both {@code arg1} and {@code arg2}
+     */
+    private static Type getContainingArgument(Type arg1, Type arg2, int depth) {
+        if (arg1.equals(arg2) || arg2.equals(arg1)) {
+            return arg1;
+        }
+        Type lower1 = getLowerBound(arg1);
+        Type lower2 = getLowerBound(arg2);
+        if (lower1 != null && lower2 != null) {
+            return superOf(glb(new Type[] { lower1, lower2 }));
+        } else if (lower1 != null || lower2 != null) {
+            Type lower = (lower1 != null) ? lower1 : lower2;
+            Type other = (lower1 != null) ? arg2 : arg1;
+            if (!(other instanceof WildcardType)) {
+                return superOf(glb(new Type[] { lower, other }));
+            }
+            // an extends and a super wildcard only share the full wildcard, unless they are bounded by the same type
+            Type upper = ((WildcardType) other).getUpperBounds()[0];
+            return upper.equals(lower) ? upper : WildcardTypeImpl.FULL_WILDCARD;
+        }
+        return extendsOf(lub(new Type[] { getUpperBound(arg1), getUpperBound(arg2) }, depth + 1));
+    }
+
+    /**
+     * Retrieve the erased supertypes of the type, including its own erasure
+     * @param type {@link Type} to retrieve the erased supertypes of
+     * @return modifiable {@link Set} of erased supertypes
+     */
+    private static Set<Class<?>> getErasedSupertypes(Type type) {
+        Set<Class<?>> supertypes = new HashSet<>();
+        if (type instanceof TypeVariable || type instanceof WildcardType) {
+            Type[] bounds = (type instanceof TypeVariable) ? TypeVariableIndex.getBounds((TypeVariable<?>) type)
+                    : ((WildcardType) type).getUpperBounds();
+            for (Type bound : bounds) {
+                supertypes.addAll(getErasedSupertypes(bound));
+            }
+            supertypes.add(Object.class);
+            return supertypes;
+        }
+        Class<?> erased = Types.erase(type);
+        if (!erased.isArray()) {
+            supertypes.addAll(SupertypeIndex.get(erased).keySet());
+            return supertypes;
+        }
+        supertypes.addAll(ARRAY_SUPERTYPES);
+        Class<?> component = erased.getComponentType();
+        if (component.isPrimitive()) {
+            supertypes.add(erased);
+        } else {
+            for (Class<?> supertype : getErasedSupertypes(getComponentType(type))) {
+                supertypes.add(Utils.getArrayClass(supertype));
+            }
+        }
+        return supertypes;
+    }
+
+    private static Type getLowerBound(Type arg) {
+        if (arg instanceof WildcardType) {
+            Type[] lower = ((WildcardType) arg).getLowerBounds();
+            return (lower.length == 0) ? null : lower[0];
+        }
+        return null;
+    }
+
+    private static Type getUpperBound(Type arg) {
+        return (arg instanceof WildcardType) ? toType(Arrays.asList(((WildcardType) arg).getUpperBounds())) : arg;
+    }
+
+    private static Type extendsOf(Type bound) {
+        if (bound == null) {
+            // the depth was exceeded
+            return WildcardTypeImpl.FULL_WILDCARD;
+        }
+        return WildcardTypeImpl.forExtends(getMembers(bound));
+    }
+
+    private static Type superOf(Type bound) {
+        // there is no lower bound of an intersection
+        return (getMembers(bound).length > 1) ? WildcardTypeImpl.FULL_WILDCARD : WildcardTypeImpl.forSuper(bound);
+    }
+
+    private static Type toType(List<Type> members) {
+        if (members.isEmpty()) {
+            return Object.class;
+        }
+        return (members.size() == 1) ? members.get(0) : new IntersectionType(members.toArray(Utils.EMPTY));
+    }
+
+    private TypeLattice() {
+        // not instantiable
+    }
+}
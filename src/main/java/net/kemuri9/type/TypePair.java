@@ -0,0 +1,60 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.Type;
+
+/**
+ * Ordered pair of {@link Type}s, for use as a cache key
+ */
+final class TypePair {
+
+    final Type first;
+    final Type second;
+    private final int hash;
+
+    /**
+     * Create a new {@link TypePair}
+     * @param first first {@link Type} of the pair
+     * @param second second {@link Type} of the pair
+     */
+    TypePair(Type first, Type second) {
+        this.first = first;
+        this.second = second;
+        this.hash = 31 * first.hashCode() + second.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        } else if (!(other instanceof TypePair)) {
+            return false;
+        }
+        TypePair o = (TypePair) other;
+        return hash == o.hash && first.equals(o.first) && second.equals(o.second);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + first.getTypeName() + ", " + second.getTypeName() + ")";
+    }
+}
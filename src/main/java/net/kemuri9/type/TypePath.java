@@ -0,0 +1,399 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.AnnotatedArrayType;
+import java.lang.reflect.AnnotatedParameterizedType;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.AnnotatedWildcardType;
+import java.util.Arrays;
+
+/**
+ * <p>Path to a location within a type, as described by the {@code type_path} structure of
+ * the Java Virtual Machine Specification (JVMS 4.7.20.2).</p>
+ * <p>A path is a sequence of steps, each of which descends one level into a type:</p>
+ * <ul>
+ *   <li>{@link Kind#ARRAY} descends into the component type of an array type</li>
+ *   <li>{@link Kind#INNER_TYPE} descends into the next deeper type of a nested type</li>
+ *   <li>{@link Kind#WILDCARD} descends into the bound of a wildcard type</li>
+ *   <li>{@link Kind#TYPE_ARGUMENT} descends into a type argument of a parameterized type</li>
+ * </ul>
+ * <p>As in the JVMS, the empty path of a nested type addresses its outermost annotatable type,
+ * with each {@link Kind#INNER_TYPE} step descending into the next inner (non-static) member type.</p>
+ * <p>The string form of a path matches that used by bytecode tooling such as ASM:
+ * {@code [} for {@link Kind#ARRAY}, {@code .} for {@link Kind#INNER_TYPE}, {@code *} for {@link Kind#WILDCARD},
+ * and the type argument index followed by {@code ;} for {@link Kind#TYPE_ARGUMENT}.
+ * For example the path {@code 1;[} addresses {@code @A String} within {@code Map<K, @A String[]>}.</p>
+ * @since 1.2
+ */
+public final class TypePath {
+
+    /**
+     * Kinds of steps within a {@link TypePath}.
+     * The ordinal of each kind is the {@code type_path_kind} value of the JVMS.
+     */
+    public enum Kind {
+        /** Descend into the component type of an array type */
+        ARRAY('['),
+        /** Descend into the next deeper type of a nested type */
+        INNER_TYPE('.'),
+        /** Descend into the bound of a wildcard type */
+        WILDCARD('*'),
+        /** Descend into a type argument of a parameterized type */
+        TYPE_ARGUMENT(';');
+
+        private static final Kind[] VALUES = values();
+
+        private final char symbol;
+
+        private Kind(char symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    /** Maximum number of steps in a path, bounded by the {@code u1} {@code path_length} of the JVMS */
+    private static final int MAX_LENGTH = 255;
+
+    /** Maximum type argument index, bounded by the {@code u1} {@code type_argument_index} of the JVMS */
+    private static final int MAX_TYPE_ARGUMENT = 255;
+
+    /** The empty path, addressing the type itself */
+    public static final TypePath EMPTY = new TypePath(new byte[0]);
+
+    /**
+     * Create a {@link TypePath} from the {@code type_path} structure of a class file.
+     * @param bytes class file data containing the {@code type_path} structure
+     * @param offset offset in {@code bytes} of the {@code path_length} item of the structure
+     * @return {@link TypePath} represented by the structure
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code bytes} is {@code null}</li>
+     *   <li>When {@code offset} is outside of {@code bytes}</li>
+     *   <li>When the structure extends past the end of {@code bytes}</li>
+     *   <li>When the structure contains an invalid {@code type_path_kind}</li>
+     *   <li>When the structure contains a non-zero {@code type_argument_index} for a step that is not {@link Kind#TYPE_ARGUMENT}</li>
+     * </ul>
+     */
+    public static TypePath fromBytes(byte[] bytes, int offset) {
+        Utils.notNull(bytes, "bytes");
+        if (offset < 0 || offset >= bytes.length) {
+            throw new IllegalArgumentException("offset " + offset + " is outside of bytes of length " + bytes.length);
+        }
+        int length = bytes[offset] & 0xFF;
+        if (length == 0) {
+            return EMPTY;
+        }
+        if (offset + 1 + 2 * length > bytes.length) {
+            throw new IllegalArgumentException("type_path of length " + length + " at " + offset + " exceeds bytes of length " + bytes.length);
+        }
+        byte[] steps = Arrays.copyOfRange(bytes, offset + 1, offset + 1 + 2 * length);
+        for (int idx = 0; idx < steps.length; idx += 2) {
+            int kind = steps[idx] & 0xFF;
+            if (kind >= Kind.VALUES.length) {
+                throw new IllegalArgumentException("invalid type_path_kind " + kind + " at step " + (idx / 2));
+            }
+            if (kind != Kind.TYPE_ARGUMENT.ordinal() && steps[idx + 1] != 0) {
+                throw new IllegalArgumentException("type_argument_index must be 0 for " + Kind.VALUES[kind] + " at step " + (idx / 2));
+            }
+        }
+        return new TypePath(steps);
+    }
+
+    /**
+     * Create a {@link TypePath} from its string form
+     * @param path string form of the path, such as {@code 0;*[}
+     * @return {@link TypePath} represented by {@code path}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code path} is {@code null}</li>
+     *   <li>When {@code path} is not a valid string form of a path</li>
+     * </ul>
+     */
+    public static TypePath fromString(String path) {
+        Utils.notNull(path, "path");
+        if (path.isEmpty()) {
+            return EMPTY;
+        }
+        byte[] steps = new byte[2 * path.length()];
+        int length = 0;
+        for (int idx = 0; idx < path.length();) {
+            char ch = path.charAt(idx++);
+            Kind kind;
+            int typeArg = 0;
+            if (ch == Kind.ARRAY.symbol) {
+                kind = Kind.ARRAY;
+            } else if (ch == Kind.INNER_TYPE.symbol) {
+                kind = Kind.INNER_TYPE;
+            } else if (ch == Kind.WILDCARD.symbol) {
+                kind = Kind.WILDCARD;
+            } else if (ch >= '0' && ch <= '9') {
+                kind = Kind.TYPE_ARGUMENT;
+                typeArg = ch - '0';
+                while (idx < path.length() && (ch = path.charAt(idx)) >= '0' && ch <= '9') {
+                    typeArg = typeArg * 10 + (ch - '0');
+                    if (typeArg > MAX_TYPE_ARGUMENT) {
+                        throw new IllegalArgumentException("type argument index in " + path + " exceeds " + MAX_TYPE_ARGUMENT);
+                    }
+                    ++idx;
+                }
+                if (idx == path.length() || path.charAt(idx) != Kind.TYPE_ARGUMENT.symbol) {
+                    throw new IllegalArgumentException("type argument index in " + path + " must be terminated by "
+                            + Kind.TYPE_ARGUMENT.symbol);
+                }
+                ++idx;
+            } else {
+                throw new IllegalArgumentException("invalid character '" + ch + "' in " + path);
+            }
+            if (length == MAX_LENGTH) {
+                throw new IllegalArgumentException(path + " exceeds the maximum length of " + MAX_LENGTH);
+            }
+            steps[2 * length] = (byte) kind.ordinal();
+            steps[2 * length + 1] = (byte) typeArg;
+            ++length;
+        }
+        return new TypePath(Arrays.copyOf(steps, 2 * length));
+    }
+
+    /** steps of the path in the class file layout: pairs of {@code type_path_kind} and {@code type_argument_index} */
+    private final byte[] steps;
+
+    private TypePath(byte[] steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Create a new {@link TypePath} with an additional step
+     * @param kind {@link Kind} of the additional step
+     * @param typeArg type argument index of the additional step
+     * @return new {@link TypePath} with the additional step
+     */
+    private TypePath append(Kind kind, int typeArg) {
+        if (getLength() == MAX_LENGTH) {
+            throw new IllegalArgumentException(this + " is already at the maximum length of " + MAX_LENGTH);
+        }
+        byte[] newSteps = Arrays.copyOf(steps, steps.length + 2);
+        newSteps[steps.length] = (byte) kind.ordinal();
+        newSteps[steps.length + 1] = (byte) typeArg;
+        return new TypePath(newSteps);
+    }
+
+    /**
+     * Create a new {@link TypePath} that additionally descends into the component type of an array type
+     * @return new {@link TypePath} ending with an {@link Kind#ARRAY} step
+     * @throws IllegalArgumentException When this path is already at the maximum length
+     */
+    public TypePath array() {
+        return append(Kind.ARRAY, 0);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        } else if (!(other instanceof TypePath)) {
+            return false;
+        }
+        return Arrays.equals(steps, ((TypePath) other).steps);
+    }
+
+    /**
+     * Retrieve the {@link Kind} of the specified step
+     * @param step index of the step to retrieve the {@link Kind} of
+     * @return {@link Kind} of the step
+     * @throws IndexOutOfBoundsException When {@code step} is not within {@code [0, }{@link #getLength()}{@code )}
+     */
+    public Kind getKind(int step) {
+        return Kind.VALUES[steps[checkStep(step) * 2]];
+    }
+
+    /**
+     * Retrieve the number of steps in the path
+     * @return number of steps in the path
+     */
+    public int getLength() {
+        return steps.length / 2;
+    }
+
+    /**
+     * Retrieve the type argument index of the specified step
+     * @param step index of the step to retrieve the type argument index of
+     * @return type argument index of a {@link Kind#TYPE_ARGUMENT} step, otherwise {@code 0}
+     * @throws IndexOutOfBoundsException When {@code step} is not within {@code [0, }{@link #getLength()}{@code )}
+     */
+    public int getTypeArgumentIndex(int step) {
+        return steps[checkStep(step) * 2 + 1] & 0xFF;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(steps);
+    }
+
+    /**
+     * Create a new {@link TypePath} that additionally descends into the next deeper type of a nested type
+     * @return new {@link TypePath} ending with an {@link Kind#INNER_TYPE} step
+     * @throws IllegalArgumentException When this path is already at the maximum length
+     */
+    public TypePath inner() {
+        return append(Kind.INNER_TYPE, 0);
+    }
+
+    /**
+     * <p>Navigate to the location addressed by this path within the specified {@link AnnotatedType}.</p>
+     * <p>The implementations of this library are navigated without copying any of their nested types,
+     * so a path may be reused to efficiently read the same location from many {@link AnnotatedType}s of the same shape.</p>
+     * @param type {@link AnnotatedType} to navigate within
+     * @return {@link AnnotatedType} at the location addressed by this path,
+     *  or {@code null} when this path does not address a location within {@code type}
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     */
+    public AnnotatedType navigate(AnnotatedType type) {
+        Utils.notNull(type, "type");
+        /* nested types are addressed from their outermost annotatable type,
+         * so track the number of inner steps taken until the nested level is needed */
+        AnnotatedType current = type;
+        int innerSteps = 0;
+        for (int idx = 0; idx < steps.length; idx += 2) {
+            Kind kind = Kind.VALUES[steps[idx]];
+            if (kind == Kind.INNER_TYPE) {
+                ++innerSteps;
+                continue;
+            }
+            current = nestedLevel(current, innerSteps);
+            innerSteps = 0;
+            if (current == null) {
+                return null;
+            }
+            switch (kind) {
+            case ARRAY:
+                current = componentType(current);
+                break;
+            case WILDCARD:
+                current = wildcardBound(current);
+                break;
+            default:
+                current = typeArgument(current, steps[idx + 1] & 0xFF);
+                break;
+            }
+            if (current == null) {
+                return null;
+            }
+        }
+        return nestedLevel(current, innerSteps);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(steps.length);
+        for (int idx = 0; idx < steps.length; idx += 2) {
+            Kind kind = Kind.VALUES[steps[idx]];
+            if (kind == Kind.TYPE_ARGUMENT) {
+                sb.append(steps[idx + 1] & 0xFF);
+            }
+            sb.append(kind.symbol);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Create a new {@link TypePath} that additionally descends into a type argument of a parameterized type
+     * @param index index of the type argument to descend into
+     * @return new {@link TypePath} ending with a {@link Kind#TYPE_ARGUMENT} step
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code index} is not within {@code [0, 255]}</li>
+     *   <li>When this path is already at the maximum length</li>
+     * </ul>
+     */
+    public TypePath typeArgument(int index) {
+        if (index < 0 || index > MAX_TYPE_ARGUMENT) {
+            throw new IllegalArgumentException("index must be within [0, " + MAX_TYPE_ARGUMENT + "], was " + index);
+        }
+        return append(Kind.TYPE_ARGUMENT, index);
+    }
+
+    /**
+     * Create a new {@link TypePath} that additionally descends into the bound of a wildcard type
+     * @return new {@link TypePath} ending with a {@link Kind#WILDCARD} step
+     * @throws IllegalArgumentException When this path is already at the maximum length
+     */
+    public TypePath wildcard() {
+        return append(Kind.WILDCARD, 0);
+    }
+
+    private static AnnotatedType componentType(AnnotatedType type) {
+        if (type instanceof AnnotatedArrayTypeImpl) {
+            return ((AnnotatedArrayTypeImpl) type).componentType();
+        } else if (type instanceof AnnotatedArrayType) {
+            return ((AnnotatedArrayType) type).getAnnotatedGenericComponentType();
+        }
+        return null;
+    }
+
+    /**
+     * Retrieve the level of a nested type that is the specified number of inner steps from its outermost annotatable type
+     * @param type {@link AnnotatedType} of the innermost level of the nested type
+     * @param innerSteps number of {@link Kind#INNER_TYPE} steps from the outermost annotatable type
+     * @return {@link AnnotatedType} of the level, or {@code null} when there is no such level
+     */
+    private static AnnotatedType nestedLevel(AnnotatedType type, int innerSteps) {
+        int depth = Utils.getInnerDepth(type.getType());
+        if (innerSteps > depth) {
+            return null;
+        }
+        AnnotatedType level = type;
+        for (int idx = innerSteps; idx < depth && level != null; ++idx) {
+            level = (level instanceof AnnotatedTypeImpl) ? ((AnnotatedTypeImpl) level).ownerType
+                    : AnnotatedTypeOwner.getAnnotatedOwnerType(level);
+        }
+        return level;
+    }
+
+    private static AnnotatedType typeArgument(AnnotatedType type, int index) {
+        AnnotatedType[] typeArgs = null;
+        if (type instanceof AnnotatedParameterizedTypeImpl) {
+            typeArgs = ((AnnotatedParameterizedTypeImpl) type).typeArguments();
+        } else if (type instanceof AnnotatedParameterizedType) {
+            typeArgs = ((AnnotatedParameterizedType) type).getAnnotatedActualTypeArguments();
+        }
+        return (typeArgs == null || index >= typeArgs.length) ? null : typeArgs[index];
+    }
+
+    private static AnnotatedType wildcardBound(AnnotatedType type) {
+        AnnotatedType[] lower;
+        AnnotatedType[] upper;
+        if (type instanceof AnnotatedWildcardTypeImpl) {
+            AnnotatedWildcardTypeImpl wc = (AnnotatedWildcardTypeImpl) type;
+            lower = wc.lowerBounds();
+            upper = wc.upperBounds();
+        } else if (type instanceof AnnotatedWildcardType) {
+            AnnotatedWildcardType wc = (AnnotatedWildcardType) type;
+            lower = wc.getAnnotatedLowerBounds();
+            upper = wc.getAnnotatedUpperBounds();
+        } else {
+            return null;
+        }
+        // the single bound of a wildcard is the lower bound when present, otherwise the upper bound
+        if (lower.length > 0) {
+            return lower[0];
+        }
+        return (upper.length > 0) ? upper[0] : null;
+    }
+
+    private int checkStep(int step) {
+        if (step < 0 || step >= getLength()) {
+            throw new IndexOutOfBoundsException("step " + step + " is not within [0, " + getLength() + ")");
+        }
+        return step;
+    }
+}
@@ -0,0 +1,389 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>A compiled pattern of a generic {@link Type}, whose {@link TypeVariable}s are unified with the corresponding parts
+ * of the {@link Type}s that it is matched against.</p>
+ * <p>For example, the pattern {@code Handler<List<T>>} matches {@code Handler<List<String>>} binding {@code T} to {@code String},
+ * and does not match {@code Handler<Set<String>>}. A {@link TypeVariable} occurring multiple times must match the same {@link Type}
+ * at each occurrence, and binds only reference types, so that it matches neither a primitive type nor a wildcard type argument.
+ * As such {@code List<T>} does not match {@code List<?>}, while {@code List<? extends T>} matches {@code List<? extends Number>}.
+ * Matching is structural, as by {@link Types#normalize(Type) normalized} equality, and does not consider subtyping.</p>
+ * <p>The pattern is compiled once into a flat sequence of nodes, and each {@link TypeVariable} of the pattern is assigned
+ * a slot index, so that besides {@link Types#normalize(Type) normalizing} the matched {@link Type}, matching only allocates
+ * the array of bindings that it returns and a work stack whose size is determined when compiling.
+ * {@link TypePattern}s are immutable and may be shared between threads.</p>
+ * @since 1.2
+ */
+public final class TypePattern {
+
+    /** kind of a compiled node */
+    private enum Kind {
+        /** a part without pattern variables, matched by equality */
+        EXACT,
+        /** a pattern variable, bound to the matched part */
+        VARIABLE,
+        /** a parameterized type, whose owner and type arguments follow */
+        PARAMETERIZED,
+        /** an array type, whose component type follows */
+        ARRAY,
+        /** a wildcard, whose lower and then upper bounds follow */
+        WILDCARD;
+    }
+
+    /** compiled node of a pattern */
+    private static final class Node {
+        final Kind kind;
+        /** type of an {@link Kind#EXACT} node, or raw type of a {@link Kind#PARAMETERIZED} node */
+        final Type type;
+        /** slot of a {@link Kind#VARIABLE} node, or number of lower bounds of a {@link Kind#WILDCARD} node */
+        final int index;
+        /** number of type arguments of a {@link Kind#PARAMETERIZED} node, or number of upper bounds of a {@link Kind#WILDCARD} node */
+        final int count;
+        /** state of a {@link Kind#PARAMETERIZED} node having an owner type node */
+        final boolean owner;
+
+        Node(Kind kind, Type type, int index, int count, boolean owner) {
+            this.kind = kind;
+            this.type = type;
+            this.index = index;
+            this.count = count;
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * Compile the pattern, where every {@link TypeVariable} occurring in {@code pattern} is a pattern variable
+     * @param pattern {@link Type} to compile into a {@link TypePattern}
+     * @return compiled {@link TypePattern}. The pattern variables are ordered by their first occurrence in {@code pattern}
+     * @throws IllegalArgumentException When {@code pattern} is {@code null}
+     * @throws UnsupportedOperationException When {@code pattern} contains an unrecognized {@link Type}
+     */
+    public static TypePattern compile(Type pattern) {
+        Type normalized = Types.normalize(Utils.notNull(pattern, "pattern"));
+        Map<TypeVariable<?>, Integer> slots = new LinkedHashMap<>();
+        collectVariables(normalized, slots);
+        return new TypePattern(normalized, slots);
+    }
+
+    /**
+     * Compile the pattern, where only the specified {@link TypeVariable}s are pattern variables.
+     * Any other {@link TypeVariable}s of {@code pattern} only match themselves.
+     * @param pattern {@link Type} to compile into a {@link TypePattern}
+     * @param variables {@link TypeVariable}s that are pattern variables, in the order of their slots
+     * @return compiled {@link TypePattern}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code pattern} is {@code null}</li>
+     *   <li>When {@code variables} is {@code null} or contains a {@code null}</li>
+     *   <li>When {@code variables} contains duplicates</li>
+     * </ul>
+     * @throws UnsupportedOperationException When {@code pattern} contains an unrecognized {@link Type}
+     */
+    public static TypePattern compile(Type pattern, TypeVariable<?>... variables) {
+        Type normalized = Types.normalize(Utils.notNull(pattern, "pattern"));
+        Utils.noNullContained(variables, "variables");
+        Map<TypeVariable<?>, Integer> slots = new LinkedHashMap<>();
+        for (TypeVariable<?> variable : variables) {
+            if (slots.putIfAbsent(TypeResolver.getDeclared(variable), slots.size()) != null) {
+                throw new IllegalArgumentException("variables contains " + variable + " multiple times");
+            }
+        }
+        return new TypePattern(normalized, slots);
+    }
+
+    private static void collectVariables(Type type, Map<TypeVariable<?>, Integer> slots) {
+        if (type instanceof TypeVariable) {
+            slots.putIfAbsent((TypeVariable<?>) type, slots.size());
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType pt = (ParameterizedType) type;
+            if (pt.getOwnerType() != null) {
+                collectVariables(pt.getOwnerType(), slots);
+            }
+            for (Type arg : pt.getActualTypeArguments()) {
+                collectVariables(arg, slots);
+            }
+        } else if (type instanceof GenericArrayType) {
+            collectVariables(((GenericArrayType) type).getGenericComponentType(), slots);
+        } else if (type instanceof WildcardType) {
+            for (Type bound : ((WildcardType) type).getLowerBounds()) {
+                collectVariables(bound, slots);
+            }
+            for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                collectVariables(bound, slots);
+            }
+        }
+    }
+
+    private static boolean isSame(Type type1, Type type2) {
+        return type1.equals(type2) || type2.equals(type1);
+    }
+
+    /** normalized pattern */
+    private final Type pattern;
+
+    /** pattern variables, indexed by their slots */
+    private final TypeVariable<?>[] variables;
+
+    /** compiled nodes, in the order that the parts of a matched {@link Type} are visited */
+    private final Node[] nodes;
+
+    /** maximum number of pending parts while matching */
+    private final int maxPending;
+
+    private TypePattern(Type pattern, Map<TypeVariable<?>, Integer> slots) {
+        this.pattern = pattern;
+        this.variables = slots.keySet().toArray(new TypeVariable<?>[slots.size()]);
+        List<Node> compiled = new ArrayList<>();
+        compileNodes(pattern, slots, compiled);
+        this.nodes = compiled.toArray(new Node[compiled.size()]);
+
+        // simulate the pending parts of a match to size the work stack
+        int pending = 1;
+        int max = 1;
+        for (Node node : nodes) {
+            --pending;
+            if (node.kind == Kind.PARAMETERIZED) {
+                pending += node.count + (node.owner ? 1 : 0);
+            } else if (node.kind == Kind.ARRAY) {
+                ++pending;
+            } else if (node.kind == Kind.WILDCARD) {
+                pending += node.index + node.count;
+            }
+            max = Math.max(max, pending);
+        }
+        this.maxPending = max;
+    }
+
+    /**
+     * Compile the part of the pattern into nodes
+     * @param type part of the pattern to compile
+     * @param slots slots of the pattern variables
+     * @param compiled nodes to add to
+     * @return state of {@code type} containing pattern variables
+     */
+    private static boolean compileNodes(Type type, Map<TypeVariable<?>, Integer> slots, List<Node> compiled) {
+        int start = compiled.size();
+        boolean variable = false;
+        if (type instanceof TypeVariable) {
+            Integer slot = slots.get(type);
+            if (slot != null) {
+                compiled.add(new Node(Kind.VARIABLE, type, slot.intValue(), 0, false));
+                return true;
+            }
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType pt = (ParameterizedType) type;
+            Type[] args = pt.getActualTypeArguments();
+            Type owner = pt.getOwnerType();
+            // placeholder for the node of the parameterized type, preceding those of its owner and type arguments
+            compiled.add(null);
+            variable = owner != null && compileNodes(owner, slots, compiled);
+            for (Type arg : args) {
+                variable |= compileNodes(arg, slots, compiled);
+            }
+            compiled.set(start, new Node(Kind.PARAMETERIZED, pt.getRawType(), 0, args.length, owner != null));
+        } else if (type instanceof GenericArrayType) {
+            compiled.add(new Node(Kind.ARRAY, null, 0, 0, false));
+            variable = compileNodes(((GenericArrayType) type).getGenericComponentType(), slots, compiled);
+        } else if (type instanceof WildcardType) {
+            WildcardType wildcard = (WildcardType) type;
+            Type[] lower = wildcard.getLowerBounds();
+            Type[] upper = wildcard.getUpperBounds();
+            compiled.add(new Node(Kind.WILDCARD, null, lower.length, upper.length, false));
+            for (Type bound : lower) {
+                variable |= compileNodes(bound, slots, compiled);
+            }
+            for (Type bound : upper) {
+                variable |= compileNodes(bound, slots, compiled);
+            }
+        }
+        if (!variable) {
+            // parts without pattern variables collapse into a single node that is matched by equality
+            compiled.subList(start, compiled.size()).clear();
+            compiled.add(new Node(Kind.EXACT, type, 0, 0, false));
+        }
+        return variable;
+    }
+
+    /**
+     * Retrieve the normalized pattern
+     * @return {@link Type} of the pattern, as {@link Types#normalize(Type) normalized}
+     */
+    public Type getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Retrieve the slot of the pattern variable
+     * @param variable {@link TypeVariable} to retrieve the slot of
+     * @return slot of {@code variable} in the bindings of a match, or {@code -1} when it is not a pattern variable
+     * @throws IllegalArgumentException When {@code variable} is {@code null}
+     */
+    public int getSlot(TypeVariable<?> variable) {
+        TypeVariable<?> declared = TypeResolver.getDeclared(Utils.notNull(variable, "variable"));
+        for (int idx = 0; idx < variables.length; ++idx) {
+            if (isSame(variables[idx], declared)) {
+                return idx;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieve the pattern variables
+     * @return {@link TypeVariable}s of the pattern, indexed by their slots
+     */
+    public TypeVariable<?>[] getVariables() {
+        return variables.clone();
+    }
+
+    /**
+     * Match the {@link Type} against this pattern
+     * @param type {@link Type} to match
+     * @return bindings of the pattern variables indexed by their slots, or {@code null} when {@code type} does not match.
+     *  Pattern variables that do not occur in the pattern are not bound, and are {@code null}
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     * @throws UnsupportedOperationException When {@code type} contains an unrecognized {@link Type}
+     */
+    public Type[] match(Type type) {
+        Type normalized = Types.normalize(Utils.notNull(type, "type"));
+        Type[] bindings = new Type[variables.length];
+        return match(normalized, bindings) ? bindings : null;
+    }
+
+    /**
+     * Match the {@link Type} against this pattern, providing the bindings as a {@link Map}
+     * @param type {@link Type} to match
+     * @return unmodifiable {@link Map} of the bound pattern variables to their bindings,
+     *  or {@code null} when {@code type} does not match
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     * @throws UnsupportedOperationException When {@code type} contains an unrecognized {@link Type}
+     */
+    public Map<TypeVariable<?>, Type> matchBindings(Type type) {
+        Type[] bindings = match(type);
+        if (bindings == null) {
+            return null;
+        }
+        Map<TypeVariable<?>, Type> map = new LinkedHashMap<>();
+        for (int idx = 0; idx < bindings.length; ++idx) {
+            if (bindings[idx] != null) {
+                map.put(variables[idx], bindings[idx]);
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Determine if the {@link Type} matches this pattern
+     * @param type {@link Type} to match
+     * @return state of {@code type} matching this pattern
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     * @throws UnsupportedOperationException When {@code type} contains an unrecognized {@link Type}
+     */
+    public boolean matches(Type type) {
+        return match(type) != null;
+    }
+
+    @Override
+    public String toString() {
+        return "TypePattern[" + pattern.getTypeName() + " " + Arrays.toString(variables) + "]";
+    }
+
+    private boolean match(Type type, Type[] bindings) {
+        // parts are pushed in reverse, so that they are popped in the order of the nodes
+        Type[] pending = new Type[maxPending];
+        int top = 0;
+        pending[top++] = type;
+        for (Node node : nodes) {
+            Type actual = pending[--top];
+            switch (node.kind) {
+            case EXACT:
+                if (!isSame(node.type, actual)) {
+                    return false;
+                }
+                break;
+            case VARIABLE:
+                Type bound = bindings[node.index];
+                if (bound == null) {
+                    // wildcards are not types, and only occur as type arguments
+                    if ((actual instanceof Class && ((Class<?>) actual).isPrimitive()) || actual instanceof WildcardType) {
+                        return false;
+                    }
+                    bindings[node.index] = actual;
+                } else if (!isSame(bound, actual)) {
+                    return false;
+                }
+                break;
+            case PARAMETERIZED:
+                if (!(actual instanceof ParameterizedType)) {
+                    return false;
+                }
+                ParameterizedType pt = (ParameterizedType) actual;
+                Type[] args = pt.getActualTypeArguments();
+                if (!node.type.equals(pt.getRawType()) || args.length != node.count) {
+                    return false;
+                }
+                for (int idx = args.length - 1; idx >= 0; --idx) {
+                    pending[top++] = args[idx];
+                }
+                if (node.owner) {
+                    if (pt.getOwnerType() == null) {
+                        return false;
+                    }
+                    pending[top++] = pt.getOwnerType();
+                }
+                break;
+            case ARRAY:
+                Type component = (actual instanceof GenericArrayType) ? ((GenericArrayType) actual).getGenericComponentType()
+                        : (actual instanceof Class) ? ((Class<?>) actual).getComponentType() : null;
+                if (component == null) {
+                    return false;
+                }
+                pending[top++] = component;
+                break;
+            case WILDCARD:
+                if (!(actual instanceof WildcardType)) {
+                    return false;
+                }
+                Type[] lower = ((WildcardType) actual).getLowerBounds();
+                Type[] upper = ((WildcardType) actual).getUpperBounds();
+                if (lower.length != node.index || upper.length != node.count) {
+                    return false;
+                }
+                for (int idx = upper.length - 1; idx >= 0; --idx) {
+                    pending[top++] = upper[idx];
+                }
+                for (int idx = lower.length - 1; idx >= 0; --idx) {
+                    pending[top++] = lower[idx];
+                }
+                break;
+            }
+        }
+        return true;
+    }
+}
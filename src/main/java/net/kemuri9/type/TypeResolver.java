@@ -0,0 +1,355 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Resolves {@link Type}s by substituting {@link TypeVariable}s with the {@link Type}s that they are bound to.</p>
+ * <p>Resolution shares structure with the input: only the levels of a {@link Type} that contain a substituted
+ * {@link TypeVariable} are recreated, all other levels are reused as-is. Substitution is a single step,
+ * bound {@link Type}s are not themselves resolved again.</p>
+ * <p>For example, given {@code class Foo implements Repo<User, Long>},
+ * {@code TypeResolver.forType(Foo.class)} resolves {@code Repo}'s {@code T} to {@code User}.</p>
+ * @since 1.2
+ */
+public final class TypeResolver {
+
+    /** {@link TypeResolver} that has no bindings, and so resolves every {@link Type} to itself */
+    public static final TypeResolver EMPTY = new TypeResolver(TypeBindings.EMPTY);
+
+    /** cached resolvers of classes, binding the type variables of all of their generic supertypes */
+    private static final ClassValue<TypeResolver> CLASS_RESOLVERS = new ClassValue<TypeResolver>() {
+        @Override
+        protected TypeResolver computeValue(Class<?> type) {
+            Map<TypeVariable<?>, Type> bindings = new HashMap<>();
+            for (Map.Entry<Class<?>, Type> entry : SupertypeIndex.get(type).entrySet()) {
+                // the class itself is parameterized by its own type variables, which are not bound
+                if (entry.getKey() != type && entry.getValue() instanceof ParameterizedType) {
+                    putArguments(bindings, (ParameterizedType) entry.getValue());
+                }
+            }
+            return bindings.isEmpty() ? EMPTY : new TypeResolver(TypeBindings.ofDeclared(bindings));
+        }
+    };
+
+    /** cached bindings of each class's generic supertypes' type variables, keyed by the supertype */
+    private static final ClassValue<ConcurrentMap<Class<?>, Map<TypeVariable<?>, Type>>> SUPERTYPE_BINDINGS =
+            new ClassValue<ConcurrentMap<Class<?>, Map<TypeVariable<?>, Type>>>() {
+        @Override
+        protected ConcurrentMap<Class<?>, Map<TypeVariable<?>, Type>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Create a {@link TypeResolver} from the specified bindings
+     * @param bindings {@link Map} of {@link TypeVariable}s to the {@link Type}s that they are bound to
+     * @return {@link TypeResolver} that resolves with {@code bindings}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code bindings} is {@code null}</li>
+     *   <li>When {@code bindings} contains a {@code null} key or value</li>
+     * </ul>
+     */
+    public static TypeResolver of(Map<? extends TypeVariable<?>, ? extends Type> bindings) {
+        return forBindings(TypeBindings.of(bindings));
+    }
+
+    /**
+     * Create a {@link TypeResolver} that binds the type variables of the raw type of {@code type},
+     * and of its owner types, to the type arguments
+     * @param type {@link ParameterizedType} of a {@link Class} to bind the type arguments of
+     * @return {@link TypeResolver} binding the type arguments of {@code type}
+     * @throws IllegalArgumentException When {@code type} does not have the same number of type arguments as its raw type declares
+     */
+    static TypeResolver forArguments(ParameterizedType type) {
+        return new TypeResolver(TypeBindings.EMPTY.extendArguments(type));
+    }
+
+    /**
+     * Create a {@link TypeResolver} that resolves with the specified {@link TypeBindings}, without copying them
+     * @param bindings {@link TypeBindings} to resolve with
+     * @return {@link TypeResolver} that resolves with {@code bindings}
+     * @throws IllegalArgumentException When {@code bindings} is {@code null}
+     */
+    public static TypeResolver forBindings(TypeBindings bindings) {
+        Utils.notNull(bindings, "bindings");
+        return bindings.isEmpty() ? EMPTY : new TypeResolver(bindings);
+    }
+
+    /**
+     * <p>Create a {@link TypeResolver} that binds the type variables of {@code type} and of all of its generic supertypes.</p>
+     * <p>When {@code type} is a {@link ParameterizedType}, its type variables are bound to its type arguments,
+     * including those of its owner types. The type variables of the supertypes are then bound to their type arguments
+     * as declared by the class hierarchy, expressed in terms of the type arguments of {@code type}.
+     * Type variables of supertypes that are inherited as raw types remain unbound.</p>
+     * @param type {@link Class} or {@link ParameterizedType} to create a {@link TypeResolver} for
+     * @return {@link TypeResolver} for {@code type}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code type} is not a {@link Class} and not a {@link ParameterizedType} of a {@link Class}</li>
+     *   <li>When {@code type} does not have the same number of type arguments as its raw type declares</li>
+     * </ul>
+     */
+    public static TypeResolver forType(Type type) {
+        Utils.notNull(type, "type");
+        if (type instanceof Class) {
+            return CLASS_RESOLVERS.get((Class<?>) type);
+        } else if (!(type instanceof ParameterizedType) || !(((ParameterizedType) type).getRawType() instanceof Class)) {
+            throw new IllegalArgumentException("type must be a Class or a ParameterizedType of a Class, was " + type);
+        }
+        ParameterizedType pt = (ParameterizedType) type;
+        TypeResolver own = forArguments(pt);
+        TypeResolver inherited = CLASS_RESOLVERS.get((Class<?>) pt.getRawType());
+        Map<TypeVariable<?>, Type> resolved = new HashMap<>();
+        for (Map.Entry<TypeVariable<?>, Type> entry : inherited.bindings.toMap().entrySet()) {
+            resolved.put(entry.getKey(), own.resolveType(entry.getValue()));
+        }
+        // the type's own bindings are layered over the resolved inherited bindings
+        return new TypeResolver(TypeBindings.ofDeclared(resolved).extendArguments(pt));
+    }
+
+    /**
+     * <p>Retrieve the bindings of the type variables of {@code supertype} as declared by the class hierarchy of {@code type}.
+     * The bound {@link Type}s are expressed in terms of the type variables of {@code type}.</p>
+     * <p>For example, the bindings of {@code ArrayList} to {@code Iterable} bind {@code Iterable}'s {@code T}
+     * to {@code ArrayList}'s {@code E}. The bindings are cached for each pair of classes.</p>
+     * @param type {@link Class} whose class hierarchy declares the bindings
+     * @param supertype {@link Class} that is a supertype of {@code type}
+     * @return unmodifiable {@link Map} of the type variables of {@code supertype} to the {@link Type}s that they are bound to.
+     *  When {@code supertype} is inherited as a raw type, its type variables are not present.
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code supertype} is {@code null}</li>
+     *   <li>When {@code supertype} is not a supertype of {@code type}</li>
+     * </ul>
+     */
+    public static Map<TypeVariable<?>, Type> getBindings(Class<?> type, Class<?> supertype) {
+        Utils.notNull(type, "type");
+        Utils.notNull(supertype, "supertype");
+        if (!supertype.isAssignableFrom(type)) {
+            throw new IllegalArgumentException(supertype + " is not a supertype of " + type);
+        }
+        ConcurrentMap<Class<?>, Map<TypeVariable<?>, Type>> cache = SUPERTYPE_BINDINGS.get(type);
+        Map<TypeVariable<?>, Type> bindings = cache.get(supertype);
+        if (bindings == null) {
+            TypeBindings all = CLASS_RESOLVERS.get(type).bindings;
+            Map<TypeVariable<?>, Type> selected = new HashMap<>();
+            for (TypeVariable<?> variable : supertype.getTypeParameters()) {
+                Type bound = all.lookup(variable);
+                if (bound != null) {
+                    selected.put(variable, bound);
+                }
+            }
+            bindings = selected.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(selected);
+            Map<TypeVariable<?>, Type> existing = cache.putIfAbsent(supertype, bindings);
+            if (existing != null) {
+                bindings = existing;
+            }
+        }
+        return bindings;
+    }
+
+    /**
+     * Retrieve the {@link TypeVariable} as declared by its {@link java.lang.reflect.GenericDeclaration}.
+     * This is necessary for lookups as the core {@link TypeVariable} implementation is only equivalent to itself.
+     * @param variable {@link TypeVariable} to retrieve the declared variant of
+     * @return declared {@link TypeVariable}, or {@code variable} when it is not declared
+     */
+    static TypeVariable<?> getDeclared(TypeVariable<?> variable) {
+        if (variable.getClass() == TypeVariableIndex.CORE_TYPE_VARIABLE) {
+            return variable;
+        }
+        TypeVariable<?> declared = TypeVariableIndex.getDeclared(variable.getGenericDeclaration(), variable.getName());
+        return (declared == null) ? variable : declared;
+    }
+
+    /**
+     * Retrieve the component {@link Type} of an array whose component resolved to {@code component}.
+     * A wildcard can not be the component of an array, so an array of {@code ? extends X} is an array of {@code X},
+     * and an array of {@code ? super X} is an array of {@link Object}, as for the component's erasure.
+     * @param component resolved component {@link Type}
+     * @return {@code component} when it is not a {@link WildcardType}, otherwise its first upper boundary,
+     *  or {@link Object} when it has lower boundaries
+     */
+    static Type toArrayComponent(Type component) {
+        if (!(component instanceof WildcardType)) {
+            return component;
+        }
+        WildcardType wc = (WildcardType) component;
+        Type[] upper = wc.getUpperBounds();
+        return (wc.getLowerBounds().length > 0 || upper.length == 0) ? Object.class : toArrayComponent(upper[0]);
+    }
+
+    /**
+     * Bind the type variables of the raw type of {@code type}, and of its owner types, to the type arguments
+     * @param bindings {@link Map} to populate
+     * @param type {@link ParameterizedType} to bind the type arguments of
+     */
+    private static void putArguments(Map<TypeVariable<?>, Type> bindings, ParameterizedType type) {
+        TypeVariable<?>[] variables = ((Class<?>) type.getRawType()).getTypeParameters();
+        Type[] args = type.getActualTypeArguments();
+        if (variables.length != args.length) {
+            throw new IllegalArgumentException(type + " has " + args.length + " type arguments, but "
+                    + type.getRawType().getTypeName() + " declares " + variables.length);
+        }
+        for (int idx = 0; idx < variables.length; ++idx) {
+            bindings.put(variables[idx], args[idx]);
+        }
+        Type owner = type.getOwnerType();
+        if (owner instanceof ParameterizedType && ((ParameterizedType) owner).getRawType() instanceof Class) {
+            putArguments(bindings, (ParameterizedType) owner);
+        }
+    }
+
+    /** bindings of {@link TypeVariable}s, keyed by their declared variants */
+    private final TypeBindings bindings;
+
+    private TypeResolver(TypeBindings bindings) {
+        this.bindings = bindings;
+    }
+
+    /**
+     * Retrieve the bindings of this {@link TypeResolver}
+     * @return unmodifiable {@link Map} of {@link TypeVariable}s to the {@link Type}s that they are bound to
+     */
+    public Map<TypeVariable<?>, Type> getBindings() {
+        return bindings.toMap();
+    }
+
+    /**
+     * Retrieve the {@link TypeBindings} of this {@link TypeResolver}, which may be extended to resolve within nested scopes
+     * @return {@link TypeBindings} of this {@link TypeResolver}
+     */
+    public TypeBindings getTypeBindings() {
+        return bindings;
+    }
+
+    /**
+     * Resolve the specified {@link Type} by substituting its bound {@link TypeVariable}s.
+     * Array types whose component resolves to a {@link Class} are resolved to the array {@link Class}.
+     * Array types whose component resolves to a wildcard are resolved to an array of the wildcard's upper boundary,
+     * or to {@code Object[]} when the wildcard has a lower boundary.
+     * @param type {@link Type} to resolve
+     * @return {@code type} when it contains no bound {@link TypeVariable}s, otherwise the resolved {@link Type}
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     */
+    public Type resolve(Type type) {
+        Utils.notNull(type, "type");
+        return bindings.isEmpty() ? type : resolveType(type);
+    }
+
+    /**
+     * Resolve the specified {@link Type}s by substituting their bound {@link TypeVariable}s.
+     * @param types {@link Type}s to resolve
+     * @return {@code types} when they contain no bound {@link TypeVariable}s, otherwise a new array of the resolved {@link Type}s
+     * @throws IllegalArgumentException When {@code types} is {@code null} or contains a {@code null}
+     */
+    public Type[] resolve(Type... types) {
+        Utils.noNullContained(types, "types");
+        return bindings.isEmpty() ? types : resolveTypes(types);
+    }
+
+    @Override
+    public String toString() {
+        return "TypeResolver" + bindings.toMap();
+    }
+
+    private Type lookup(TypeVariable<?> variable) {
+        return bindings.lookup(variable);
+    }
+
+    /**
+     * Resolve the boundaries of a wildcard, flattening any boundaries that resolve to a wildcard
+     * @param bounds boundaries to resolve
+     * @param upper state of the boundaries being upper boundaries
+     * @return {@code bounds} when unchanged, otherwise the resolved boundaries
+     */
+    private Type[] resolveBounds(Type[] bounds, boolean upper) {
+        Type[] resolved = resolveTypes(bounds);
+        for (int idx = 0; idx < resolved.length; ++idx) {
+            if (resolved[idx] instanceof WildcardType) {
+                WildcardType wc = (WildcardType) resolved[idx];
+                Type[] flattened = upper ? wc.getUpperBounds() : wc.getLowerBounds();
+                Type[] merged = new Type[resolved.length - 1 + flattened.length];
+                System.arraycopy(resolved, 0, merged, 0, idx);
+                System.arraycopy(flattened, 0, merged, idx, flattened.length);
+                System.arraycopy(resolved, idx + 1, merged, idx + flattened.length, resolved.length - idx - 1);
+                resolved = merged;
+                idx += flattened.length - 1;
+            }
+        }
+        return resolved;
+    }
+
+    Type resolveType(Type type) {
+        if (type instanceof TypeVariable) {
+            Type bound = lookup((TypeVariable<?>) type);
+            return (bound == null) ? type : bound;
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType pt = (ParameterizedType) type;
+            Type owner = pt.getOwnerType();
+            Type newOwner = (owner == null) ? null : resolveType(owner);
+            Type[] args = pt.getActualTypeArguments();
+            Type[] newArgs = resolveTypes(args);
+            if (newOwner == owner && newArgs == args) {
+                return type;
+            }
+            return new ParameterizedTypeImpl(newOwner, pt.getRawType(), newArgs);
+        } else if (type instanceof GenericArrayType) {
+            Type component = ((GenericArrayType) type).getGenericComponentType();
+            Type newComponent = resolveType(component);
+            return (newComponent == component) ? type : Utils.newArrayType(toArrayComponent(newComponent));
+        } else if (type instanceof WildcardType) {
+            WildcardType wc = (WildcardType) type;
+            Type[] lower = wc.getLowerBounds();
+            Type[] upper = wc.getUpperBounds();
+            Type[] newLower = resolveBounds(lower, false);
+            Type[] newUpper = resolveBounds(upper, true);
+            if (newLower == lower && newUpper == upper) {
+                return type;
+            }
+            return (newLower.length == 0 && newUpper.length > 0) ? WildcardTypeImpl.forExtends(newUpper)
+                    : new WildcardTypeImpl(newLower, newUpper);
+        }
+        return type;
+    }
+
+    Type[] resolveTypes(Type[] types) {
+        Type[] ret = types;
+        for (int idx = 0; idx < types.length; ++idx) {
+            Type resolved = resolveType(types[idx]);
+            if (resolved != types[idx]) {
+                if (ret == types) {
+                    // copy into a Type[] as the input may be a narrower array such as TypeVariable[]
+                    ret = Arrays.copyOf(types, types.length, Type[].class);
+                }
+                ret[idx] = resolved;
+            }
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayDeque;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * <p>Cycle safe traversal of the boundaries of type variables.</p>
+ * <p>The boundaries of a type variable may refer to the type variable itself, as with {@code E extends Enum<E>}
+ * or {@code T extends Comparable<T>}, so walking into the boundaries of every type variable that is encountered does not terminate.
+ * The type variables whose boundaries are being traversed by the current thread are tracked on an explicit stack,
+ * and traversing into the boundaries of a type variable that is already on the stack is detected and handled by the caller,
+ * so that such recursive but legal declarations are traversed in bounded time and memory.</p>
+ */
+final class TypeTraversal {
+
+    /** pairs of boundary origins being compared by each thread, with the innermost on top */
+    private static final ThreadLocal<ArrayDeque<Object[]>> COMPARING = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /** type variables whose boundaries are being traversed by each thread, with the innermost on top */
+    private static final ThreadLocal<ArrayDeque<Type>> TRAVERSING = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Compare the boundaries of two type variables, unless the boundaries of the same origins are already being compared by the current thread.
+     * An origin is either the declared {@link TypeVariable}, when the boundaries are its declared boundaries, which is matched by equality,
+     * or the object that supplied the boundaries, which is matched by identity.
+     * A re-entered comparison is treated as equal, as any difference is decided by the comparison already in progress.
+     * @param first origin of the first boundaries
+     * @param second origin of the second boundaries
+     * @param comparison {@link BooleanSupplier} performing the comparison of the boundaries
+     * @return result of {@code comparison}, or {@code true} when the comparison of {@code first} and {@code second} is re-entered
+     */
+    static boolean compareBounds(Object first, Object second, BooleanSupplier comparison) {
+        ArrayDeque<Object[]> comparing = COMPARING.get();
+        for (Object[] pair : comparing) {
+            if (isSameOrigin(pair[0], first) && isSameOrigin(pair[1], second)) {
+                return true;
+            }
+        }
+        comparing.push(new Object[] { first, second });
+        try {
+            return comparison.getAsBoolean();
+        } finally {
+            comparing.pop();
+        }
+    }
+
+    private static boolean isSameOrigin(Object origin, Object other) {
+        return origin == other || (origin instanceof TypeVariable && other instanceof TypeVariable
+                && (origin.equals(other) || other.equals(origin)));
+    }
+
+    /**
+     * Determine if the boundaries of the type variable are being traversed by the current thread
+     * @param variable {@link TypeVariable} to check
+     * @return state of the boundaries of {@code variable} being traversed
+     */
+    static boolean isTraversing(Type variable) {
+        for (Type traversing : TRAVERSING.get()) {
+            if (traversing.equals(variable) || variable.equals(traversing)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Traverse the boundaries of the type variable, unless they are already being traversed by the current thread
+     * @param <R> type of result
+     * @param variable {@link TypeVariable} whose boundaries are traversed
+     * @param reentered {@link Supplier} of the result when the boundaries of {@code variable} are already being traversed
+     * @param traversal {@link Supplier} performing the traversal of the boundaries of {@code variable}
+     * @return result of {@code traversal}, or of {@code reentered} when the boundaries are already being traversed
+     */
+    static <R> R traverseBounds(Type variable, Supplier<? extends R> reentered, Supplier<? extends R> traversal) {
+        if (isTraversing(variable)) {
+            return reentered.get();
+        }
+        ArrayDeque<Type> traversing = TRAVERSING.get();
+        traversing.push(variable);
+        try {
+            return traversal.get();
+        } finally {
+            traversing.pop();
+        }
+    }
+
+    private TypeTraversal() {
+        // not instantiable
+    }
+}
@@ -20,7 +20,6 @@ import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.GenericDeclaration;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
-import java.util.Arrays;
 
 /**
  * An implementation of {@link TypeVariable} for use when necessary.
@@ -45,6 +44,9 @@ public class TypeVariableImpl<D extends GenericDeclaration> extends AnnotatedEle
     /** boundaries for the {@link TypeVariable} */
     protected final Type[] bounds;
 
+    /** erasure of this type, computed on first use by {@link Types#erase(Type)} */
+    Class<?> erasure;
+
     /**
      * Create a new {@link TypeVariableImpl} from an existing {@link TypeVariable}
      * @param type {@link TypeVariable} to copy parameters from
@@ -110,14 +112,19 @@ public class TypeVariableImpl<D extends GenericDeclaration> extends AnnotatedEle
             throw new IllegalArgumentException("name must not be null or empty");
         }
         this.name = name;
-        // verify that the generic actual declares a TV of the same name
-        TypeVariable<?>[] declTypeVars = Utils.notNull(genericDeclaration.getTypeParameters(), "genericDeclaration.getTypeParameters()");
-        Arrays.stream(declTypeVars).filter(this::equals).findAny()
-            .orElseThrow(()-> new IllegalArgumentException(this + " is not declared on " + genericDeclaration));
+        // verify that the generic actual declares a TV of the same name, through the shared index of declared TVs
+        TypeVariable<?> declared = TypeVariableIndex.getDeclared(genericDeclaration, name);
+        if (!equals(declared)) {
+            throw new IllegalArgumentException(this + " is not declared on " + genericDeclaration);
+        }
         // all type variables have bounds, though it might just be against Object
         this.annotatedBounds = Utils.notEmpty(annotatedBounds, "annotatedBounds");
-        // this is primarily used not for equals but for validity checks of the incoming data
-        AnnotatedTypeFactory.recreateAnnotatedTypesForEquals(annotatedBounds);
+        for (AnnotatedType bound : annotatedBounds) {
+            // bounds of known implementations are valid, others are validated by recreating them when they lack a usable equals
+            if (!AnnotatedTypeFactory.isKnownImplementation(bound)) {
+                AnnotatedTypeFactory.recreateAnnotatedTypeForEquals(bound);
+            }
+        }
         // since bounds are constant, pre-calculate the "plain" boundaries from the annotated variants
         this.bounds = new Type[annotatedBounds.length];
         for (int idx = 0; idx < bounds.length; ++idx) {
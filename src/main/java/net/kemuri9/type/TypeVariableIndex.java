@@ -0,0 +1,148 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>Index of the type variables declared by each generic declaration, keyed by their name,
+ * along with the boundaries of the declared type variables.</p>
+ * <p>{@link GenericDeclaration#getTypeParameters()} clones its type variables on every call, and may parse the generic signature
+ * of the declaration, so the declared type variables of classes and executables are indexed once and shared.
+ * Type variables of other {@link GenericDeclaration} implementations are not cached, as their type parameters may change.</p>
+ */
+final class TypeVariableIndex {
+
+    /** {@link Class} of the type variables of the JDK */
+    static final Class<?> CORE_TYPE_VARIABLE = Comparable.class.getTypeParameters()[0].getClass();
+
+    private static final ClassValue<Map<String, TypeVariable<?>>> CLASSES = new ClassValue<Map<String, TypeVariable<?>>>() {
+        @Override
+        protected Map<String, TypeVariable<?>> computeValue(Class<?> type) {
+            return index(type);
+        }
+    };
+
+    private static final ClassValue<TypeVariable<?>[]> CLASS_PARAMETERS = new ClassValue<TypeVariable<?>[]>() {
+        @Override
+        protected TypeVariable<?>[] computeValue(Class<?> type) {
+            return type.getTypeParameters();
+        }
+    };
+
+    /** type variables of inner classes and of their enclosing instance classes, outermost first */
+    private static final ClassValue<TypeVariable<?>[]> CHAIN_PARAMETERS = new ClassValue<TypeVariable<?>[]>() {
+        @Override
+        protected TypeVariable<?>[] computeValue(Class<?> type) {
+            TypeVariable<?>[] own = getTypeParameters(type);
+            Class<?> declaring = type.getDeclaringClass();
+            if (declaring == null || Modifier.isStatic(type.getModifiers())) {
+                return own;
+            }
+            TypeVariable<?>[] owners = CHAIN_PARAMETERS.get(declaring);
+            TypeVariable<?>[] chain = Arrays.copyOf(owners, owners.length + own.length);
+            System.arraycopy(own, 0, chain, owners.length, own.length);
+            return chain;
+        }
+    };
+
+    private static final BoundedCache<GenericDeclaration, Map<String, TypeVariable<?>>> EXECUTABLES = new BoundedCache<>(1024);
+
+    /** boundaries of the JDK type variables, which clone their boundaries on every call */
+    private static final BoundedCache<TypeVariable<?>, Type[]> BOUNDS = new BoundedCache<>(4096);
+
+    /**
+     * Retrieve the boundaries of the type variable, without copying them when possible. The result must not be modified.
+     * @param variable {@link TypeVariable} to retrieve the boundaries of
+     * @return boundaries of {@code variable}
+     */
+    static Type[] getBounds(TypeVariable<?> variable) {
+        if (variable.getClass() == TypeVariableImpl.class) {
+            return ((TypeVariableImpl<?>) variable).bounds;
+        } else if (variable instanceof CapturedTypeVariable) {
+            return ((CapturedTypeVariable) variable).bounds();
+        } else if (variable.getClass() == CORE_TYPE_VARIABLE) {
+            return BOUNDS.get(variable, TypeVariable::getBounds);
+        }
+        return variable.getBounds();
+    }
+
+    /**
+     * Retrieve the type variables that parameterize the {@link Class}, which for inner classes includes the type variables
+     * of their enclosing instance classes, outermost first, without copying them. The result must not be modified.
+     * @param type {@link Class} to retrieve the type variables of
+     * @return type variables parameterizing {@code type}, in the order of the owner chain
+     */
+    static TypeVariable<?>[] getChainParameters(Class<?> type) {
+        return CHAIN_PARAMETERS.get(type);
+    }
+
+    /**
+     * Retrieve the type variable declared by the generic declaration with the specified name
+     * @param declaration {@link GenericDeclaration} to retrieve the declared type variable of
+     * @param name name of the type variable
+     * @return declared {@link TypeVariable}, or {@code null} when {@code declaration} does not declare {@code name}
+     * @throws IllegalArgumentException When {@code declaration} does not provide its type parameters
+     */
+    static TypeVariable<?> getDeclared(GenericDeclaration declaration, String name) {
+        Map<String, TypeVariable<?>> declared;
+        if (declaration instanceof Class) {
+            declared = CLASSES.get((Class<?>) declaration);
+        } else if (declaration instanceof Executable) {
+            declared = EXECUTABLES.get(declaration, TypeVariableIndex::index);
+        } else {
+            declared = index(declaration);
+        }
+        return declared.get(name);
+    }
+
+    /**
+     * Retrieve the type variables declared by the {@link Class}, without copying them. The result must not be modified.
+     * @param type {@link Class} to retrieve the declared type variables of
+     * @return declared type variables of {@code type}
+     */
+    static TypeVariable<?>[] getTypeParameters(Class<?> type) {
+        return CLASS_PARAMETERS.get(type);
+    }
+
+    private static Map<String, TypeVariable<?>> index(GenericDeclaration declaration) {
+        TypeVariable<?>[] variables = Utils.notNull(declaration.getTypeParameters(), "genericDeclaration.getTypeParameters()");
+        if (variables.length == 0) {
+            return Collections.emptyMap();
+        } else if (variables.length == 1 && variables[0] != null) {
+            return Collections.singletonMap(variables[0].getName(), variables[0]);
+        }
+        Map<String, TypeVariable<?>> index = new HashMap<>(variables.length * 2);
+        for (TypeVariable<?> variable : variables) {
+            if (variable != null) {
+                index.putIfAbsent(variable.getName(), variable);
+            }
+        }
+        return index;
+    }
+
+    private TypeVariableIndex() {
+        // not instantiable
+    }
+}
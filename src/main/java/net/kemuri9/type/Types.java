@@ -0,0 +1,927 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type;
+
+import java.io.Serializable;
+import java.lang.reflect.Executable;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Operations over generic {@link Type}s, applicable to both the implementations of this library and those of the JDK.</p>
+ * <p>The operations that memoize their results do so in global caches of a bounded size, which hold strong references to
+ * the {@link Type}s, and so to their {@link Class}es, until the entries are evicted. In environments that unload class
+ * loaders, such as application servers and plugin hosts, a class loader may therefore be retained until enough other
+ * results are cached to evict its entries. Results involving the type variables produced by {@link #capture(Type)}
+ * are not memoized, as each capture is a distinct type variable.</p>
+ * @since 1.2
+ */
+public final class Types {
+
+    /** memoized results of {@link #isAssignable(Type, Type)}, as the same pairs are frequently checked */
+    private static final BoundedCache<TypePair, Boolean> ASSIGNABLE = new BoundedCache<>(4096);
+
+    /** memoized results of {@link #glb(Type...)} */
+    private static final BoundedCache<List<Type>, Type> GLB = new BoundedCache<>(1024);
+
+    /** memoized results of {@link #lub(Type...)} */
+    private static final BoundedCache<List<Type>, Type> LUB = new BoundedCache<>(1024);
+
+    /** memoized results of {@link #inferTypeArguments(Executable, Type...)}, per invocation signature */
+    private static final BoundedCache<Invocation, Map<TypeVariable<?>, Type>> INFERRED = new BoundedCache<>(1024);
+
+    /** signature of an invocation, for use as a cache key */
+    private static final class Invocation {
+        final Executable executable;
+        final Type[] argumentTypes;
+        private final int hash;
+
+        Invocation(Executable executable, Type[] argumentTypes) {
+            this.executable = executable;
+            this.argumentTypes = argumentTypes;
+            this.hash = 31 * executable.hashCode() + Arrays.hashCode(argumentTypes);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == this) {
+                return true;
+            } else if (!(other instanceof Invocation)) {
+                return false;
+            }
+            Invocation o = (Invocation) other;
+            return hash == o.hash && executable.equals(o.executable) && Arrays.equals(argumentTypes, o.argumentTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * <p>Apply capture conversion to the specified {@link Type}.</p>
+     * <p>Each {@link WildcardType} type argument of a {@link ParameterizedType} is replaced by a fresh synthetic
+     * {@link TypeVariable}, whose upper bounds are the wildcard's upper bound together with the bounds declared for the
+     * corresponding type parameter, and whose lower bound is the wildcard's lower bound.
+     * So capturing {@code List<? extends Number>} produces {@code List<capture#1 of ? extends Number>},
+     * where the captured variable is bounded by {@code Number}.
+     * Each captured {@link TypeVariable} is only equivalent to itself.
+     * Other {@link Type}s, and {@link ParameterizedType}s without wildcard type arguments, are returned as is.</p>
+     * @param type {@link Type} to capture
+     * @return captured {@link Type}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code type} does not have the number of type arguments that its raw type declares</li>
+     * </ul>
+     */
+    public static Type capture(Type type) {
+        Utils.notNull(type, "type");
+        if (!(type instanceof ParameterizedType)) {
+            return type;
+        }
+        ParameterizedType pt = (ParameterizedType) type;
+        Type[] args = pt.getActualTypeArguments();
+        if (!(pt.getRawType() instanceof Class) || !containsWildcard(args)) {
+            return type;
+        }
+        Class<?> raw = (Class<?>) pt.getRawType();
+        // copy into a Type[] as the arguments may be a narrower array such as WildcardType[]
+        args = Arrays.copyOf(args, args.length, Type[].class);
+        CapturedTypeVariable.Captures captures = new CapturedTypeVariable.Captures(args.length);
+        for (int idx = 0; idx < args.length; ++idx) {
+            if (args[idx] instanceof WildcardType) {
+                args[idx] = new CapturedTypeVariable(raw, (WildcardType) args[idx], captures, idx);
+            }
+        }
+        // the declared bounds may refer to any of the type parameters, so they are resolved against the captures
+        TypeResolver resolver = TypeResolver.forArguments(new ParameterizedTypeImpl(pt.getOwnerType(), raw, args));
+        TypeVariable<?>[] params = raw.getTypeParameters();
+        Type[] wildcards = pt.getActualTypeArguments();
+        for (int idx = 0; idx < args.length; ++idx) {
+            if (!(args[idx] instanceof CapturedTypeVariable)) {
+                continue;
+            }
+            WildcardType wildcard = (WildcardType) wildcards[idx];
+            Type[] declared = resolver.resolveTypes(TypeVariableIndex.getBounds(params[idx]));
+            Type[] lower = wildcard.getLowerBounds();
+            if (lower.length > 0) {
+                captures.lowerBounds[idx] = lower[0];
+                captures.bounds[idx] = declared;
+            } else {
+                Type[] upper = wildcard.getUpperBounds();
+                Type[] combined = Arrays.copyOf(upper, upper.length + declared.length, Type[].class);
+                System.arraycopy(declared, 0, combined, upper.length, declared.length);
+                captures.bounds[idx] = combined;
+            }
+        }
+        // the combined bounds of every capture are complete before any are reduced to their greatest lower bound,
+        // so that the reductions see the bounds of the captures that they refer to, in whichever order they are declared
+        for (int idx = 0; idx < args.length; ++idx) {
+            if (args[idx] instanceof CapturedTypeVariable && captures.lowerBounds[idx] == null) {
+                captures.bounds[idx] = TypeLattice.getMembers(TypeLattice.glb(captures.bounds[idx]));
+            }
+        }
+        // the captured type is created once the bounds are complete, so that its final fields publish them
+        return new ParameterizedTypeImpl(pt.getOwnerType(), raw, args);
+    }
+
+    /**
+     * <p>Retrieve the erasure of the specified {@link Type}.</p>
+     * <p>The erasure of a {@link ParameterizedType} is its raw type, of a {@link GenericArrayType} is the array of the
+     * erasure of its component type, and of a {@link TypeVariable} or {@link WildcardType} is the erasure of its
+     * leftmost upper bound. The erasure is cached on the instances of this library's types,
+     * so subsequent erasures of the same instance do not recompute it.</p>
+     * @param type {@link Type} to erase
+     * @return erased {@link Class} of {@code type}
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     * @throws UnsupportedOperationException When {@code type} contains an unrecognized {@link Type}
+     */
+    public static Class<?> erase(Type type) {
+        Utils.notNull(type, "type");
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        Class<?> erased = getErasure(type);
+        if (erased != null) {
+            return erased;
+        }
+        int dimensions = 0;
+        Type current = type;
+        while (erased == null) {
+            if (current instanceof Class) {
+                erased = (Class<?>) current;
+            } else if (current != null && (erased = getErasure(current)) != null) {
+                break;
+            } else if (current instanceof ParameterizedType) {
+                current = ((ParameterizedType) current).getRawType();
+            } else if (current instanceof GenericArrayType) {
+                ++dimensions;
+                current = ((GenericArrayType) current).getGenericComponentType();
+            } else if (current instanceof TypeVariable) {
+                current = getFirst(TypeVariableIndex.getBounds((TypeVariable<?>) current));
+            } else if (current instanceof WildcardType) {
+                current = getFirst(isOwnWildcard(current) ? ((WildcardTypeImpl) current).upperBounds
+                        : ((WildcardType) current).getUpperBounds());
+            } else {
+                throw new UnsupportedOperationException("Unsupported type " + current);
+            }
+        }
+        for (; dimensions > 0; --dimensions) {
+            erased = Utils.getArrayClass(erased);
+        }
+        setErasure(type, erased);
+        return erased;
+    }
+
+    /**
+     * <p>Retrieve the generic supertype of {@code type} whose erasure is {@code supertype}.</p>
+     * <p>The supertype is expressed in terms of the type arguments of {@code type}, so the {@code Iterable} supertype
+     * of {@code ArrayList<String>} is {@code Iterable<String>}. When {@code type} is a {@link Class}, the supertype is
+     * expressed in terms of its type variables, so the {@code Iterable} supertype of {@code ArrayList} is
+     * {@code Iterable<E>}. Supertypes that are inherited as raw types are their erasure.
+     * The supertypes of each {@link Class} are indexed once, so retrieving the supertype of a {@link Class} is a lookup.</p>
+     * @param type {@link Type} to retrieve the supertype of
+     * @param supertype {@link Class} of the supertype to retrieve
+     * @return generic supertype of {@code type}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code type} is {@code null}</li>
+     *   <li>When {@code supertype} is {@code null}</li>
+     *   <li>When {@code supertype} is not a supertype of {@code type}</li>
+     * </ul>
+     */
+    public static Type getSupertype(Type type, Class<?> supertype) {
+        Utils.notNull(type, "type");
+        Utils.notNull(supertype, "supertype");
+        Type found = findSupertype(type, supertype);
+        if (found == null) {
+            throw new IllegalArgumentException(supertype.getTypeName() + " is not a supertype of " + type.getTypeName());
+        }
+        return found;
+    }
+
+    /**
+     * <p>Compute the greatest lower bound of the specified {@link Type}s, which is the most specific type that is
+     * assignable to all of them.</p>
+     * <p>This is the intersection of the {@link Type}s, excluding those that another of the {@link Type}s is assignable to.
+     * So the greatest lower bound of {@code Number} and {@code Integer} is {@code Integer}, and of {@code Number} and
+     * {@code Runnable} is the intersection {@code Number & Runnable}. As there is no reflective representation of an
+     * intersection, an intersection is represented as a {@link WildcardTypeImpl} whose upper bounds are its members,
+     * ordered as with {@link #lub(Type...)}.
+     * Intersections returned by this method and {@link #lub(Type...)} may be specified, and are treated as their members,
+     * but wildcards are otherwise only type arguments, and so may not be specified.
+     * Primitive types are boxed. Results are memoized in a bounded cache.</p>
+     * @param types {@link Type}s to compute the greatest lower bound of
+     * @return greatest lower bound of {@code types}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code types} is {@code null} or empty</li>
+     *   <li>When {@code types} contains a {@code null}</li>
+     *   <li>When {@code types} contains a {@link WildcardType} that is not an intersection</li>
+     * </ul>
+     */
+    public static Type glb(Type... types) {
+        Type[] bounds = checkNoWildcards(Utils.checkedClone(Utils.notEmpty(types, "types"), "types"), "types");
+        return containsCapture(bounds) ? TypeLattice.glb(bounds)
+                : GLB.get(Arrays.asList(bounds), (key)-> TypeLattice.glb(key.toArray(Utils.EMPTY)));
+    }
+
+    /**
+     * <p>Infer the type arguments of a generic method or constructor from the types of the arguments of an invocation.</p>
+     * <p>Each argument type constrains the type parameters appearing in the corresponding formal parameter type,
+     * such as {@code Class<String>} for the formal {@code Class<T>} inferring {@code T} as {@code String}.
+     * Type parameters constrained to be a specific type are inferred as that type, otherwise as the {@link #lub(Type...)}
+     * of the types required to be assignable to it, otherwise as the {@link #glb(Type...)} of the types it is required
+     * to be assignable to. As a type argument can not be an intersection, the first member of an intersection that satisfies
+     * the declared bounds of the type parameter is used, where members are ordered with classes before interfaces and then
+     * by name, so the type argument of {@code <T> T pick(T, T)} inferred from {@code Integer} and {@code String} is
+     * {@code Serializable}. Type parameters that only appear within the declared bounds of other type parameters are inferred
+     * through those bounds. Variable arity invocations are supported, and primitive arguments infer their boxed type.
+     * Type parameters that are not constrained by the arguments are not inferred, and are absent from the result.
+     * Type parameters whose inferred type arguments do not satisfy their declared bounds, with the other inferred type arguments
+     * substituted, are also absent, as the invocation is not applicable. For example, {@code <T extends Comparable<T>> T max(T, T)}
+     * does not infer {@code T} from {@code Integer} and {@code Long}.</p>
+     * <p>Results are memoized per {@link Executable} and argument types, as invocation signatures are frequently repeated.
+     * The inferred type arguments may be substituted with {@link TypeResolver#of(Map)}.</p>
+     * @param executable {@link Executable} being invoked
+     * @param argumentTypes {@link Type}s of the arguments of the invocation
+     * @return unmodifiable {@link Map} of the type parameters of {@code executable} to their inferred type arguments
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code executable} is {@code null}</li>
+     *   <li>When {@code argumentTypes} is {@code null} or contains a {@code null}</li>
+     *   <li>When {@code argumentTypes} contains a {@link WildcardType}, which is not the type of any argument</li>
+     *   <li>When the number of {@code argumentTypes} is not applicable to {@code executable}</li>
+     * </ul>
+     */
+    public static Map<TypeVariable<?>, Type> inferTypeArguments(Executable executable, Type... argumentTypes) {
+        Utils.notNull(executable, "executable");
+        Type[] types = checkNoWildcards(Utils.checkedClone(argumentTypes, "argumentTypes"), "argumentTypes");
+        Invocation invocation = new Invocation(executable, types);
+        return containsCapture(types) ? computeInferred(invocation) : INFERRED.get(invocation, Types::computeInferred);
+    }
+
+    /**
+     * <p>Determine if a value of type {@code from} is assignable to a variable of type {@code to}, taking generics into account.</p>
+     * <p>This follows the subtyping rules of the Java Language Specification: type arguments must be contained by the
+     * corresponding type arguments of {@code to}, where wildcards contain the types within their boundaries,
+     * arrays are covariant in their component types, and type variables are assignable through their boundaries.
+     * Raw types are assignable to parameterizations of the same type, as through unchecked conversion.
+     * Primitive types are only assignable to themselves, see {@link #isConvertible(Type, Type)} for primitive conversions.</p>
+     * <p>Results are memoized in a bounded cache, so repeatedly checking the same pair of types is a lookup.</p>
+     * @param from {@link Type} to assign from
+     * @param to {@link Type} to assign to
+     * @return state of {@code from} being assignable to {@code to}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code from} is {@code null}</li>
+     *   <li>When {@code to} is {@code null}</li>
+     * </ul>
+     */
+    public static boolean isAssignable(Type from, Type to) {
+        Utils.notNull(from, "from");
+        Utils.notNull(to, "to");
+        if (from == to) {
+            return true;
+        }
+        TypePair pair = new TypePair(from, to);
+        return (containsCapture(from) || containsCapture(to)) ? computeAssignable(pair)
+                : ASSIGNABLE.get(pair, Types::computeAssignable);
+    }
+
+    /**
+     * <p>Determine if a value of type {@code from} is convertible to a variable of type {@code to} in a method invocation context,
+     * as when passing an argument of type {@code from} to a parameter of type {@code to}.</p>
+     * <p>This follows the loose invocation context of the Java Language Specification, extending
+     * {@link #isAssignable(Type, Type)} with the primitive conversions:</p>
+     * <ul>
+     *   <li>widening primitive conversions, so {@code int} is convertible to {@code long} and {@code double}</li>
+     *   <li>boxing followed by widening reference conversions, so {@code int} is convertible to {@code Integer},
+     *     {@code Number} and {@code Comparable<? super Integer>}, but not to {@code Long}</li>
+     *   <li>unboxing followed by widening primitive conversions, so {@code Integer}, or a type variable bounded by it,
+     *     is convertible to {@code int} and {@code long}</li>
+     * </ul>
+     * <p>{@code void} is only convertible to itself.</p>
+     * @param from {@link Type} to convert from
+     * @param to {@link Type} to convert to
+     * @return state of {@code from} being convertible to {@code to}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code from} is {@code null}</li>
+     *   <li>When {@code to} is {@code null}</li>
+     * </ul>
+     * @throws UnsupportedOperationException When {@code to} is primitive and {@code from} is an unrecognized {@link Type}
+     */
+    public static boolean isConvertible(Type from, Type to) {
+        if (isAssignable(from, to)) {
+            return true;
+        } else if (from == void.class || to == void.class) {
+            return false;
+        } else if (isPrimitive(from)) {
+            Class<?> fromClass = (Class<?>) from;
+            return isPrimitive(to) ? Utils.isPrimitiveWidening(fromClass, (Class<?>) to)
+                    : isAssignable(Utils.box(fromClass), to);
+        } else if (isPrimitive(to)) {
+            return Utils.isPrimitiveWidening(Utils.unbox(erase(from)), (Class<?>) to);
+        }
+        return false;
+    }
+
+    /**
+     * <p>Determine if the specified {@link Type} is reifiable, which is when its type information is fully available at runtime,
+     * so that it may be used to create arrays and to check {@code instanceof}.</p>
+     * <p>This follows the Java Language Specification: {@link Class}es, including primitive and raw types, are reifiable,
+     * as are {@link ParameterizedType}s whose type arguments are all unbounded wildcards and whose owner type is reifiable,
+     * and {@link GenericArrayType}s whose component type is reifiable. {@link TypeVariable}s and wildcards are not reifiable.</p>
+     * <p>The verdict is cached on {@link ParameterizedTypeImpl} and {@link GenericArrayTypeImpl} instances,
+     * so repeatedly checking the same instance is a field read.</p>
+     * @param type {@link Type} to check
+     * @return state of {@code type} being reifiable
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     * @throws UnsupportedOperationException When {@code type} contains an unrecognized {@link Type}
+     * @see #toClassIfReifiable(Type)
+     */
+    public static boolean isReifiable(Type type) {
+        return reifiable(Utils.notNull(type, "type"));
+    }
+
+    /**
+     * <p>Compute the least upper bound of the specified {@link Type}s, which is the most specific type that all of them
+     * are assignable to.</p>
+     * <p>This follows the Java Language Specification: the minimal erased supertypes common to all of the {@link Type}s
+     * are each parameterized by the least type arguments containing the type arguments of each {@link Type}'s
+     * parameterization. So the least upper bound of {@code List<Integer>} and {@code List<Long>} is
+     * {@code List<? extends Number & Comparable<?>>}, together with the other interfaces that both implement on the runtime,
+     * such as {@code Constable} and {@code ConstantDesc} since Java 12. As the type arguments are themselves computed by least upper
+     * bounds, which may be infinite, nested computations are limited in depth, beyond which type arguments are
+     * the full wildcard. As there is no reflective representation of an intersection, an intersection is represented as
+     * a {@link WildcardTypeImpl} whose upper bounds are its members, with classes before interfaces and then ordered by name.
+     * Arrays are ordered by their innermost component types, so {@code Number[]} precedes {@code Comparable<?>[]}.
+     * Intersections returned by this method and {@link #glb(Type...)} may be specified, and are treated as their members,
+     * but wildcards are otherwise only type arguments, and so may not be specified.
+     * Primitive types are boxed. Results are memoized in a bounded cache.</p>
+     * @param types {@link Type}s to compute the least upper bound of
+     * @return least upper bound of {@code types}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code types} is {@code null} or empty</li>
+     *   <li>When {@code types} contains a {@code null}</li>
+     *   <li>When {@code types} contains a {@link WildcardType} that is not an intersection</li>
+     * </ul>
+     * @throws UnsupportedOperationException When {@code types} contains an unrecognized {@link Type}
+     */
+    public static Type lub(Type... types) {
+        Type[] bounds = checkNoWildcards(Utils.checkedClone(Utils.notEmpty(types, "types"), "types"), "types");
+        return containsCapture(bounds) ? TypeLattice.lub(bounds, 0)
+                : LUB.get(Arrays.asList(bounds), (key)-> TypeLattice.lub(key.toArray(Utils.EMPTY), 0));
+    }
+
+    /**
+     * <p>Create the array {@link Type} of the component {@link Type} in its canonical representation.</p>
+     * <p>Arrays whose components are {@link Class}es are the array {@link Class}, all other arrays are {@link GenericArrayTypeImpl}s.
+     * Array levels of {@code componentType} are themselves put into their canonical representation, so a {@link GenericArrayType}
+     * of {@code String} as the component results in {@code String[][].class}. Other levels of {@code componentType}
+     * are used as-is, see {@link #normalize(Type)} to normalize them as well.
+     * Array {@link Class}es are cached for each component {@link Class}.</p>
+     * @param componentType {@link Type} of the array's components
+     * @return canonical array {@link Type} of {@code componentType}
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code componentType} is {@code null}</li>
+     *   <li>When {@code componentType} is {@code void}</li>
+     *   <li>When {@code componentType} is not a {@link Class}, a {@link GenericArrayType}, a {@link ParameterizedType},
+     *     or a {@link TypeVariable}</li>
+     * </ul>
+     */
+    public static Type newArrayType(Type componentType) {
+        Utils.notNull(componentType, "componentType");
+        if (componentType == void.class) {
+            throw new IllegalArgumentException("void can not be the component of an array");
+        }
+        return Utils.newArrayType((componentType instanceof GenericArrayType)
+                ? canonicalizeArray((GenericArrayType) componentType) : componentType);
+    }
+
+    /**
+     * Create the multi-dimensional array {@link Type} of the component {@link Type} in its canonical representation
+     * @param componentType {@link Type} of the innermost array's components
+     * @param dimensions number of array dimensions
+     * @return canonical array {@link Type} of {@code componentType} with {@code dimensions} dimensions
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code componentType} is invalid, as with {@link #newArrayType(Type)}</li>
+     *   <li>When {@code dimensions} is less than 1</li>
+     * </ul>
+     * @see #newArrayType(Type)
+     */
+    public static Type newArrayType(Type componentType, int dimensions) {
+        if (dimensions < 1) {
+            throw new IllegalArgumentException("dimensions must be at least 1, was " + dimensions);
+        }
+        Type array = newArrayType(componentType);
+        for (int dim = 1; dim < dimensions; ++dim) {
+            array = Utils.newArrayType(array);
+        }
+        return array;
+    }
+
+    /**
+     * <p>Create the {@link ParameterizedType} of the raw {@link Class} with the specified type arguments, including the
+     * parameterization of its owner chain.</p>
+     * <p>Inner classes of generic classes are parameterized by the type arguments of their enclosing instance classes
+     * as well as their own, so {@code type} is parameterized by the type arguments of its outermost enclosing instance class
+     * first, down to its own type arguments last. For example, {@code newParameterizedType(Outer.Inner.class, String.class, Integer.class)}
+     * creates {@code Outer<String>.Inner<Integer>}. Static nested classes are owned by their declaring {@link Class},
+     * as with the {@link ParameterizedType}s of the JDK.</p>
+     * @param raw {@link Class} to parameterize
+     * @param arguments type arguments of the owner chain of {@code raw}, outermost first
+     * @return {@link ParameterizedType} of {@code raw}, or {@code raw} when neither it nor its owner chain is generic
+     * @throws IllegalArgumentException <ul>
+     *   <li>When {@code raw} is {@code null}</li>
+     *   <li>When {@code arguments} is {@code null} or contains a {@code null}</li>
+     *   <li>When {@code arguments} does not have as many type arguments as {@code raw} and its owner chain declare</li>
+     * </ul>
+     */
+    public static Type newParameterizedType(Class<?> raw, Type... arguments) {
+        Utils.notNull(raw, "raw");
+        Utils.noNullContained(arguments, "arguments");
+        int declared = TypeVariableIndex.getChainParameters(raw).length;
+        if (declared != arguments.length) {
+            throw new IllegalArgumentException(raw.getTypeName() + " and its owners declare " + declared
+                    + " type parameters, but " + arguments.length + " type arguments were specified");
+        }
+        return SupertypeIndex.parameterize(raw, arguments, arguments.length);
+    }
+
+    /**
+     * <p>Normalize the specified {@link Type} into a canonical form, so that equivalent types are equal.</p>
+     * <p>The normalization rules are:</p>
+     * <ul>
+     *   <li>Wildcards without a lower bound that extend only {@link Object} are {@link WildcardTypeImpl#FULL_WILDCARD}</li>
+     *   <li>{@link GenericArrayType}s of {@link Class}es are the array {@link Class}</li>
+     *   <li>{@link TypeVariable}s are the {@link TypeVariable} as declared by their {@link java.lang.reflect.GenericDeclaration}</li>
+     *   <li>Composed types are normalized throughout</li>
+     * </ul>
+     * <p>Only the parts that change are recreated, so an already normalized {@link Type} is returned as is.</p>
+     * @param type {@link Type} to normalize
+     * @return normalized {@link Type}
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     * @throws UnsupportedOperationException When {@code type} contains an unrecognized {@link Type}
+     */
+    public static Type normalize(Type type) {
+        return normalizeType(Utils.notNull(type, "type"));
+    }
+
+    /**
+     * Retrieve the {@link Class} that the specified {@link Type} is reified as, when it is reifiable.
+     * For example, {@code List<?>} is reified as {@code List.class}, and {@code List<?>[]} as {@code List[].class}.
+     * @param type {@link Type} to retrieve the reified {@link Class} of
+     * @return erasure of {@code type} when it is reifiable, otherwise {@code null}
+     * @throws IllegalArgumentException When {@code type} is {@code null}
+     * @throws UnsupportedOperationException When {@code type} contains an unrecognized {@link Type}
+     * @see #isReifiable(Type)
+     */
+    public static Class<?> toClassIfReifiable(Type type) {
+        return isReifiable(type) ? erase(type) : null;
+    }
+
+    /**
+     * Determine if {@code from} is assignable to {@code to}, without caching
+     * @param from {@link Type} to assign from
+     * @param to {@link Type} to assign to
+     * @return state of {@code from} being assignable to {@code to}
+     */
+    static boolean assignable(Type from, Type to) {
+        if (isSame(from, to)) {
+            return true;
+        } else if (to instanceof Class) {
+            Class<?> toClass = (Class<?>) to;
+            if (toClass.isPrimitive() || isPrimitive(from)) {
+                return false;
+            }
+            return findSupertype(from, toClass) != null;
+        } else if (to instanceof ParameterizedType) {
+            ParameterizedType toPt = (ParameterizedType) to;
+            if (isPrimitive(from) || !(toPt.getRawType() instanceof Class)) {
+                return false;
+            }
+            Type supertype = findSupertype(from, (Class<?>) toPt.getRawType());
+            if (supertype == null) {
+                return false;
+            } else if (from instanceof Class && isRaw((Class<?>) from)) {
+                // raw types are assignable through unchecked conversion
+                return true;
+            }
+            // as are supertypes inherited as raw types
+            return !(supertype instanceof ParameterizedType) || containsArguments((ParameterizedType) supertype, toPt);
+        } else if (to instanceof GenericArrayType) {
+            Type fromComponent = getComponentType(from);
+            if (fromComponent != null) {
+                return !isPrimitive(fromComponent)
+                        && assignable(fromComponent, ((GenericArrayType) to).getGenericComponentType());
+            }
+        } else if (to instanceof WildcardType) {
+            return contains(from, to);
+        } else if (to instanceof CapturedTypeVariable) {
+            // anything assignable to the lower bound of a capture is assignable to the capture
+            Type lower = ((CapturedTypeVariable) to).getLowerBound();
+            if (lower != null && assignable(from, lower)) {
+                return true;
+            }
+        }
+        // otherwise only assignable through the boundaries of from
+        if (from instanceof TypeVariable) {
+            return anyAssignable(TypeVariableIndex.getBounds((TypeVariable<?>) from), to);
+        } else if (from instanceof WildcardType) {
+            return anyAssignable(((WildcardType) from).getUpperBounds(), to);
+        }
+        return false;
+    }
+
+    /**
+     * Find the generic supertype of {@code type} whose erasure is {@code supertype}
+     * @param type {@link Type} to find the supertype of
+     * @param supertype {@link Class} of the supertype to find
+     * @return generic supertype of {@code type}, or {@code null} when {@code supertype} is not a supertype of {@code type}
+     */
+    static Type findSupertype(Type type, Class<?> supertype) {
+        if (type instanceof Class) {
+            Class<?> cls = (Class<?>) type;
+            if (cls.isArray()) {
+                return findArraySupertype(type, cls.getComponentType(), supertype);
+            }
+            return SupertypeIndex.get(cls, supertype);
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType pt = (ParameterizedType) type;
+            if (!(pt.getRawType() instanceof Class)) {
+                return null;
+            }
+            Type generic = SupertypeIndex.get((Class<?>) pt.getRawType(), supertype);
+            return (generic == null) ? null : TypeResolver.forArguments(pt).resolveType(generic);
+        } else if (type instanceof GenericArrayType) {
+            return findArraySupertype(type, ((GenericArrayType) type).getGenericComponentType(), supertype);
+        } else if (type instanceof TypeVariable) {
+            return findSupertype(TypeVariableIndex.getBounds((TypeVariable<?>) type), supertype);
+        } else if (type instanceof WildcardType) {
+            return findSupertype(((WildcardType) type).getUpperBounds(), supertype);
+        }
+        return null;
+    }
+
+    /**
+     * Determine if the {@link Class} used as a {@link Type} is a raw type
+     * @param type {@link Class} to check
+     * @return state of {@code type} being a raw type
+     */
+    static boolean isRaw(Class<?> type) {
+        // generic classes and inner classes of generic classes are indexed by their parameterized generic form
+        return SupertypeIndex.get(type, type) instanceof ParameterizedType;
+    }
+
+    private static boolean anyAssignable(Type[] froms, Type to) {
+        for (Type from : froms) {
+            if (assignable(from, to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Type canonicalizeArray(GenericArrayType type) {
+        Type component = type.getGenericComponentType();
+        Type canonical = (component instanceof GenericArrayType) ? canonicalizeArray((GenericArrayType) component) : component;
+        if (canonical instanceof Class) {
+            return Utils.getArrayClass((Class<?>) canonical);
+        }
+        return (canonical == component && type instanceof GenericArrayTypeImpl) ? type : new GenericArrayTypeImpl(canonical);
+    }
+
+    /**
+     * Validate that the {@link Type}s are not wildcards, other than intersections
+     * @param types {@link Type}s to validate
+     * @param name name of the parameter being validated
+     * @return validated {@link Type}s
+     * @throws IllegalArgumentException When {@code types} contains a {@link WildcardType} that is not an {@link IntersectionType}
+     */
+    private static Type[] checkNoWildcards(Type[] types, String name) {
+        for (Type type : types) {
+            if (type instanceof WildcardType && !(type instanceof IntersectionType)) {
+                throw new IllegalArgumentException(name + " must not contain the wildcard " + type.getTypeName());
+            }
+        }
+        return types;
+    }
+
+    private static Boolean computeAssignable(TypePair pair) {
+        return assignable(pair.first, pair.second);
+    }
+
+    private static Map<TypeVariable<?>, Type> computeInferred(Invocation invocation) {
+        return TypeInference.infer(invocation.executable, invocation.argumentTypes);
+    }
+
+    /**
+     * Determine if the type argument {@code arg} is contained by the type argument {@code toArg}
+     * @param arg type argument to check being contained
+     * @param toArg type argument to check containing
+     * @return state of {@code arg} being contained by {@code toArg}
+     */
+    private static boolean contains(Type arg, Type toArg) {
+        if (!(toArg instanceof WildcardType)) {
+            return isSame(arg, toArg);
+        }
+        WildcardType wildcard = (WildcardType) toArg;
+        Type[] argUpper = (arg instanceof WildcardType) ? ((WildcardType) arg).getUpperBounds() : new Type[] { arg };
+        for (Type upper : wildcard.getUpperBounds()) {
+            if (!anyAssignable(argUpper, upper)) {
+                return false;
+            }
+        }
+        Type[] toLower = wildcard.getLowerBounds();
+        if (toLower.length == 0) {
+            return true;
+        }
+        Type[] argLower = (arg instanceof WildcardType) ? ((WildcardType) arg).getLowerBounds() : new Type[] { arg };
+        for (Type lower : toLower) {
+            boolean found = false;
+            for (int idx = 0; idx < argLower.length && !found; ++idx) {
+                found = assignable(lower, argLower[idx]);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsArguments(ParameterizedType type, ParameterizedType to) {
+        Type[] args = type.getActualTypeArguments();
+        Type[] toArgs = to.getActualTypeArguments();
+        if (args.length != toArgs.length) {
+            return false;
+        }
+        for (int idx = 0; idx < args.length; ++idx) {
+            if (!contains(args[idx], toArgs[idx])) {
+                return false;
+            }
+        }
+        Type owner = type.getOwnerType();
+        Type toOwner = to.getOwnerType();
+        if (owner instanceof ParameterizedType && toOwner instanceof ParameterizedType) {
+            return containsArguments((ParameterizedType) owner, (ParameterizedType) toOwner);
+        }
+        return true;
+    }
+
+    /**
+     * Determine if the {@link Type} contains a type variable produced by {@link #capture(Type)}.
+     * Such types are not memoized, as every capture is distinct and would only displace reusable entries.
+     * The boundaries of type variables are not examined.
+     * @param type {@link Type} to check
+     * @return state of {@code type} containing a {@link CapturedTypeVariable}
+     */
+    private static boolean containsCapture(Type type) {
+        if (type instanceof CapturedTypeVariable) {
+            return true;
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType pt = (ParameterizedType) type;
+            Type owner = pt.getOwnerType();
+            return (owner != null && containsCapture(owner)) || containsCapture((pt.getClass() == ParameterizedTypeImpl.class)
+                    ? ((ParameterizedTypeImpl) pt).actualTypeArguments : pt.getActualTypeArguments());
+        } else if (type instanceof GenericArrayType) {
+            return containsCapture(((GenericArrayType) type).getGenericComponentType());
+        } else if (isOwnWildcard(type)) {
+            return containsCapture(((WildcardTypeImpl) type).upperBounds) || containsCapture(((WildcardTypeImpl) type).lowerBounds);
+        } else if (type instanceof WildcardType) {
+            return containsCapture(((WildcardType) type).getUpperBounds()) || containsCapture(((WildcardType) type).getLowerBounds());
+        }
+        return false;
+    }
+
+    private static boolean containsCapture(Type[] types) {
+        for (Type type : types) {
+            if (containsCapture(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsWildcard(Type[] types) {
+        for (Type type : types) {
+            if (type instanceof WildcardType) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean computeReifiable(Type type) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType pt = (ParameterizedType) type;
+            Type owner = pt.getOwnerType();
+            if (owner != null && !reifiable(owner)) {
+                return false;
+            }
+            Type[] args = (pt.getClass() == ParameterizedTypeImpl.class) ? ((ParameterizedTypeImpl) pt).actualTypeArguments
+                    : pt.getActualTypeArguments();
+            for (Type arg : args) {
+                if (!isUnboundedWildcard(arg)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (type instanceof GenericArrayType) {
+            return reifiable(((GenericArrayType) type).getGenericComponentType());
+        } else if (type instanceof TypeVariable || type instanceof WildcardType) {
+            return false;
+        }
+        throw new UnsupportedOperationException("Unsupported type " + type);
+    }
+
+    private static Type findArraySupertype(Type type, Type componentType, Class<?> supertype) {
+        if (supertype == Object.class || supertype == Cloneable.class || supertype == Serializable.class) {
+            return supertype;
+        } else if (!supertype.isArray()) {
+            return null;
+        }
+        Class<?> superComponent = supertype.getComponentType();
+        if (componentType instanceof Class && ((Class<?>) componentType).isPrimitive()) {
+            // primitive arrays are only subtypes of themselves
+            return (componentType == superComponent) ? type : null;
+        } else if (superComponent.isPrimitive()) {
+            return null;
+        }
+        Type found = findSupertype(componentType, superComponent);
+        if (found == null) {
+            return null;
+        }
+        return Utils.newArrayType(found);
+    }
+
+    private static Type findSupertype(Type[] bounds, Class<?> supertype) {
+        for (Type bound : bounds) {
+            Type found = findSupertype(bound, supertype);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static Type getComponentType(Type type) {
+        if (type instanceof Class) {
+            return ((Class<?>) type).getComponentType();
+        } else if (type instanceof GenericArrayType) {
+            return ((GenericArrayType) type).getGenericComponentType();
+        }
+        return null;
+    }
+
+    private static Class<?> getErasure(Type type) {
+        // subclasses of the public implementations may override the accessors, so only the exact classes are cached
+        Class<?> typeClass = type.getClass();
+        if (typeClass == ParameterizedTypeImpl.class) {
+            return ((ParameterizedTypeImpl) type).erasure;
+        } else if (typeClass == GenericArrayTypeImpl.class) {
+            return ((GenericArrayTypeImpl) type).erasure;
+        } else if (typeClass == TypeVariableImpl.class) {
+            return ((TypeVariableImpl<?>) type).erasure;
+        } else if (isOwnWildcard(type)) {
+            return ((WildcardTypeImpl) type).erasure;
+        }
+        return null;
+    }
+
+    private static Type getFirst(Type[] bounds) {
+        // variables and wildcards without explicit upper bounds are bounded by Object
+        return (bounds.length == 0) ? Object.class : bounds[0];
+    }
+
+    private static boolean isOwnWildcard(Type type) {
+        return type.getClass() == WildcardTypeImpl.class || type instanceof IntersectionType;
+    }
+
+    private static boolean isPrimitive(Type type) {
+        return type instanceof Class && ((Class<?>) type).isPrimitive();
+    }
+
+    private static boolean isSame(Type type1, Type type2) {
+        // the JDK type variables are only equal to themselves, so check in both directions
+        return type1 == type2 || type1.equals(type2) || type2.equals(type1);
+    }
+
+    private static boolean isUnboundedWildcard(Type type) {
+        if (!(type instanceof WildcardType)) {
+            return false;
+        }
+        WildcardType wildcard = (WildcardType) type;
+        boolean own = isOwnWildcard(wildcard);
+        Type[] upper = own ? ((WildcardTypeImpl) wildcard).upperBounds : wildcard.getUpperBounds();
+        Type[] lower = own ? ((WildcardTypeImpl) wildcard).lowerBounds : wildcard.getLowerBounds();
+        return lower.length == 0 && (upper.length == 0 || (upper.length == 1 && upper[0] == Object.class));
+    }
+
+    private static Type normalizeType(Type type) {
+        if (type instanceof Class || type instanceof CapturedTypeVariable) {
+            return type;
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType pt = (ParameterizedType) type;
+            Type owner = pt.getOwnerType();
+            Type newOwner = (owner == null) ? null : normalizeType(owner);
+            Type[] args = pt.getActualTypeArguments();
+            Type[] newArgs = normalizeTypes(args);
+            if (newOwner == owner && newArgs == args) {
+                return type;
+            }
+            return new ParameterizedTypeImpl(newOwner, pt.getRawType(), newArgs);
+        } else if (type instanceof GenericArrayType) {
+            Type component = ((GenericArrayType) type).getGenericComponentType();
+            Type newComponent = normalizeType(component);
+            if (newComponent instanceof Class) {
+                return Utils.getArrayClass((Class<?>) newComponent);
+            }
+            return (newComponent == component) ? type : new GenericArrayTypeImpl(newComponent);
+        } else if (type instanceof TypeVariable) {
+            return TypeResolver.getDeclared((TypeVariable<?>) type);
+        } else if (type instanceof WildcardType) {
+            WildcardType wildcard = (WildcardType) type;
+            Type[] lower = wildcard.getLowerBounds();
+            Type[] upper = wildcard.getUpperBounds();
+            if (lower.length == 0 && (upper.length == 0 || (upper.length == 1 && upper[0] == Object.class))) {
+                return WildcardTypeImpl.FULL_WILDCARD;
+            }
+            Type[] newLower = normalizeTypes(lower);
+            Type[] newUpper = normalizeTypes(upper);
+            if (newLower == lower && newUpper == upper) {
+                return type;
+            }
+            return new WildcardTypeImpl(newLower, newUpper);
+        }
+        throw new UnsupportedOperationException("Unsupported type " + type);
+    }
+
+    private static Type[] normalizeTypes(Type[] types) {
+        Type[] ret = types;
+        for (int idx = 0; idx < types.length; ++idx) {
+            Type normalized = normalizeType(types[idx]);
+            if (normalized != types[idx]) {
+                if (ret == types) {
+                    ret = Arrays.copyOf(types, types.length, Type[].class);
+                }
+                ret[idx] = normalized;
+            }
+        }
+        return ret;
+    }
+
+    private static boolean reifiable(Type type) {
+        if (type instanceof Class) {
+            return true;
+        }
+        Class<?> typeClass = type.getClass();
+        Boolean cached = (typeClass == ParameterizedTypeImpl.class) ? ((ParameterizedTypeImpl) type).reifiable
+                : (typeClass == GenericArrayTypeImpl.class) ? ((GenericArrayTypeImpl) type).reifiable : null;
+        if (cached != null) {
+            return cached;
+        }
+        boolean reifiable = computeReifiable(type);
+        // racing writes store the same canonical Boolean, so no synchronization is needed
+        if (typeClass == ParameterizedTypeImpl.class) {
+            ((ParameterizedTypeImpl) type).reifiable = Boolean.valueOf(reifiable);
+        } else if (typeClass == GenericArrayTypeImpl.class) {
+            ((GenericArrayTypeImpl) type).reifiable = Boolean.valueOf(reifiable);
+        }
+        return reifiable;
+    }
+
+    private static void setErasure(Type type, Class<?> erasure) {
+        // racing writes store the same value, and a Class is safely published, so no synchronization is needed
+        Class<?> typeClass = type.getClass();
+        if (typeClass == ParameterizedTypeImpl.class) {
+            ((ParameterizedTypeImpl) type).erasure = erasure;
+        } else if (typeClass == GenericArrayTypeImpl.class) {
+            ((GenericArrayTypeImpl) type).erasure = erasure;
+        } else if (typeClass == TypeVariableImpl.class) {
+            ((TypeVariableImpl<?>) type).erasure = erasure;
+        } else if (isOwnWildcard(type)) {
+            ((WildcardTypeImpl) type).erasure = erasure;
+        }
+    }
+
+    private Types() {
+        // not instantiable
+    }
+}
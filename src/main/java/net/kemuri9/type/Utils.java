@@ -29,6 +29,52 @@ class Utils {
 
     static final Type[] EMPTY = new Type[0];
 
+    /** array {@link Class}es of each component {@link Class}, to avoid reflectively creating an array to find them */
+    private static final ClassValue<Class<?>> ARRAY_CLASSES = new ClassValue<Class<?>>() {
+        @Override
+        protected Class<?> computeValue(Class<?> componentType) {
+            return Array.newInstance(componentType, 0).getClass();
+        }
+    };
+
+    /** primitive {@link Class}es, in the order of {@link #BOXES} */
+    private static final Class<?>[] PRIMITIVES = { boolean.class, byte.class, char.class, double.class, float.class,
+        int.class, long.class, short.class, void.class };
+
+    /** boxed {@link Class}es of {@link #PRIMITIVES} */
+    private static final Class<?>[] BOXES = { Boolean.class, Byte.class, Character.class, Double.class, Float.class,
+        Integer.class, Long.class, Short.class, Void.class };
+
+    /** positions of the {@link #PRIMITIVES} and {@link #BOXES} in their tables, or {@code -1} for any other {@link Class} */
+    private static final ClassValue<Integer> INDICES = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            Class<?>[] table = type.isPrimitive() ? PRIMITIVES : BOXES;
+            for (int idx = 0; idx < table.length; ++idx) {
+                if (table[idx] == type) {
+                    return Integer.valueOf(idx);
+                }
+            }
+            return Integer.valueOf(-1);
+        }
+    };
+
+    /**
+     * identity and widening primitive conversions of {@link #PRIMITIVES}, indexed by their position in {@link #PRIMITIVES},
+     * as bit masks of the positions in {@link #PRIMITIVES} that they convert to
+     */
+    private static final int[] WIDENING = {
+        0b000000001, // boolean
+        0b011111010, // byte: byte, double, float, int, long, short
+        0b001111100, // char: char, double, float, int, long
+        0b000001000, // double
+        0b000011000, // float: double, float
+        0b001111000, // int: double, float, int, long
+        0b001011000, // long: double, float, long
+        0b011111000, // short: double, float, int, long, short
+        0b100000000, // void
+    };
+
     /**
      * Utility function for converting an annotation array to string
      * @param annotations annotations to toString
@@ -60,6 +106,16 @@ class Utils {
         return sj.toString();
     }
 
+    /**
+     * Retrieve the boxed {@link Class} of a primitive {@link Class}
+     * @param type {@link Class} to box
+     * @return boxed {@link Class} when {@code type} is primitive, otherwise {@code type}
+     */
+    static Class<?> box(Class<?> type) {
+        int idx = primitiveIndex(type);
+        return (idx < 0) ? type : BOXES[idx];
+    }
+
     @SuppressWarnings("unchecked")
     static <T> T cast(Object value) {
         return (T) value;
@@ -170,6 +226,33 @@ class Utils {
         return Utils.noNullContained(notNull(type, "type").getAnnotations(), "type.getAnnotations()");
     }
 
+    /**
+     * Get the array {@link Class} with the specified component type
+     * @param componentType {@link Class} of the array's components
+     * @return array {@link Class} of {@code componentType}
+     */
+    static Class<?> getArrayClass(Class<?> componentType) {
+        return ARRAY_CLASSES.get(componentType);
+    }
+
+    /**
+     * Determine the number of inner (non-static) member levels of the type, which is the number of
+     * {@link TypePath.Kind#INNER_TYPE} steps from its outermost annotatable type to it
+     * @param type {@link Type} to determine the nesting depth of
+     * @return number of inner member levels of {@code type}
+     */
+    static int getInnerDepth(Type type) {
+        Type raw = (type instanceof ParameterizedType) ? ((ParameterizedType) type).getRawType() : type;
+        int depth = 0;
+        if (raw instanceof Class) {
+            for (Class<?> cls = (Class<?>) raw; cls.isMemberClass() && !Modifier.isStatic(cls.getModifiers());
+                    cls = cls.getDeclaringClass()) {
+                ++depth;
+            }
+        }
+        return depth;
+    }
+
     static Type getOwnerType(Type type) {
         if (type instanceof Class) {
             return ((Class<?>) type).getEnclosingClass();
@@ -265,6 +348,29 @@ class Utils {
         }
     }
 
+    /**
+     * Determine if the primitive {@link Class} converts to the other primitive {@link Class} through an identity
+     * or widening primitive conversion
+     * @param from primitive {@link Class} to convert from
+     * @param to primitive {@link Class} to convert to
+     * @return state of {@code from} converting to {@code to}, {@code false} when either is not primitive
+     */
+    static boolean isPrimitiveWidening(Class<?> from, Class<?> to) {
+        int fromIdx = primitiveIndex(from);
+        int toIdx = primitiveIndex(to);
+        return fromIdx >= 0 && toIdx >= 0 && (WIDENING[fromIdx] & (1 << toIdx)) != 0;
+    }
+
+    /**
+     * Create the array {@link Type} of the component {@link Type}, which is the array {@link Class} when the component is a {@link Class}
+     * @param componentType {@link Type} of the array's components
+     * @return array {@link Class} when {@code componentType} is a {@link Class}, otherwise the {@link GenericArrayTypeImpl}
+     */
+    static Type newArrayType(Type componentType) {
+        return (componentType instanceof Class) ? getArrayClass((Class<?>) componentType)
+                : new GenericArrayTypeImpl(componentType);
+    }
+
     /**
      * Validate that the object array is not null, and contains no null values
      * @param <T> Type of object held by the array
@@ -319,6 +425,25 @@ class Utils {
         return value;
     }
 
+    /**
+     * Retrieve the primitive {@link Class} of a boxed {@link Class}
+     * @param type {@link Class} to unbox
+     * @return primitive {@link Class} when {@code type} is a boxed {@link Class}, otherwise {@code type}
+     */
+    static Class<?> unbox(Class<?> type) {
+        int idx = type.isPrimitive() ? -1 : INDICES.get(type).intValue();
+        return (idx < 0) ? type : PRIMITIVES[idx];
+    }
+
+    /**
+     * Retrieve the position of the primitive {@link Class} in the primitive tables
+     * @param type {@link Class} to retrieve the position of
+     * @return position of {@code type}, or {@code -1} when {@code type} is not primitive
+     */
+    private static int primitiveIndex(Class<?> type) {
+        return type.isPrimitive() ? INDICES.get(type).intValue() : -1;
+    }
+
     private Utils() {
         // not instantiable
     }
@@ -70,6 +70,9 @@ public class WildcardTypeImpl implements WildcardType {
     /** {@link Type}s representing the upper bounds ({@code extends}) */
     protected final Type[] upperBounds;
 
+    /** erasure of this type, computed on first use by {@link Types#erase(Type)} */
+    Class<?> erasure;
+
     /**
      * Create a new {@link WildcardTypeImpl} copying details from an existing one
      * @param wcType {@link WildcardType} to copy details from
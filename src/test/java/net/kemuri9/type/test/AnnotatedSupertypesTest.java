@@ -0,0 +1,144 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type.test;
+
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedArrayType;
+import java.lang.reflect.AnnotatedParameterizedType;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.kemuri9.type.AnnotatedArrayTypeImpl;
+import net.kemuri9.type.AnnotatedParameterizedTypeImpl;
+import net.kemuri9.type.AnnotatedSupertypes;
+import net.kemuri9.type.AnnotatedTypeImpl;
+import net.kemuri9.type.AnnotatedTypeVariableImpl;
+import net.kemuri9.type.GenericArrayTypeImpl;
+import net.kemuri9.type.ParameterizedTypeImpl;
+
+public class AnnotatedSupertypesTest {
+
+    public interface Repo<T> {}
+    public static class Names<N> implements Repo<@Ann4("names") N> {}
+    public static class Codes extends @Ann4("base") Names<@Ann4("codes") String> {}
+    public static class Keys<K> implements Repo<K> {}
+    public static class Ids extends Keys<@Ann4("ids") Long> {}
+    @SuppressWarnings("rawtypes")
+    public static class RawCodes extends @Ann4("raw") Names {}
+
+    private static ParameterizedType pt(Class<?> raw, Type... args) {
+        return new ParameterizedTypeImpl(AnnotatedSupertypesTest.class, raw, args);
+    }
+
+    private static AnnotatedType getArgument(AnnotatedType type) {
+        return ((AnnotatedParameterizedType) type).getAnnotatedActualTypeArguments()[0];
+    }
+
+    @Test
+    public void testSupertypes() {
+        Map<Class<?>, AnnotatedType> supertypes = AnnotatedSupertypes.getSupertypes(Ids.class);
+        Assertions.assertEquals(Ids.class, supertypes.get(Ids.class).getType());
+        Assertions.assertEquals(Object.class, supertypes.get(Object.class).getType());
+        AnnotatedType repo = supertypes.get(Repo.class);
+        Assertions.assertEquals(pt(Repo.class, Long.class), repo.getType());
+        Assertions.assertEquals(new Ann4Impl("ids"), getArgument(repo).getAnnotation(Ann4.class));
+        Assertions.assertNull(supertypes.get(String.class));
+        Assertions.assertSame(supertypes, AnnotatedSupertypes.getSupertypes(Ids.class));
+
+        // indexed types are library implementations
+        Assertions.assertTrue(repo instanceof AnnotatedParameterizedTypeImpl);
+        Assertions.assertEquals(repo, AnnotatedSupertypes.getSupertype(new AnnotatedTypeImpl(Ids.class), Repo.class));
+    }
+
+    @Test
+    public void testSupertypeAnnotations() {
+        Map<Class<?>, AnnotatedType> supertypes = AnnotatedSupertypes.getSupertypes(Codes.class);
+        AnnotatedType names = supertypes.get(Names.class);
+        Assertions.assertEquals(pt(Names.class, String.class), names.getType());
+        Assertions.assertEquals(new Ann4Impl("base"), names.getAnnotation(Ann4.class));
+        Assertions.assertEquals(new Ann4Impl("codes"), getArgument(names).getAnnotation(Ann4.class));
+
+        // annotations of the usage of a type variable replace those of its binding of the same annotation type
+        AnnotatedType repo = supertypes.get(Repo.class);
+        Assertions.assertEquals(pt(Repo.class, String.class), repo.getType());
+        Assertions.assertEquals(new Ann4Impl("names"), getArgument(repo).getAnnotation(Ann4.class));
+
+        // raw supertypes are erased
+        Map<Class<?>, AnnotatedType> raw = AnnotatedSupertypes.getSupertypes(RawCodes.class);
+        Assertions.assertEquals(Names.class, raw.get(Names.class).getType());
+        Assertions.assertEquals(new Ann4Impl("raw"), raw.get(Names.class).getAnnotation(Ann4.class));
+        Assertions.assertEquals(Repo.class, raw.get(Repo.class).getType());
+        Assertions.assertEquals(0, raw.get(Repo.class).getAnnotations().length);
+    }
+
+    @Test
+    public void testParameterizedSupertype() {
+        AnnotatedType arg = new AnnotatedTypeImpl(Integer.class, null, new Ann4Impl("arg"));
+        AnnotatedParameterizedType keys = new AnnotatedParameterizedTypeImpl(pt(Keys.class, Integer.class), null,
+                new Annotation[0], arg);
+        AnnotatedType repo = AnnotatedSupertypes.getSupertype(keys, Repo.class);
+        Assertions.assertEquals(pt(Repo.class, Integer.class), repo.getType());
+        Assertions.assertEquals(new Ann4Impl("arg"), getArgument(repo).getAnnotation(Ann4.class));
+        Assertions.assertSame(keys, AnnotatedSupertypes.getSupertype(keys, Keys.class));
+        Assertions.assertNull(AnnotatedSupertypes.getSupertype(keys, Names.class));
+    }
+
+    @Test
+    public void testArrays() {
+        Map<Class<?>, AnnotatedType> supertypes = AnnotatedSupertypes.getSupertypes(Codes[].class);
+        AnnotatedArrayType repos = (AnnotatedArrayType) supertypes.get(Repo[].class);
+        Assertions.assertEquals(new GenericArrayTypeImpl(pt(Repo.class, String.class)), repos.getType());
+        Assertions.assertEquals(new Ann4Impl("names"), getArgument(repos.getAnnotatedGenericComponentType()).getAnnotation(Ann4.class));
+        Assertions.assertEquals(Object[].class, supertypes.get(Object[].class).getType());
+        for (Class<?> supertype : new Class<?>[] { Object.class, Cloneable.class, Serializable.class }) {
+            Assertions.assertEquals(supertype, supertypes.get(supertype).getType());
+            Assertions.assertEquals(supertype, AnnotatedSupertypes.getSupertypes(int[].class).get(supertype).getType());
+        }
+        Assertions.assertNull(supertypes.get(String[].class));
+        Assertions.assertEquals(Serializable[].class, AnnotatedSupertypes.getSupertypes(String[][].class).get(Serializable[].class).getType());
+        Assertions.assertNull(AnnotatedSupertypes.getSupertypes(int[].class).get(Object[].class));
+
+        // annotated component types are retained
+        AnnotatedType arg = new AnnotatedTypeImpl(Integer.class, null, new Ann4Impl("arg"));
+        AnnotatedParameterizedType keys = new AnnotatedParameterizedTypeImpl(pt(Keys.class, Integer.class), null,
+                new Annotation[0], arg);
+        AnnotatedArrayType keysArray = new AnnotatedArrayTypeImpl(new GenericArrayTypeImpl(keys.getType()), new Annotation[0], keys);
+        AnnotatedArrayType repoArray = (AnnotatedArrayType) AnnotatedSupertypes.getSupertype(keysArray, Repo[].class);
+        Assertions.assertEquals(new GenericArrayTypeImpl(pt(Repo.class, Integer.class)), repoArray.getType());
+        Assertions.assertEquals(new Ann4Impl("arg"), getArgument(repoArray.getAnnotatedGenericComponentType()).getAnnotation(Ann4.class));
+        Assertions.assertSame(keysArray, AnnotatedSupertypes.getSupertype(keysArray, Keys[].class));
+        Assertions.assertEquals(Cloneable.class, AnnotatedSupertypes.getSupertype(keysArray, Cloneable.class).getType());
+        Assertions.assertNull(AnnotatedSupertypes.getSupertype(keysArray, Names[].class));
+        Assertions.assertNull(AnnotatedSupertypes.getSupertype(keysArray, Repo.class));
+        Assertions.assertNull(AnnotatedSupertypes.getSupertype(new AnnotatedArrayTypeImpl(int[].class), long[].class));
+    }
+
+    @Test
+    public void testInvalid() {
+        TestUtils.assertThrows(IllegalArgumentException.class, Arrays.asList(
+                ()-> AnnotatedSupertypes.getSupertypes(null),
+                ()-> AnnotatedSupertypes.getSupertype(null, Object.class),
+                ()-> AnnotatedSupertypes.getSupertype(new AnnotatedTypeImpl(String.class), null),
+                ()-> AnnotatedSupertypes.getSupertype(new AnnotatedTypeVariableImpl(Repo.class.getTypeParameters()[0]), Object.class)));
+    }
+}
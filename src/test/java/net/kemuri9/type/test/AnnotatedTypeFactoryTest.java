@@ -25,7 +25,10 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
@@ -42,14 +45,44 @@ import net.kemuri9.type.AnnotatedTypeImpl;
 import net.kemuri9.type.AnnotatedTypeVariableImpl;
 import net.kemuri9.type.AnnotatedWildcardTypeImpl;
 import net.kemuri9.type.ParameterizedTypeImpl;
+import net.kemuri9.type.TypePath;
 import net.kemuri9.type.WildcardTypeImpl;
 
 public class AnnotatedTypeFactoryTest {
 
     public static class AnnotatedTypeFactoryDerived extends AnnotatedTypeFactory {}
 
+    public class Inner<T> {}
+
+    public static class Outer<O> {
+        public class Nested<N> {}
+    }
+
+    private static final class CountingParameterizedType extends FreeAnnotatedType implements AnnotatedParameterizedType {
+
+        private final AnnotatedType[] typeArgs;
+        private int accesses;
+
+        public CountingParameterizedType(Type type, AnnotatedType[] typeArgs) {
+            this(type, null, typeArgs);
+        }
+
+        public CountingParameterizedType(Type type, AnnotatedType ownerType, AnnotatedType[] typeArgs) {
+            super(type, ownerType, new Annotation[0]);
+            this.typeArgs = typeArgs;
+        }
+
+        @Override
+        public AnnotatedType[] getAnnotatedActualTypeArguments() {
+            ++accesses;
+            return typeArgs;
+        }
+    }
+
     public static void arr(@Ann4("List") List<@Ann4("WC") ?> @Ann4("Array") [] arr) {}
     public static void at(@Ann4("CS") CharSequence cs) {}
+    public static void nested(@Ann4("Outer") AnnotatedTypeFactoryTest.@Ann4("Inner") Inner<@Ann4("Arg") String> @Ann4("Array") [] n) {}
+    public static void nestedStatic(AnnotatedTypeFactoryTest.@Ann4("Static") AnnotatedTypeFactoryDerived d) {}
     public static void pt(@Ann4("List") List<@Ann4("WC") ? extends @Ann4("CS") CharSequence> list) {}
     public static <T extends CharSequence> void tv(@Ann4("TV") T t) {}
     public static void wc(@Ann4("List") List<@Ann4("WC") ? super @Ann4("CS") CharSequence> list) {}
@@ -80,6 +113,14 @@ public class AnnotatedTypeFactoryTest {
         return method.getAnnotatedParameterTypes()[0];
     }
 
+    private static Map<TypePath, Annotation[]> getPaths(String... pathsAndValues) {
+        Map<TypePath, Annotation[]> paths = new HashMap<>();
+        for (int idx = 0; idx < pathsAndValues.length; idx += 2) {
+            paths.put(TypePath.fromString(pathsAndValues[idx]), new Annotation[] { new Ann4Impl(pathsAndValues[idx + 1]) });
+        }
+        return paths;
+    }
+
     public static Stream<Arguments> getTypes() {
         return TYPES.stream().map(Arguments::of);
     }
@@ -89,6 +130,36 @@ public class AnnotatedTypeFactoryTest {
         Assertions.assertDoesNotThrow(()-> new AnnotatedTypeFactoryDerived());
     }
 
+    @ParameterizedTest
+    @MethodSource("net.kemuri9.type.test.AnnotatedTypeFactoryTest#getTypes")
+    public void testMapAnnotationsIdentity(AnnotatedType type) {
+        Assertions.assertSame(type, AnnotatedTypeFactory.mapAnnotations(type, AnnotatedType::getAnnotations));
+    }
+
+    @Test
+    public void testMapAnnotations() {
+        AnnotatedParameterizedType pt = (AnnotatedParameterizedType) TYPES.get(2);
+        AnnotatedParameterizedType mapped = AnnotatedTypeFactory.mapAnnotations(pt,
+                t-> (t.getType() == CharSequence.class) ? new Annotation[] { new Ann1Impl() } : t.getAnnotations());
+        Assertions.assertNotEquals(pt, mapped);
+        Assertions.assertArrayEquals(pt.getAnnotations(), mapped.getAnnotations());
+        AnnotatedWildcardType wc = (AnnotatedWildcardType) mapped.getAnnotatedActualTypeArguments()[0];
+        Assertions.assertArrayEquals(new Annotation[] { new Ann4Impl("WC") }, wc.getAnnotations());
+        Assertions.assertArrayEquals(new Annotation[] { new Ann1Impl() }, wc.getAnnotatedUpperBounds()[0].getAnnotations());
+    }
+
+    @Test
+    public void testMapAnnotationsInvalid() {
+        AnnotatedType type = TYPES.get(1);
+        List<Executable> invalid = Arrays.asList(
+                ()-> AnnotatedTypeFactory.mapAnnotations(null, AnnotatedType::getAnnotations),
+                ()-> AnnotatedTypeFactory.mapAnnotations(type, null),
+                ()-> AnnotatedTypeFactory.mapAnnotations(type, t-> null),
+                ()-> AnnotatedTypeFactory.mapAnnotations(type, t-> new Annotation[] { null })
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
     @ParameterizedTest
     @MethodSource("net.kemuri9.type.test.AnnotatedTypeFactoryTest#getTypes")
     public void testNewAnnotatedTypeFromAnnotatedType(AnnotatedType type) {
@@ -117,6 +188,116 @@ public class AnnotatedTypeFactoryTest {
         Assertions.assertSame(type.getType(), ret.getType());
     }
 
+    @ParameterizedTest
+    @MethodSource("net.kemuri9.type.test.AnnotatedTypeFactoryTest#getTypes")
+    public void testNewLazyAnnotatedType(AnnotatedType type) {
+        AnnotatedType lazy = AnnotatedTypeFactory.newLazyAnnotatedType(type);
+        AnnotatedType eager = AnnotatedTypeFactory.newAnnotatedType(type);
+        Assertions.assertEquals(lazy, type);
+        Assertions.assertEquals(eager, lazy);
+        Assertions.assertEquals(lazy, eager);
+        Assertions.assertEquals(eager.hashCode(), lazy.hashCode());
+        Assertions.assertEquals(eager.toString(), lazy.toString());
+        Assertions.assertEquals(eager.getClass(), lazy.getClass());
+    }
+
+    @Test
+    public void testNewLazyAnnotatedTypeDefersNested() {
+        ParameterizedTypeImpl listString = new ParameterizedTypeImpl(null, List.class, String.class);
+        CountingParameterizedType counting = new CountingParameterizedType(listString,
+                new AnnotatedType[] { new AnnotatedTypeImpl(String.class, null, new Ann4Impl("String")) });
+        AnnotatedParameterizedType lazy = AnnotatedTypeFactory.newLazyAnnotatedType(counting);
+        Assertions.assertEquals(0, counting.accesses);
+        Assertions.assertArrayEquals(new Annotation[0], lazy.getAnnotations());
+        Assertions.assertEquals(0, counting.accesses);
+        AnnotatedType[] typeArgs = lazy.getAnnotatedActualTypeArguments();
+        Assertions.assertEquals(1, counting.accesses);
+        Assertions.assertArrayEquals(new Annotation[] { new Ann4Impl("String") }, typeArgs[0].getAnnotations());
+        // once converted, the source is not accessed again
+        lazy.getAnnotatedActualTypeArguments();
+        Assertions.assertEquals(1, counting.accesses);
+
+        // invalid nested types are only detected upon access
+        CountingParameterizedType invalid = new CountingParameterizedType(listString, new AnnotatedType[] { null });
+        AnnotatedParameterizedType lazyInvalid = AnnotatedTypeFactory.newLazyAnnotatedType(invalid);
+        Assertions.assertThrows(IllegalArgumentException.class, lazyInvalid::getAnnotatedActualTypeArguments);
+    }
+
+    @Test
+    public void testNewLazyAnnotatedTypeDefersOwner() {
+        Type outerString = new ParameterizedTypeImpl(AnnotatedTypeFactoryTest.class, Outer.class, String.class);
+        CountingParameterizedType owner = new CountingParameterizedType(outerString,
+                new AnnotatedType[] { new AnnotatedTypeImpl(String.class, null, new Ann4Impl("Owner")) });
+        Type nestedLong = new ParameterizedTypeImpl(outerString, Outer.Nested.class, Long.class);
+        CountingParameterizedType nested = new CountingParameterizedType(nestedLong, owner,
+                new AnnotatedType[] { new AnnotatedTypeImpl(Long.class) });
+        AnnotatedParameterizedType lazy = AnnotatedTypeFactory.newLazyAnnotatedType(nested);
+        AnnotatedParameterizedType lazyOwner = (AnnotatedParameterizedType) ((AnnotatedTypeImpl) lazy).getAnnotatedOwnerType();
+        Assertions.assertEquals(outerString, lazyOwner.getType());
+        Assertions.assertEquals(0, owner.accesses);
+        Assertions.assertArrayEquals(new Annotation[] { new Ann4Impl("Owner") },
+                lazyOwner.getAnnotatedActualTypeArguments()[0].getAnnotations());
+        Assertions.assertEquals(1, owner.accesses);
+        Assertions.assertEquals(AnnotatedTypeFactory.newAnnotatedType(nested), lazy);
+    }
+
+    @Test
+    public void testNewLazyAnnotatedTypeInvalid() {
+        List<Executable> invalid = Arrays.asList(
+                ()-> AnnotatedTypeFactory.newLazyAnnotatedType(null),
+                ()-> AnnotatedTypeFactory.newLazyAnnotatedType(new FreeAnnotatedType(null, null, new Annotation[0]))
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testNewAnnotatedTypeFromPaths() {
+        AnnotatedType arr = TYPES.get(0);
+        Assertions.assertEquals(AnnotatedTypeFactory.newAnnotatedType(arr),
+                AnnotatedTypeFactory.newAnnotatedTypeFromPaths(arr.getType(), getPaths("", "Array", "[", "List", "[0;", "WC")));
+        AnnotatedType pt = TYPES.get(2);
+        Assertions.assertEquals(AnnotatedTypeFactory.newAnnotatedType(pt),
+                AnnotatedTypeFactory.newAnnotatedTypeFromPaths(pt.getType(), getPaths("", "List", "0;", "WC", "0;*", "CS")));
+        AnnotatedType wc = TYPES.get(5);
+        Assertions.assertEquals(AnnotatedTypeFactory.newAnnotatedType(wc),
+                AnnotatedTypeFactory.newAnnotatedTypeFromPaths(wc.getType(), getPaths("", "WC", "*", "CS")));
+        AnnotatedType tv = TYPES.get(3);
+        Assertions.assertEquals(AnnotatedTypeFactory.newAnnotatedType(tv),
+                AnnotatedTypeFactory.newAnnotatedTypeFromPaths(tv.getType(), getPaths("", "TV")));
+
+        // nested types are addressed from the outermost type, with inner types being deeper
+        AnnotatedType nested = getType("nested", Inner[].class);
+        Assertions.assertEquals(AnnotatedTypeFactory.newAnnotatedType(nested),
+                AnnotatedTypeFactory.newAnnotatedTypeFromPaths(nested.getType(),
+                        getPaths("", "Array", "[", "Outer", "[.", "Inner", "[.0;", "Arg")));
+        // but static nested types are not deeper than the type that only qualifies them
+        AnnotatedType nestedStatic = getType("nestedStatic", AnnotatedTypeFactoryDerived.class);
+        Assertions.assertEquals(AnnotatedTypeFactory.newAnnotatedType(nestedStatic),
+                AnnotatedTypeFactory.newAnnotatedTypeFromPaths(nestedStatic.getType(), getPaths("", "Static")));
+
+        Assertions.assertEquals(AnnotatedTypeFactory.newAnnotatedType(pt.getType()),
+                AnnotatedTypeFactory.newAnnotatedTypeFromPaths(pt.getType(), Collections.emptyMap()));
+    }
+
+    @Test
+    public void testNewAnnotatedTypeFromPathsInvalid() {
+        Type pt = TYPES.get(2).getType();
+        Map<TypePath, Annotation[]> nullValue = new HashMap<>();
+        nullValue.put(TypePath.EMPTY, null);
+        List<Executable> invalid = Arrays.asList(
+                ()-> AnnotatedTypeFactory.newAnnotatedTypeFromPaths(null, Collections.emptyMap()),
+                ()-> AnnotatedTypeFactory.newAnnotatedTypeFromPaths(pt, null),
+                ()-> AnnotatedTypeFactory.newAnnotatedTypeFromPaths(pt, Collections.singletonMap(null, new Annotation[0])),
+                ()-> AnnotatedTypeFactory.newAnnotatedTypeFromPaths(pt, nullValue),
+                ()-> AnnotatedTypeFactory.newAnnotatedTypeFromPaths(pt, Collections.singletonMap(TypePath.EMPTY, new Annotation[1])),
+                ()-> AnnotatedTypeFactory.newAnnotatedTypeFromPaths(pt, getPaths("[", "Array")),
+                ()-> AnnotatedTypeFactory.newAnnotatedTypeFromPaths(pt, getPaths("1;", "Arg")),
+                ()-> AnnotatedTypeFactory.newAnnotatedTypeFromPaths(pt, getPaths("0;*0;", "Arg")),
+                ()-> AnnotatedTypeFactory.newAnnotatedTypeFromPaths(AnnotatedTypeFactoryDerived.class, getPaths(".", "Static"))
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
     @Test
     public void testNewAnnotatedTypeFromTypeArray() {
         AnnotatedArrayType annType = (AnnotatedArrayType) TYPES.get(0);
@@ -143,6 +324,27 @@ public class AnnotatedTypeFactoryTest {
         Assertions.assertEquals(ret1, annType);
     }
 
+    @Test
+    public void testNewAnnotatedTypeFromTypeBasicShared() {
+        AnnotatedType shared = AnnotatedTypeFactory.newAnnotatedType(Inner.class);
+        Assertions.assertSame(shared, AnnotatedTypeFactory.newAnnotatedType(Inner.class));
+        Assertions.assertSame(shared, AnnotatedTypeFactory.newAnnotatedType(Inner.class, (Annotation[]) null));
+        AnnotatedTypeImpl general = new AnnotatedTypeImpl(Inner.class);
+        Assertions.assertEquals(general, shared);
+        Assertions.assertEquals(shared, general);
+        Assertions.assertEquals(general.hashCode(), shared.hashCode());
+        // the owner chain is shared as well
+        Assertions.assertSame(AnnotatedTypeFactory.newAnnotatedType(AnnotatedTypeFactoryTest.class),
+                ((AnnotatedTypeImpl) shared).getAnnotatedOwnerType());
+
+        // annotated types and types with a specified owner are not shared
+        AnnotatedType annotated = AnnotatedTypeFactory.newAnnotatedType(Inner.class, new Ann1Impl());
+        Assertions.assertNotSame(annotated, AnnotatedTypeFactory.newAnnotatedType(Inner.class, new Ann1Impl()));
+        AnnotatedType owned = AnnotatedTypeFactory.newAnnotatedType(Inner.class, (Annotation[]) null,
+                AnnotatedTypeFactory.newAnnotatedType(AnnotatedTypeFactoryTest.class, new Ann1Impl()));
+        Assertions.assertNotEquals(shared, owned);
+    }
+
     @Test
     public void testNewAnnotatedTypeFromTypeInvalid() {
         Assertions.assertThrows(IllegalArgumentException.class, ()-> AnnotatedTypeFactory.newAnnotatedType((Type) null));
@@ -297,4 +499,60 @@ public class AnnotatedTypeFactoryTest {
             );
         TestUtils.assertThrows(IllegalArgumentException.class, invalid);
     }
+
+    @Test
+    public void testStripAnnotations() {
+        AnnotatedArrayType arr = (AnnotatedArrayType) TYPES.get(0);
+        AnnotatedArrayType stripped = AnnotatedTypeFactory.stripAnnotations(arr);
+        Assertions.assertEquals(AnnotatedTypeFactory.newAnnotatedType(arr.getType()), stripped);
+
+        // stripping annotation types that are not present returns the same instance
+        Assertions.assertSame(arr, AnnotatedTypeFactory.stripAnnotations(arr, Ann1.class));
+        AnnotatedArrayType strippedAnn4 = AnnotatedTypeFactory.stripAnnotations(arr, Ann1.class, Ann4.class);
+        Assertions.assertEquals(stripped, strippedAnn4);
+    }
+
+    @Test
+    public void testStripAnnotationsInvalid() {
+        AnnotatedType type = TYPES.get(1);
+        List<Executable> invalid = Arrays.asList(
+                ()-> AnnotatedTypeFactory.stripAnnotations(null),
+                ()-> AnnotatedTypeFactory.stripAnnotations(type, (Class<? extends Annotation>[]) null),
+                ()-> AnnotatedTypeFactory.stripAnnotations(type, Ann1.class, null)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testWithAnnotations() {
+        AnnotatedParameterizedType pt = AnnotatedTypeFactory.newAnnotatedType((AnnotatedParameterizedType) TYPES.get(2));
+        AnnotatedParameterizedType root = AnnotatedTypeFactory.withAnnotations(pt, new Ann1Impl(), new Ann4Impl("Root"));
+        Assertions.assertArrayEquals(new Annotation[] { new Ann1Impl(), new Ann4Impl("Root") }, root.getAnnotations());
+        // unchanged subtrees are reused as-is
+        Assertions.assertSame(pt.getAnnotatedActualTypeArguments()[0], root.getAnnotatedActualTypeArguments()[0]);
+        Assertions.assertSame(pt, AnnotatedTypeFactory.withAnnotations(pt));
+        // adding annotations that are already present is not a change
+        Assertions.assertSame(root, AnnotatedTypeFactory.withAnnotations(root, new Ann4Impl("Root")));
+        Assertions.assertSame(root, AnnotatedTypeFactory.withAnnotations(root, new Ann4Impl("Root"), new Ann1Impl()));
+        Assertions.assertArrayEquals(new Annotation[] { new Ann1Impl(), new Ann4Impl("Other") },
+                AnnotatedTypeFactory.withAnnotations(root, new Ann4Impl("Other")).getAnnotations());
+
+        AnnotatedParameterizedType filtered = AnnotatedTypeFactory.withAnnotations(pt,
+                t-> t instanceof AnnotatedWildcardType, new Ann1Impl());
+        Assertions.assertArrayEquals(pt.getAnnotations(), filtered.getAnnotations());
+        AnnotatedType wc = filtered.getAnnotatedActualTypeArguments()[0];
+        Assertions.assertArrayEquals(new Annotation[] { new Ann4Impl("WC"), new Ann1Impl() }, wc.getAnnotations());
+    }
+
+    @Test
+    public void testWithAnnotationsInvalid() {
+        AnnotatedType type = TYPES.get(1);
+        List<Executable> invalid = Arrays.asList(
+                ()-> AnnotatedTypeFactory.withAnnotations(null, new Ann1Impl()),
+                ()-> AnnotatedTypeFactory.withAnnotations(type, (Annotation[]) null),
+                ()-> AnnotatedTypeFactory.withAnnotations(type, new Ann1Impl(), null),
+                ()-> AnnotatedTypeFactory.withAnnotations(type, (Predicate<AnnotatedType>) null, new Ann1Impl())
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
 }
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type.test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedArrayType;
+import java.lang.reflect.AnnotatedParameterizedType;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.AnnotatedWildcardType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.kemuri9.type.AnnotatedArrayTypeImpl;
+import net.kemuri9.type.AnnotatedParameterizedTypeImpl;
+import net.kemuri9.type.AnnotatedTypeImpl;
+import net.kemuri9.type.AnnotatedTypeResolver;
+import net.kemuri9.type.AnnotatedTypeVariableImpl;
+import net.kemuri9.type.AnnotatedWildcardTypeImpl;
+import net.kemuri9.type.GenericArrayTypeImpl;
+import net.kemuri9.type.ParameterizedTypeImpl;
+import net.kemuri9.type.WildcardTypeImpl;
+
+public class AnnotatedTypeResolverTest {
+
+    public interface Repo<T> {}
+    public static class Base<B> implements Repo<List<B>> {}
+    public static class Sub extends Base<String> {}
+    @SuppressWarnings("rawtypes")
+    public static class RawSub extends Base {}
+
+    private static final TypeVariable<?> REPO_T = Repo.class.getTypeParameters()[0];
+    private static final Annotation[] NONE = new Annotation[0];
+
+    private static AnnotatedType annotatedT(Annotation... annotations) {
+        return new AnnotatedTypeVariableImpl(REPO_T, annotations);
+    }
+
+    private static AnnotatedParameterizedType annotatedPt(Class<?> raw, Annotation[] annotations, AnnotatedType... args) {
+        Type[] types = new Type[args.length];
+        for (int idx = 0; idx < args.length; ++idx) {
+            types[idx] = args[idx].getType();
+        }
+        return new AnnotatedParameterizedTypeImpl(new ParameterizedTypeImpl(raw.getDeclaringClass(), raw, types), null,
+                annotations, args);
+    }
+
+    @Test
+    public void testResolveMergesAnnotations() {
+        AnnotatedType bound = new AnnotatedTypeImpl(String.class, null, new Ann4Impl("binding"), new Ann1Impl());
+        AnnotatedTypeResolver resolver = AnnotatedTypeResolver.of(Collections.singletonMap(REPO_T, bound));
+
+        // Repo<@Ann4("usage") T> resolves to Repo<@Ann1 @Ann4("usage") String>
+        AnnotatedParameterizedType usage = annotatedPt(Repo.class, NONE, annotatedT(new Ann4Impl("usage")));
+        AnnotatedParameterizedType resolved = (AnnotatedParameterizedType) resolver.resolve(usage);
+        Assertions.assertEquals(new ParameterizedTypeImpl(AnnotatedTypeResolverTest.class, Repo.class, String.class),
+                resolved.getType());
+        AnnotatedType arg = resolved.getAnnotatedActualTypeArguments()[0];
+        Assertions.assertEquals(String.class, arg.getType());
+        Assertions.assertEquals(2, arg.getAnnotations().length);
+        Assertions.assertEquals(new Ann1Impl(), arg.getAnnotation(Ann1.class));
+        Assertions.assertEquals(new Ann4Impl("usage"), arg.getAnnotation(Ann4.class));
+
+        // an unannotated usage is the binding itself
+        Assertions.assertSame(bound, resolver.resolve(annotatedT()));
+    }
+
+    @Test
+    public void testResolveReusesUnchanged() {
+        AnnotatedType bound = new AnnotatedTypeImpl(String.class, null, new Ann1Impl());
+        AnnotatedTypeResolver resolver = AnnotatedTypeResolver.of(Collections.singletonMap(REPO_T, bound));
+
+        AnnotatedType unrelated = annotatedPt(List.class, NONE, new AnnotatedTypeImpl(Long.class, null, new Ann1Impl()));
+        Assertions.assertSame(unrelated, resolver.resolve(unrelated));
+        AnnotatedType[] types = new AnnotatedType[] { unrelated };
+        Assertions.assertSame(types, resolver.resolve(types));
+
+        AnnotatedParameterizedType map = annotatedPt(Map.class, new Annotation[] { new Ann1Impl() }, unrelated, annotatedT());
+        AnnotatedParameterizedType resolved = (AnnotatedParameterizedType) resolver.resolve(map);
+        Assertions.assertSame(unrelated, resolved.getAnnotatedActualTypeArguments()[0]);
+        Assertions.assertSame(bound, resolved.getAnnotatedActualTypeArguments()[1]);
+        Assertions.assertArrayEquals(map.getAnnotations(), resolved.getAnnotations());
+
+        AnnotatedType other = annotatedT(new Ann1Impl());
+        Assertions.assertSame(other, AnnotatedTypeResolver.EMPTY.resolve(other));
+    }
+
+    @Test
+    public void testResolveArraysAndWildcards() {
+        AnnotatedType bound = new AnnotatedTypeImpl(String.class, null, new Ann1Impl());
+        AnnotatedTypeResolver resolver = AnnotatedTypeResolver.of(Collections.singletonMap(REPO_T, bound));
+
+        AnnotatedArrayType array = new AnnotatedArrayTypeImpl(new GenericArrayTypeImpl(REPO_T),
+                new Annotation[] { new Ann4Impl("array") }, annotatedT());
+        AnnotatedArrayType resolvedArray = (AnnotatedArrayType) resolver.resolve(array);
+        Assertions.assertEquals(String[].class, resolvedArray.getType());
+        Assertions.assertSame(bound, resolvedArray.getAnnotatedGenericComponentType());
+        Assertions.assertEquals(new Ann4Impl("array"), resolvedArray.getAnnotation(Ann4.class));
+
+        AnnotatedWildcardType wildcard = new AnnotatedWildcardTypeImpl(WildcardTypeImpl.forExtends(REPO_T), NONE,
+                new AnnotatedType[0], new AnnotatedType[] { annotatedT(new Ann4Impl("wc")) });
+        AnnotatedWildcardType resolvedWildcard = (AnnotatedWildcardType) resolver.resolve(wildcard);
+        Assertions.assertEquals(WildcardTypeImpl.forExtends(String.class), resolvedWildcard.getType());
+        AnnotatedType upper = resolvedWildcard.getAnnotatedUpperBounds()[0];
+        Assertions.assertEquals(new Ann1Impl(), upper.getAnnotation(Ann1.class));
+        Assertions.assertEquals(new Ann4Impl("wc"), upper.getAnnotation(Ann4.class));
+
+        // wildcard bindings are flattened into the bounds of wildcards
+        AnnotatedType wildcardBound = new AnnotatedWildcardTypeImpl(WildcardTypeImpl.forExtends(Number.class), NONE,
+                new AnnotatedType[0], new AnnotatedType[] { new AnnotatedTypeImpl(Number.class, null, new Ann1Impl()) });
+        AnnotatedTypeResolver wildcardResolver = AnnotatedTypeResolver.of(Collections.singletonMap(REPO_T, wildcardBound));
+        AnnotatedWildcardType flattened = (AnnotatedWildcardType) wildcardResolver.resolve(wildcard);
+        Assertions.assertEquals(WildcardTypeImpl.forExtends(Number.class), flattened.getType());
+        Assertions.assertEquals(new Ann4Impl("wc"), flattened.getAnnotatedUpperBounds()[0].getAnnotation(Ann4.class));
+
+        // arrays of wildcards are arrays of their upper boundary, carrying the wildcard's annotations
+        AnnotatedType annotatedWildcard = new AnnotatedWildcardTypeImpl(WildcardTypeImpl.forExtends(Number.class),
+                new Annotation[] { new Ann4Impl("bound") }, new AnnotatedType[0],
+                new AnnotatedType[] { new AnnotatedTypeImpl(Number.class, null, new Ann1Impl()) });
+        AnnotatedArrayType wildcardArray = (AnnotatedArrayType) AnnotatedTypeResolver.of(
+                Collections.singletonMap(REPO_T, annotatedWildcard)).resolve(array);
+        Assertions.assertEquals(Number[].class, wildcardArray.getType());
+        AnnotatedType component = wildcardArray.getAnnotatedGenericComponentType();
+        Assertions.assertEquals(Number.class, component.getType());
+        Assertions.assertEquals(new Ann1Impl(), component.getAnnotation(Ann1.class));
+        Assertions.assertEquals(new Ann4Impl("bound"), component.getAnnotation(Ann4.class));
+        Assertions.assertEquals(new Ann4Impl("array"), wildcardArray.getAnnotation(Ann4.class));
+
+        // and of Object for lower boundaries
+        AnnotatedType superWildcard = new AnnotatedWildcardTypeImpl(WildcardTypeImpl.forSuper(Number.class), NONE,
+                new AnnotatedType[] { new AnnotatedTypeImpl(Number.class) }, new AnnotatedType[0]);
+        AnnotatedArrayType superArray = (AnnotatedArrayType) AnnotatedTypeResolver.of(
+                Collections.singletonMap(REPO_T, superWildcard)).resolve(array);
+        Assertions.assertEquals(Object[].class, superArray.getType());
+        Assertions.assertEquals(Object.class, superArray.getAnnotatedGenericComponentType().getType());
+    }
+
+    @Test
+    public void testForType() {
+        AnnotatedType string = new AnnotatedTypeImpl(String.class, null, new Ann1Impl());
+        AnnotatedType baseOfString = annotatedPt(Base.class, NONE, string);
+        AnnotatedTypeResolver resolver = AnnotatedTypeResolver.forType(baseOfString);
+        Assertions.assertSame(string, resolver.resolve(new AnnotatedTypeVariableImpl(Base.class.getTypeParameters()[0])));
+
+        // Repo's T is bound to List<B> by Base, which is resolved with the annotated argument
+        AnnotatedType repoT = resolver.resolve(annotatedT());
+        Assertions.assertEquals(new ParameterizedTypeImpl(null, List.class, String.class), repoT.getType());
+        Assertions.assertSame(string, ((AnnotatedParameterizedType) repoT).getAnnotatedActualTypeArguments()[0]);
+
+        AnnotatedTypeResolver subResolver = AnnotatedTypeResolver.forType(new AnnotatedTypeImpl(Sub.class));
+        Assertions.assertSame(subResolver, AnnotatedTypeResolver.forType(new AnnotatedTypeImpl(Sub.class)));
+        Assertions.assertEquals(String.class, subResolver.resolve(new AnnotatedTypeVariableImpl(Base.class.getTypeParameters()[0])).getType());
+        Assertions.assertEquals(new ParameterizedTypeImpl(null, List.class, String.class), subResolver.resolve(annotatedT()).getType());
+
+        // raw inheritance does not bind
+        Assertions.assertSame(AnnotatedTypeResolver.EMPTY, AnnotatedTypeResolver.forType(new AnnotatedTypeImpl(RawSub.class)));
+        Assertions.assertEquals(2, subResolver.getBindings().size());
+        Assertions.assertTrue(subResolver.toString().startsWith("AnnotatedTypeResolver"));
+    }
+
+    @Test
+    public void testInvalid() {
+        TestUtils.assertThrows(IllegalArgumentException.class, Arrays.asList(
+                ()-> AnnotatedTypeResolver.of(null),
+                ()-> AnnotatedTypeResolver.of(Collections.singletonMap(REPO_T, null)),
+                ()-> AnnotatedTypeResolver.forType(null),
+                ()-> AnnotatedTypeResolver.forType(annotatedT()),
+                ()-> AnnotatedTypeResolver.EMPTY.resolve((AnnotatedType) null),
+                ()-> AnnotatedTypeResolver.EMPTY.resolve((AnnotatedType[]) null)));
+        Assertions.assertSame(AnnotatedTypeResolver.EMPTY, AnnotatedTypeResolver.of(Collections.emptyMap()));
+        Assertions.assertTrue(AnnotatedTypeResolver.forType(new AnnotatedTypeImpl(Object.class)).getBindings().isEmpty());
+    }
+}
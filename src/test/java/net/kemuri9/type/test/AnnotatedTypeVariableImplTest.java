@@ -16,9 +16,11 @@
 package net.kemuri9.type.test;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedParameterizedType;
 import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.AnnotatedTypeVariable;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.Arrays;
@@ -28,6 +30,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import net.kemuri9.type.AnnotatedParameterizedTypeImpl;
+import net.kemuri9.type.AnnotatedTypeFactory;
 import net.kemuri9.type.AnnotatedTypeImpl;
 import net.kemuri9.type.AnnotatedTypeVariableImpl;
 
@@ -48,6 +52,34 @@ public class AnnotatedTypeVariableImplTest {
         }
     }
 
+    private static final class FreeAnnotatedParameterizedType extends FreeAnnotatedType implements AnnotatedParameterizedType {
+
+        private final AnnotatedType[] typeArgs;
+
+        FreeAnnotatedParameterizedType(Type type, AnnotatedType... typeArgs) {
+            super(type, null, new Annotation[0]);
+            this.typeArgs = typeArgs;
+        }
+
+        @Override
+        public AnnotatedType[] getAnnotatedActualTypeArguments() {
+            return typeArgs;
+        }
+    }
+
+    /**
+     * Create {@code E extends Enum<E>} as presented by implementations without a usable equals, such as those of java 8
+     * @param annotations annotations of the type variable
+     * @return annotated type variable whose boundary refers to itself
+     */
+    private static AnnotatedTypeVariable getRecursiveATv(Annotation... annotations) {
+        TypeVariable<?> tv = Enum.class.getTypeParameters()[0];
+        AnnotatedType[] bounds = new AnnotatedType[1];
+        AnnotatedTypeVariable atv = new FreeAnnotatedTypeVariable(tv, annotations, bounds);
+        bounds[0] = new FreeAnnotatedParameterizedType(tv.getBounds()[0], atv);
+        return atv;
+    }
+
     public static <@Ann4("T") T> void tv1(@Ann4("tv1") T t) {}
     public static <@Ann4("T") T extends CharSequence> void tv2(@Ann4("tv2") T t) {}
 
@@ -177,4 +209,45 @@ public class AnnotatedTypeVariableImplTest {
         FreeAnnotatedType annType = new FreeAnnotatedType(atv1.getType(), null, atv1.getAnnotations());
         Assertions.assertNotEquals(atv1Clone, annType);
     }
+
+    @Test
+    public void testRecursiveBounds() {
+        AnnotatedTypeVariableImpl atv = new AnnotatedTypeVariableImpl(getRecursiveATv());
+        AnnotatedTypeVariableImpl other = new AnnotatedTypeVariableImpl(getRecursiveATv());
+        Assertions.assertEquals(atv, other);
+        Assertions.assertEquals(atv.hashCode(), other.hashCode());
+        Assertions.assertEquals(atv, getRecursiveATv());
+        Assertions.assertEquals("E", atv.toString());
+
+        AnnotatedType lazy = AnnotatedTypeFactory.newLazyAnnotatedType((AnnotatedType) getRecursiveATv());
+        Assertions.assertEquals(atv, lazy);
+        Assertions.assertEquals(lazy, atv);
+        Assertions.assertEquals(atv.hashCode(), lazy.hashCode());
+
+        AnnotatedParameterizedType bound = (AnnotatedParameterizedType) atv.getAnnotatedBounds()[0];
+        Assertions.assertEquals(atv, bound.getAnnotatedActualTypeArguments()[0]);
+        Assertions.assertNotEquals(atv, new AnnotatedTypeVariableImpl(getRecursiveATv(new Ann4Impl("E"))));
+    }
+
+    @Test
+    public void testRecursiveBoundsOverridden() {
+        TypeVariable<?> tv = Enum.class.getTypeParameters()[0];
+        ParameterizedType bound = (ParameterizedType) tv.getBounds()[0];
+        AnnotatedTypeVariableImpl xInner = new AnnotatedTypeVariableImpl(tv, new Annotation[0],
+                AnnotatedTypeFactory.newAnnotatedType(bound, new Ann4Impl("x")));
+        AnnotatedTypeVariableImpl yInner = new AnnotatedTypeVariableImpl(tv, new Annotation[0],
+                AnnotatedTypeFactory.newAnnotatedType(bound, new Ann4Impl("y")));
+        Assertions.assertNotEquals(xInner, yInner);
+
+        // the outer variables differ only in the annotations on the boundaries of the nested variables
+        AnnotatedTypeVariableImpl x = new AnnotatedTypeVariableImpl(tv, new Annotation[0],
+                new AnnotatedParameterizedTypeImpl(bound, null, new Annotation[0], xInner));
+        AnnotatedTypeVariableImpl y = new AnnotatedTypeVariableImpl(tv, new Annotation[0],
+                new AnnotatedParameterizedTypeImpl(bound, null, new Annotation[0], yInner));
+        Assertions.assertNotEquals(x, y);
+        Assertions.assertNotEquals(y, x);
+        Assertions.assertEquals(x, new AnnotatedTypeVariableImpl(tv, new Annotation[0],
+                new AnnotatedParameterizedTypeImpl(bound, null, new Annotation[0], xInner)));
+        Assertions.assertNotEquals(x, new AnnotatedTypeVariableImpl(tv));
+    }
 }
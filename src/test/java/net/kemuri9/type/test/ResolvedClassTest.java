@@ -0,0 +1,157 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type.test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.kemuri9.type.GenericArrayTypeImpl;
+import net.kemuri9.type.ParameterizedTypeImpl;
+import net.kemuri9.type.ResolvedClass;
+import net.kemuri9.type.Types;
+import net.kemuri9.type.WildcardTypeImpl;
+
+public class ResolvedClassTest {
+
+    public static class Order {}
+    public static class Page<T> {
+        public List<T> items;
+        public int size;
+        public Page(T[] items) {}
+        public T get(int index) { return null; }
+        public <R> Map<T, R> index(R key) { return null; }
+    }
+    public static class OrderPage extends Page<Order> {
+        public OrderPage() { super(null); }
+    }
+    public static class Book<B> {
+        public class Chapter {
+            public Chapter(List<B> pages, int number) {}
+        }
+    }
+
+    private static Field getField(Class<?> type, String name) {
+        try {
+            return type.getField(name);
+        } catch (NoSuchFieldException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+
+    private static Type pageOf(Type arg) {
+        return new ParameterizedTypeImpl(ResolvedClassTest.class, Page.class, arg);
+    }
+
+    @Test
+    public void testFieldTypes() {
+        ResolvedClass resolved = ResolvedClass.of(pageOf(Order.class));
+        Field items = getField(Page.class, "items");
+        Assertions.assertEquals(new ParameterizedTypeImpl(null, List.class, Order.class), resolved.getFieldType(items));
+        Assertions.assertSame(resolved.getFieldType(items), resolved.getFieldType(items));
+        Assertions.assertEquals(int.class, resolved.getFieldType(getField(Page.class, "size")));
+
+        // inherited members are resolved through the supertypes
+        ResolvedClass sub = ResolvedClass.of(OrderPage.class);
+        Assertions.assertEquals(new ParameterizedTypeImpl(null, List.class, Order.class), sub.getFieldType(items));
+        Assertions.assertEquals(OrderPage.class, sub.getRawType());
+        Assertions.assertEquals(OrderPage.class, sub.getType());
+    }
+
+    @Test
+    public void testMethodTypes() {
+        ResolvedClass resolved = ResolvedClass.of(pageOf(Order.class));
+        Assertions.assertSame(resolved, ResolvedClass.of(pageOf(Order.class)));
+        Assertions.assertEquals(Page.class, resolved.getRawType());
+
+        Method get = TestUtils.getMethod(Page.class, "get", int.class);
+        Assertions.assertEquals(Order.class, resolved.getReturnType(get));
+        TestUtils.assertSameContents(new Type[] { int.class }, resolved.getParameterTypes(get));
+
+        // type variables of the method itself remain as-is
+        Method index = TestUtils.getMethod(Page.class, "index", Object.class);
+        Type methodR = index.getTypeParameters()[0];
+        Assertions.assertEquals(new ParameterizedTypeImpl(null, Map.class, Order.class, methodR), resolved.getReturnType(index));
+        TestUtils.assertSameContents(new Type[] { methodR }, resolved.getParameterTypes(index));
+
+        Constructor<?> ctor = Page.class.getConstructors()[0];
+        TestUtils.assertSameContents(new Type[] { Order[].class }, resolved.getParameterTypes(ctor));
+        // the returned array is a copy
+        resolved.getParameterTypes(ctor)[0] = null;
+        TestUtils.assertSameContents(new Type[] { Order[].class }, resolved.getParameterTypes(ctor));
+
+        // raw receivers leave their own type variables unresolved
+        ResolvedClass raw = ResolvedClass.of(Page.class);
+        Assertions.assertEquals(Page.class.getTypeParameters()[0], raw.getReturnType(get));
+        Assertions.assertTrue(raw.toString().contains(Page.class.getTypeName()));
+    }
+
+    @Test
+    public void testInnerClassConstructor() throws NoSuchMethodException {
+        Type book = new ParameterizedTypeImpl(ResolvedClassTest.class, Book.class, Order.class);
+        ResolvedClass resolved = ResolvedClass.of(new ParameterizedTypeImpl(book, Book.Chapter.class));
+        Constructor<?> chapter = Book.Chapter.class.getConstructor(Book.class, List.class, int.class);
+        // the enclosing instance has no generic type, while the declared parameters are resolved
+        Assertions.assertArrayEquals(new Type[] { Book.class, new ParameterizedTypeImpl(null, List.class, Order.class), int.class },
+                resolved.getParameterTypes(chapter));
+    }
+
+    @Test
+    public void testWildcardReceivers() {
+        ResolvedClass resolved = ResolvedClass.of(pageOf(WildcardTypeImpl.forExtends(Number.class)));
+        Assertions.assertEquals(pageOf(WildcardTypeImpl.forExtends(Number.class)), resolved.getType());
+
+        // wildcard arguments are captured, and the capture is shared by all members
+        Method get = TestUtils.getMethod(Page.class, "get", int.class);
+        Type captured = resolved.getReturnType(get);
+        Assertions.assertTrue(captured instanceof TypeVariable);
+        TestUtils.assertSameContents(new Type[] { Number.class }, ((TypeVariable<?>) captured).getBounds());
+        Assertions.assertEquals(new ParameterizedTypeImpl(null, List.class, captured),
+                resolved.getFieldType(getField(Page.class, "items")));
+        Assertions.assertEquals(new GenericArrayTypeImpl(captured),
+                resolved.getParameterTypes(Page.class.getConstructors()[0])[0]);
+        Assertions.assertEquals(Number.class, Types.erase(resolved.getParameterTypes(Page.class.getConstructors()[0])[0])
+                .getComponentType());
+
+        // unbounded wildcards are also captured
+        Type unbounded = ResolvedClass.of(pageOf(WildcardTypeImpl.FULL_WILDCARD)).getReturnType(get);
+        Assertions.assertTrue(unbounded instanceof TypeVariable);
+        Assertions.assertNotEquals(captured, unbounded);
+    }
+
+    @Test
+    public void testInvalid() {
+        ResolvedClass resolved = ResolvedClass.of(pageOf(Order.class));
+        TestUtils.assertThrows(IllegalArgumentException.class, Arrays.asList(
+                ()-> ResolvedClass.of(null),
+                ()-> ResolvedClass.of(Page.class.getTypeParameters()[0]),
+                ()-> ResolvedClass.of(new ParameterizedTypeImpl(null, Map.class, String.class, String.class, String.class)),
+                ()-> resolved.getFieldType(null),
+                ()-> resolved.getFieldType(getField(Integer.class, "MAX_VALUE")),
+                ()-> resolved.getParameterTypes(null),
+                ()-> resolved.getParameterTypes(OrderPage.class.getConstructors()[0]),
+                ()-> resolved.getReturnType(null),
+                ()-> resolved.getReturnType(TestUtils.getMethod(String.class, "length"))));
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type.test;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.kemuri9.type.ParameterizedTypeImpl;
+import net.kemuri9.type.TypeBindings;
+import net.kemuri9.type.TypeResolver;
+import net.kemuri9.type.TypeVariableImpl;
+
+public class TypeBindingsTest {
+
+    public static class Outer<O> {
+        public class Inner<I> {}
+    }
+
+    public static <A, B, C, D, E, F, G, H, J, K> void many() {}
+
+    private static final TypeVariable<?> O = Outer.class.getTypeParameters()[0];
+    private static final TypeVariable<?> I = Outer.Inner.class.getTypeParameters()[0];
+    private static final TypeVariable<?>[] MANY = TestUtils.getMethod(TypeBindingsTest.class, "many").getTypeParameters();
+
+    @Test
+    public void testLayers() {
+        TypeBindings outer = TypeBindings.EMPTY.with(O, String.class);
+        TypeBindings inner = outer.with(I, Long.class);
+        Assertions.assertEquals(String.class, inner.get(O));
+        Assertions.assertEquals(Long.class, inner.get(I));
+        Assertions.assertNull(outer.get(I));
+        Assertions.assertTrue(TypeBindings.EMPTY.isEmpty());
+        Assertions.assertFalse(outer.isEmpty());
+        Assertions.assertNull(TypeBindings.EMPTY.get(O));
+
+        // upper layers shadow those beneath them, without changing them
+        TypeBindings shadowed = inner.with(O, Integer.class);
+        Assertions.assertEquals(Integer.class, shadowed.get(O));
+        Assertions.assertEquals(String.class, inner.get(O));
+        Map<TypeVariable<?>, Type> expected = new HashMap<>();
+        expected.put(O, Integer.class);
+        expected.put(I, Long.class);
+        Assertions.assertEquals(expected, shadowed.toMap());
+        Assertions.assertEquals(TypeBindings.of(expected), shadowed);
+        Assertions.assertEquals(TypeBindings.of(expected).hashCode(), shadowed.hashCode());
+        Assertions.assertNotEquals(inner, shadowed);
+        Assertions.assertSame(inner, inner.with(new TypeVariable<?>[0], new Type[0]));
+        Assertions.assertTrue(shadowed.toString().startsWith("TypeBindings"));
+    }
+
+    @Test
+    public void testWithArguments() {
+        ParameterizedType outerString = new ParameterizedTypeImpl(TypeBindingsTest.class, Outer.class, String.class);
+        ParameterizedType inner = new ParameterizedTypeImpl(outerString, Outer.Inner.class, Long.class);
+        TypeBindings bindings = TypeBindings.EMPTY.withArguments(inner);
+        Assertions.assertEquals(String.class, bindings.get(O));
+        Assertions.assertEquals(Long.class, bindings.get(I));
+
+        // library type variables look up the bindings of the declared type variables
+        Assertions.assertEquals(Long.class, bindings.get(new TypeVariableImpl<>(I)));
+        Assertions.assertEquals(Long.class, TypeBindings.of(Collections.singletonMap(new TypeVariableImpl<>(I), Long.class)).get(I));
+
+        TypeResolver resolver = TypeResolver.forBindings(bindings);
+        Assertions.assertSame(bindings, resolver.getTypeBindings());
+        Assertions.assertEquals(new ParameterizedTypeImpl(null, List.class, Long.class),
+                resolver.resolve(new ParameterizedTypeImpl(null, List.class, I)));
+        Assertions.assertSame(TypeResolver.EMPTY, TypeResolver.forBindings(TypeBindings.EMPTY));
+        Assertions.assertEquals(bindings.toMap(), TypeResolver.forType(inner).getBindings());
+    }
+
+    @Test
+    public void testLargeAndDeep() {
+        Type[] types = new Type[MANY.length];
+        Arrays.fill(types, String.class);
+        TypeBindings large = TypeBindings.EMPTY.with(O, Long.class).with(MANY, types);
+        for (TypeVariable<?> variable : MANY) {
+            Assertions.assertEquals(String.class, large.get(variable));
+        }
+        Assertions.assertEquals(Long.class, large.get(O));
+        Assertions.assertEquals(MANY.length + 1, large.toMap().size());
+
+        // deep chains are flattened, retaining the shadowing of bindings
+        TypeBindings deep = TypeBindings.EMPTY;
+        for (int idx = 0; idx < 50; ++idx) {
+            deep = deep.with(MANY[idx % MANY.length], (idx % 2 == 0) ? Integer.class : Long.class);
+        }
+        Assertions.assertEquals(Long.class, deep.get(MANY[9]));
+        Assertions.assertEquals(Integer.class, deep.get(MANY[8]));
+        Assertions.assertEquals(MANY.length, deep.toMap().size());
+    }
+
+    @Test
+    public void testInvalid() {
+        TestUtils.assertThrows(IllegalArgumentException.class, Arrays.asList(
+                ()-> TypeBindings.of(null),
+                ()-> TypeBindings.of(Collections.singletonMap(O, null)),
+                ()-> TypeBindings.of(Collections.singletonMap(null, String.class)),
+                ()-> TypeBindings.EMPTY.get(null),
+                ()-> TypeBindings.EMPTY.with(null, String.class),
+                ()-> TypeBindings.EMPTY.with(O, null),
+                ()-> TypeBindings.EMPTY.with(null, new Type[0]),
+                ()-> TypeBindings.EMPTY.with(new TypeVariable<?>[] { O }, null),
+                ()-> TypeBindings.EMPTY.with(new TypeVariable<?>[] { O }, new Type[] { null }),
+                ()-> TypeBindings.EMPTY.with(new TypeVariable<?>[] { O }, new Type[0]),
+                ()-> TypeBindings.EMPTY.withArguments(null),
+                ()-> TypeBindings.EMPTY.withArguments(new ParameterizedTypeImpl(null, List.class, String.class, String.class)),
+                ()-> TypeResolver.forBindings(null)));
+    }
+}
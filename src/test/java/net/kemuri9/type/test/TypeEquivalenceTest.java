@@ -0,0 +1,103 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type.test;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.kemuri9.type.GenericArrayTypeImpl;
+import net.kemuri9.type.ParameterizedTypeImpl;
+import net.kemuri9.type.TypeEquivalence;
+import net.kemuri9.type.WildcardTypeImpl;
+
+public class TypeEquivalenceTest {
+
+    public static class Outer<O> {
+        public class Inner {}
+    }
+
+    private static final Type MAP_WILDCARDS = new ParameterizedTypeImpl(null, Map.class,
+            WildcardTypeImpl.FULL_WILDCARD, WildcardTypeImpl.FULL_WILDCARD);
+    private static final Type MAP_EXTENDS_OBJECT = new ParameterizedTypeImpl(null, Map.class,
+            WildcardTypeImpl.forExtends(Object.class), new WildcardTypeImpl(new Type[0], new Type[] { Object.class }));
+
+    @Test
+    public void testNormalized() {
+        TypeEquivalence equivalence = TypeEquivalence.NORMALIZED;
+        Assertions.assertTrue(equivalence.equivalent(MAP_WILDCARDS, MAP_EXTENDS_OBJECT));
+        Assertions.assertEquals(equivalence.hash(MAP_WILDCARDS), equivalence.hash(MAP_EXTENDS_OBJECT));
+        GenericArrayType classArray = ()-> String.class;
+        Assertions.assertTrue(equivalence.equivalent(classArray, String[].class));
+        Assertions.assertFalse(equivalence.equivalent(Map.class, MAP_WILDCARDS));
+        Assertions.assertFalse(equivalence.equivalent(MAP_WILDCARDS,
+                new ParameterizedTypeImpl(null, Map.class, String.class, WildcardTypeImpl.FULL_WILDCARD)));
+        Assertions.assertSame(Map.class, equivalence.canonicalize(Map.class));
+    }
+
+    @Test
+    public void testRawAsWildcards() {
+        TypeEquivalence equivalence = TypeEquivalence.RAW_AS_WILDCARDS;
+        Assertions.assertTrue(equivalence.equivalent(Map.class, MAP_WILDCARDS));
+        Assertions.assertTrue(equivalence.equivalent(Map.class, MAP_EXTENDS_OBJECT));
+        Assertions.assertEquals(equivalence.hash(Map.class), equivalence.hash(MAP_EXTENDS_OBJECT));
+        Assertions.assertEquals(MAP_WILDCARDS, equivalence.canonicalize(Map.class));
+        Assertions.assertSame(String.class, equivalence.canonicalize(String.class));
+
+        // raw types nested within other types, and inner classes of generic classes
+        Type listOfMaps = new ParameterizedTypeImpl(null, List.class, MAP_WILDCARDS);
+        Assertions.assertTrue(equivalence.equivalent(new ParameterizedTypeImpl(null, List.class, Map.class), listOfMaps));
+        Assertions.assertTrue(equivalence.equivalent(Map[].class, new GenericArrayTypeImpl(MAP_WILDCARDS)));
+        Type outerInner = new ParameterizedTypeImpl(new ParameterizedTypeImpl(TypeEquivalenceTest.class, Outer.class,
+                WildcardTypeImpl.FULL_WILDCARD), Outer.Inner.class);
+        Assertions.assertTrue(equivalence.equivalent(Outer.Inner.class, outerInner));
+        Assertions.assertFalse(TypeEquivalence.NORMALIZED.equivalent(Outer.Inner.class, outerInner));
+    }
+
+    @Test
+    public void testKeys() {
+        Map<TypeEquivalence.Key, String> handlers = new HashMap<>();
+        handlers.put(TypeEquivalence.RAW_AS_WILDCARDS.wrap(Map.class), "map");
+        Assertions.assertEquals("map", handlers.get(TypeEquivalence.RAW_AS_WILDCARDS.wrap(MAP_EXTENDS_OBJECT)));
+        Assertions.assertNull(handlers.get(TypeEquivalence.NORMALIZED.wrap(MAP_WILDCARDS)));
+
+        TypeEquivalence.Key key = TypeEquivalence.NORMALIZED.wrap(MAP_EXTENDS_OBJECT);
+        Assertions.assertSame(MAP_EXTENDS_OBJECT, key.getType());
+        Assertions.assertEquals(MAP_WILDCARDS, key.getCanonical());
+        Assertions.assertSame(TypeEquivalence.NORMALIZED, key.getEquivalence());
+        Assertions.assertEquals(key, TypeEquivalence.NORMALIZED.wrap(MAP_WILDCARDS));
+        Assertions.assertNotEquals(key, TypeEquivalence.NORMALIZED.wrap(Map.class));
+        Assertions.assertNotEquals(key, MAP_WILDCARDS);
+        Assertions.assertEquals(MAP_EXTENDS_OBJECT.getTypeName(), key.toString());
+    }
+
+    @Test
+    public void testInvalid() {
+        TestUtils.assertThrows(IllegalArgumentException.class, Arrays.asList(
+                ()-> TypeEquivalence.NORMALIZED.canonicalize(null),
+                ()-> TypeEquivalence.NORMALIZED.equivalent(null, String.class),
+                ()-> TypeEquivalence.RAW_AS_WILDCARDS.equivalent(String.class, null),
+                ()-> TypeEquivalence.NORMALIZED.hash(null),
+                ()-> TypeEquivalence.RAW_AS_WILDCARDS.wrap(null)));
+        Assertions.assertThrows(UnsupportedOperationException.class, ()-> TypeEquivalence.NORMALIZED.wrap(new UnknownType()));
+    }
+}
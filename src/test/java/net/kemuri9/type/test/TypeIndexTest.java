@@ -0,0 +1,135 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type.test;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.kemuri9.type.GenericArrayTypeImpl;
+import net.kemuri9.type.ParameterizedTypeImpl;
+import net.kemuri9.type.TypeIndex;
+import net.kemuri9.type.WildcardTypeImpl;
+
+public class TypeIndexTest {
+
+    public interface Handler<H> {}
+    public static class StringListHandler implements Handler<List<String>> {}
+    @SuppressWarnings("rawtypes")
+    public static class RawHandler implements Handler {}
+
+    public static <T> void variables() {}
+
+    private static final TypeVariable<?> T = TestUtils.getMethod(TypeIndexTest.class, "variables").getTypeParameters()[0];
+
+    private static Type pt(Class<?> raw, Type... args) {
+        return new ParameterizedTypeImpl(raw.getDeclaringClass(), raw, args);
+    }
+
+    private static TypeIndex<String> newIndex() {
+        TypeIndex<String> index = new TypeIndex<>();
+        index.register(pt(Handler.class, pt(List.class, String.class)), "list of strings");
+        index.register(pt(Handler.class, pt(List.class, T)), "list of any");
+        index.register(pt(Handler.class, WildcardTypeImpl.forExtends(Number.class)), "numbers");
+        index.register(pt(Handler.class, Integer.class), "integers");
+        index.register(Handler.class, "raw");
+        index.register(Object.class, "objects");
+        return index;
+    }
+
+    @Test
+    public void testFind() {
+        TypeIndex<String> index = newIndex();
+        Assertions.assertEquals(6, index.size());
+        Assertions.assertEquals(Arrays.asList("list of strings", "list of any", "raw", "objects"),
+                index.find(StringListHandler.class));
+        Assertions.assertEquals(Arrays.asList("list of any", "raw", "objects"),
+                index.find(pt(Handler.class, pt(List.class, Long.class))));
+        Assertions.assertEquals(Arrays.asList("numbers", "integers", "raw", "objects"),
+                index.find(pt(Handler.class, Integer.class)));
+        Assertions.assertEquals(Arrays.asList("numbers", "raw", "objects"),
+                index.find(pt(Handler.class, WildcardTypeImpl.forExtends(Integer.class))));
+        Assertions.assertEquals(Collections.singletonList("objects"), index.find(String.class));
+        Assertions.assertEquals(Collections.emptyList(), index.find(int.class));
+    }
+
+    @Test
+    public void testRawQueries() {
+        // raw types are compatible with any parameterization through unchecked conversion
+        TypeIndex<String> index = newIndex();
+        Assertions.assertEquals(Arrays.asList("list of strings", "numbers", "integers", "raw", "objects"),
+                index.find(RawHandler.class));
+    }
+
+    @Test
+    public void testUnkeyed() {
+        TypeIndex<String> index = new TypeIndex<>();
+        index.register(new GenericArrayTypeImpl(T), "arrays");
+        index.register(T, "anything");
+        index.register(Number[].class, "number arrays");
+        Assertions.assertEquals(Arrays.asList("arrays", "anything", "number arrays"), index.find(Integer[].class));
+        Assertions.assertEquals(Collections.singletonList("anything"), index.find(String.class));
+        // primitives are not bound by type patterns
+        Assertions.assertEquals(Collections.emptyList(), index.find(int.class));
+        Assertions.assertTrue(index.toString().startsWith("TypeIndex"));
+    }
+
+    @Test
+    public void testConcurrentRegistration() throws Exception {
+        TypeIndex<Integer> index = new TypeIndex<>();
+        Class<?>[] args = { String.class, Integer.class, Long.class, Double.class };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int idx = 0; idx < 400; ++idx) {
+                final int value = idx;
+                futures.add(executor.submit(()-> index.register(pt(Handler.class, args[value % args.length]), value)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        Assertions.assertEquals(400, index.size());
+        List<Integer> found = index.find(pt(Handler.class, Long.class));
+        Assertions.assertEquals(100, found.size());
+        for (Integer value : found) {
+            Assertions.assertEquals(2, value % args.length);
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        TypeIndex<String> index = new TypeIndex<>();
+        TestUtils.assertThrows(IllegalArgumentException.class, Arrays.asList(
+                ()-> index.register(null, "value"),
+                ()-> index.register(String.class, null),
+                ()-> index.find(null)));
+        Assertions.assertThrows(UnsupportedOperationException.class, ()-> index.register(new UnknownType(), "value"));
+    }
+}
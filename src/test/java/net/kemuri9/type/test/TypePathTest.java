@@ -0,0 +1,166 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type.test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import net.kemuri9.type.AnnotatedTypeFactory;
+import net.kemuri9.type.TypePath;
+
+public class TypePathTest {
+
+    public class Inner<T> {}
+
+    public static void map(@Ann4("Map") Map<@Ann4("K") String, @Ann4("List") List<@Ann4("WC") ? super @Ann4("V") Integer> @Ann4("Array") []> map) {}
+    public static void nested(@Ann4("Outer") TypePathTest.@Ann4("Inner") Inner<@Ann4("Arg") String> nested) {}
+
+    private static void assertNavigate(AnnotatedType type, String path, String expected) {
+        AnnotatedType found = TypePath.fromString(path).navigate(type);
+        if (expected == null) {
+            Assertions.assertNull(found, path);
+        } else {
+            Assertions.assertArrayEquals(new Annotation[] { new Ann4Impl(expected) }, found.getAnnotations(), path);
+        }
+    }
+
+    private static List<AnnotatedType> getTypes(String name, Class<?> argType) {
+        AnnotatedType type = TestUtils.getMethod(TypePathTest.class, name, argType).getAnnotatedParameterTypes()[0];
+        return Arrays.asList(type, AnnotatedTypeFactory.newAnnotatedType(type), AnnotatedTypeFactory.newLazyAnnotatedType(type));
+    }
+
+    @Test
+    public void testBuild() {
+        TypePath path = TypePath.EMPTY.typeArgument(12).wildcard().array().inner();
+        Assertions.assertEquals(4, path.getLength());
+        Assertions.assertEquals(TypePath.Kind.TYPE_ARGUMENT, path.getKind(0));
+        Assertions.assertEquals(12, path.getTypeArgumentIndex(0));
+        Assertions.assertEquals(TypePath.Kind.WILDCARD, path.getKind(1));
+        Assertions.assertEquals(TypePath.Kind.ARRAY, path.getKind(2));
+        Assertions.assertEquals(TypePath.Kind.INNER_TYPE, path.getKind(3));
+        Assertions.assertEquals(0, path.getTypeArgumentIndex(3));
+        Assertions.assertEquals("12;*[.", path.toString());
+        // paths are immutable
+        Assertions.assertEquals(0, TypePath.EMPTY.getLength());
+    }
+
+    @Test
+    public void testBuildInvalid() {
+        TypePath max = TypePath.EMPTY;
+        for (int idx = 0; idx < 255; ++idx) {
+            max = max.array();
+        }
+        TypePath maxLength = max;
+        List<Executable> invalid = Arrays.asList(
+                ()-> TypePath.EMPTY.typeArgument(-1),
+                ()-> TypePath.EMPTY.typeArgument(256),
+                ()-> maxLength.array(),
+                ()-> maxLength.inner()
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, ()-> maxLength.getKind(255));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, ()-> TypePath.EMPTY.getTypeArgumentIndex(0));
+    }
+
+    @Test
+    public void testEquivalence() {
+        TypePath path1 = TypePath.fromString("0;*");
+        TypePath path2 = TypePath.EMPTY.typeArgument(0).wildcard();
+        Assertions.assertEquals(path1, path1);
+        Assertions.assertEquals(path1, path2);
+        Assertions.assertEquals(path1.hashCode(), path2.hashCode());
+        Assertions.assertNotEquals(path1, TypePath.fromString("1;*"));
+        Assertions.assertNotEquals(path1, TypePath.fromString("0;"));
+        Assertions.assertNotEquals(path1, "0;*");
+    }
+
+    @Test
+    public void testFromBytes() {
+        // leading byte to verify the offset, then path_length 3 with ARRAY, TYPE_ARGUMENT 2, WILDCARD
+        byte[] bytes = new byte[] { 99, 3, 0, 0, 3, 2, 2, 0 };
+        TypePath path = TypePath.fromBytes(bytes, 1);
+        Assertions.assertEquals(TypePath.fromString("[2;*"), path);
+        Assertions.assertSame(TypePath.EMPTY, TypePath.fromBytes(new byte[] { 0 }, 0));
+    }
+
+    @Test
+    public void testFromBytesInvalid() {
+        List<Executable> invalid = Arrays.asList(
+                ()-> TypePath.fromBytes(null, 0),
+                ()-> TypePath.fromBytes(new byte[0], 0),
+                ()-> TypePath.fromBytes(new byte[] { 0 }, -1),
+                ()-> TypePath.fromBytes(new byte[] { 2, 0, 0 }, 0),
+                ()-> TypePath.fromBytes(new byte[] { 1, 4, 0 }, 0),
+                ()-> TypePath.fromBytes(new byte[] { 1, 0, 1 }, 0)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testFromString() {
+        for (String str : new String[] { "", "[", ".", "*", "0;", "255;", "1;[[0;*.", "..[" }) {
+            Assertions.assertEquals(str, TypePath.fromString(str).toString());
+        }
+        Assertions.assertSame(TypePath.EMPTY, TypePath.fromString(""));
+    }
+
+    @Test
+    public void testFromStringInvalid() {
+        List<Executable> invalid = Arrays.asList(
+                ()-> TypePath.fromString(null),
+                ()-> TypePath.fromString(";"),
+                ()-> TypePath.fromString("1"),
+                ()-> TypePath.fromString("1["),
+                ()-> TypePath.fromString("256;"),
+                ()-> TypePath.fromString("a"),
+                ()-> TypePath.fromString(String.join("", java.util.Collections.nCopies(256, "[")))
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testNavigate() {
+        for (AnnotatedType type : getTypes("map", Map.class)) {
+            assertNavigate(type, "", "Map");
+            assertNavigate(type, "0;", "K");
+            assertNavigate(type, "1;", "Array");
+            assertNavigate(type, "1;[", "List");
+            assertNavigate(type, "1;[0;", "WC");
+            assertNavigate(type, "1;[0;*", "V");
+            assertNavigate(type, "2;", null);
+            assertNavigate(type, "[", null);
+            assertNavigate(type, "*", null);
+            assertNavigate(type, ".", null);
+            assertNavigate(type, "0;0;", null);
+            assertNavigate(type, "1;[0;*[", null);
+        }
+        for (AnnotatedType type : getTypes("nested", Inner.class)) {
+            assertNavigate(type, "", "Outer");
+            assertNavigate(type, ".", "Inner");
+            assertNavigate(type, ".0;", "Arg");
+            assertNavigate(type, "0;", null);
+            assertNavigate(type, "..", null);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> TypePath.EMPTY.navigate(null));
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type.test;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.kemuri9.type.GenericArrayTypeImpl;
+import net.kemuri9.type.ParameterizedTypeImpl;
+import net.kemuri9.type.TypePattern;
+import net.kemuri9.type.WildcardTypeImpl;
+
+public class TypePatternTest {
+
+    public interface Handler<H> {}
+    public static class Outer<O> {
+        public class Inner<I> {}
+    }
+
+    public static <T, U> void variables() {}
+
+    private static final TypeVariable<?>[] VARIABLES = TestUtils.getMethod(TypePatternTest.class, "variables").getTypeParameters();
+    private static final TypeVariable<?> T = VARIABLES[0];
+    private static final TypeVariable<?> U = VARIABLES[1];
+
+    private static Type pt(Class<?> raw, Type... args) {
+        return new ParameterizedTypeImpl(raw.getDeclaringClass(), raw, args);
+    }
+
+    @Test
+    public void testMatch() {
+        TypePattern pattern = TypePattern.compile(pt(Handler.class, pt(List.class, T)));
+        TestUtils.assertSameContents(new Type[] { T }, pattern.getVariables());
+        Assertions.assertEquals(0, pattern.getSlot(T));
+        Assertions.assertEquals(-1, pattern.getSlot(U));
+
+        TestUtils.assertSameContents(new Type[] { String.class },
+                pattern.match(pt(Handler.class, pt(List.class, String.class))));
+        Type listOfMaps = pt(List.class, pt(Map.class, String.class, Long.class));
+        Assertions.assertEquals(pt(Map.class, String.class, Long.class),
+                pattern.matchBindings(pt(Handler.class, listOfMaps)).get(T));
+        Assertions.assertNull(pattern.match(pt(Handler.class, pt(Set.class, String.class))));
+        Assertions.assertNull(pattern.matchBindings(pt(Handler.class, String.class)));
+        Assertions.assertFalse(pattern.matches(Handler.class));
+        Assertions.assertFalse(pattern.matches(pt(List.class, pt(List.class, String.class))));
+    }
+
+    @Test
+    public void testRepeatedVariables() {
+        TypePattern pattern = TypePattern.compile(pt(Map.class, T, pt(List.class, T)));
+        Assertions.assertTrue(pattern.matches(pt(Map.class, String.class, pt(List.class, String.class))));
+        Assertions.assertFalse(pattern.matches(pt(Map.class, String.class, pt(List.class, Long.class))));
+
+        // primitives are not bound
+        TypePattern arrays = TypePattern.compile(new GenericArrayTypeImpl(T));
+        TestUtils.assertSameContents(new Type[] { String.class }, arrays.match(String[].class));
+        Assertions.assertEquals(pt(List.class, String.class),
+                arrays.match(new GenericArrayTypeImpl(pt(List.class, String.class)))[0]);
+        Assertions.assertFalse(arrays.matches(int[].class));
+        Assertions.assertFalse(arrays.matches(String.class));
+    }
+
+    @Test
+    public void testWildcardsAndOwners() {
+        TypePattern pattern = TypePattern.compile(pt(List.class, WildcardTypeImpl.forExtends(T)));
+        TestUtils.assertSameContents(new Type[] { Number.class },
+                pattern.match(pt(List.class, WildcardTypeImpl.forExtends(Number.class))));
+        Assertions.assertFalse(pattern.matches(pt(List.class, WildcardTypeImpl.forSuper(Number.class))));
+        Assertions.assertFalse(pattern.matches(pt(List.class, Number.class)));
+
+        // wildcards are not bound
+        TypePattern list = TypePattern.compile(pt(List.class, T));
+        Assertions.assertFalse(list.matches(pt(List.class, WildcardTypeImpl.FULL_WILDCARD)));
+        Assertions.assertFalse(list.matches(pt(List.class, WildcardTypeImpl.forExtends(Number.class))));
+        Assertions.assertTrue(list.matches(pt(List.class, Number.class)));
+
+        // patterns and matched types are normalized
+        TypePattern full = TypePattern.compile(pt(Map.class, T, new WildcardTypeImpl(new Type[0], new Type[] { Object.class })));
+        Assertions.assertTrue(full.matches(pt(Map.class, String.class, WildcardTypeImpl.FULL_WILDCARD)));
+
+        Type outer = new ParameterizedTypeImpl(TypePatternTest.class, Outer.class, T);
+        TypePattern inner = TypePattern.compile(new ParameterizedTypeImpl(outer, Outer.Inner.class, U));
+        Type outerString = new ParameterizedTypeImpl(TypePatternTest.class, Outer.class, String.class);
+        TestUtils.assertSameContents(new Type[] { String.class, Long.class },
+                inner.match(new ParameterizedTypeImpl(outerString, Outer.Inner.class, Long.class)));
+
+        // exact owners must also match
+        TypePattern exactOwner = TypePattern.compile(new ParameterizedTypeImpl(outerString, Outer.Inner.class, U));
+        Type outerLong = new ParameterizedTypeImpl(TypePatternTest.class, Outer.class, Long.class);
+        Assertions.assertFalse(exactOwner.matches(new ParameterizedTypeImpl(outerLong, Outer.Inner.class, Long.class)));
+    }
+
+    @Test
+    public void testSpecifiedVariables() {
+        // variables that are not pattern variables only match themselves
+        TypePattern pattern = TypePattern.compile(pt(Map.class, T, U), U);
+        TestUtils.assertSameContents(new Type[] { U }, pattern.getVariables());
+        TestUtils.assertSameContents(new Type[] { String.class }, pattern.match(pt(Map.class, T, String.class)));
+        Assertions.assertFalse(pattern.matches(pt(Map.class, String.class, String.class)));
+
+        // variables not occurring in the pattern are unbound
+        TypePattern unbound = TypePattern.compile(pt(List.class, T), U, T);
+        TestUtils.assertSameContents(new Type[] { null, String.class }, unbound.match(pt(List.class, String.class)));
+        Assertions.assertEquals(1, unbound.matchBindings(pt(List.class, String.class)).size());
+        Assertions.assertTrue(unbound.toString().startsWith("TypePattern"));
+        Assertions.assertEquals(pt(List.class, T), unbound.getPattern());
+    }
+
+    @Test
+    public void testInvalid() {
+        TypePattern pattern = TypePattern.compile(pt(List.class, T));
+        TestUtils.assertThrows(IllegalArgumentException.class, Arrays.asList(
+                ()-> TypePattern.compile(null),
+                ()-> TypePattern.compile(null, T),
+                ()-> TypePattern.compile(T, (TypeVariable<?>[]) null),
+                ()-> TypePattern.compile(T, T, null),
+                ()-> TypePattern.compile(T, T, T),
+                ()-> pattern.getSlot(null),
+                ()-> pattern.match(null),
+                ()-> pattern.matchBindings(null),
+                ()-> pattern.matches(null)));
+        Assertions.assertThrows(UnsupportedOperationException.class, ()-> pattern.match(new UnknownType()));
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type.test;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import net.kemuri9.type.GenericArrayTypeImpl;
+import net.kemuri9.type.ParameterizedTypeImpl;
+import net.kemuri9.type.TypeResolver;
+import net.kemuri9.type.TypeVariableImpl;
+import net.kemuri9.type.WildcardTypeImpl;
+
+public class TypeResolverTest {
+
+    public interface Repo<T, ID> {}
+    public static class User {}
+    public static class Foo implements Repo<User, Long> {}
+    public static abstract class Base<A> implements Repo<List<A>, A[]> {}
+    public static class Sub extends Base<String> {}
+    @SuppressWarnings("rawtypes")
+    public static class RawSub extends Base {}
+    public static class Outer<O> {
+        public class Inner<I> {}
+    }
+
+    public static <T> void generic(Map<String, T> map, List<? extends T> ext, T[] arr) {}
+
+    private static final TypeVariable<?> REPO_T = Repo.class.getTypeParameters()[0];
+    private static final TypeVariable<?> REPO_ID = Repo.class.getTypeParameters()[1];
+
+    private static Type[] getGenericTypes() {
+        return TestUtils.getMethod(TypeResolverTest.class, "generic", Map.class, List.class, Object[].class)
+                .getGenericParameterTypes();
+    }
+
+    @Test
+    public void testForClass() {
+        TypeResolver resolver = TypeResolver.forType(Foo.class);
+        Assertions.assertEquals(User.class, resolver.resolve(REPO_T));
+        Assertions.assertEquals(Long.class, resolver.resolve(REPO_ID));
+        Assertions.assertSame(resolver, TypeResolver.forType(Foo.class));
+
+        TypeResolver subResolver = TypeResolver.forType(Sub.class);
+        Assertions.assertEquals(String.class, subResolver.resolve(Base.class.getTypeParameters()[0]));
+        Assertions.assertEquals(new ParameterizedTypeImpl(null, List.class, String.class), subResolver.resolve(REPO_T));
+        // generic arrays of classes resolve to the array class
+        Assertions.assertEquals(String[].class, subResolver.resolve(REPO_ID));
+
+        // raw inheritance does not bind
+        TypeResolver rawResolver = TypeResolver.forType(RawSub.class);
+        Assertions.assertSame(REPO_T, rawResolver.resolve(REPO_T));
+        Assertions.assertSame(TypeResolver.EMPTY, TypeResolver.forType(Object.class));
+    }
+
+    @Test
+    public void testForParameterizedType() {
+        TypeResolver resolver = TypeResolver.forType(new ParameterizedTypeImpl(null, ArrayList.class, String.class));
+        Assertions.assertEquals(String.class, resolver.resolve(Iterable.class.getTypeParameters()[0]));
+        Assertions.assertEquals(String.class, resolver.resolve(ArrayList.class.getTypeParameters()[0]));
+
+        ParameterizedType outer = new ParameterizedTypeImpl(null, Outer.class, String.class);
+        TypeResolver inner = TypeResolver.forType(new ParameterizedTypeImpl(outer, Outer.Inner.class, Integer.class));
+        Assertions.assertEquals(String.class, inner.resolve(Outer.class.getTypeParameters()[0]));
+        Assertions.assertEquals(Integer.class, inner.resolve(Outer.Inner.class.getTypeParameters()[0]));
+    }
+
+    @Test
+    public void testForTypeInvalid() {
+        List<Executable> invalid = Arrays.asList(
+                ()-> TypeResolver.forType(null),
+                ()-> TypeResolver.forType(REPO_T),
+                ()-> TypeResolver.forType(WildcardTypeImpl.FULL_WILDCARD),
+                ()-> TypeResolver.forType(new ParameterizedTypeImpl(null, Repo.class, String.class))
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testGetBindings() {
+        Map<TypeVariable<?>, Type> bindings = TypeResolver.getBindings(ArrayList.class, Iterable.class);
+        Assertions.assertEquals(Collections.singletonMap(Iterable.class.getTypeParameters()[0],
+                ArrayList.class.getTypeParameters()[0]), bindings);
+        Assertions.assertSame(bindings, TypeResolver.getBindings(ArrayList.class, Iterable.class));
+        Assertions.assertEquals(Collections.emptyMap(), TypeResolver.getBindings(Foo.class, Object.class));
+        Assertions.assertEquals(Collections.emptyMap(), TypeResolver.getBindings(Repo.class, Repo.class));
+        Assertions.assertThrows(UnsupportedOperationException.class, ()-> bindings.clear());
+
+        List<Executable> invalid = Arrays.asList(
+                ()-> TypeResolver.getBindings(null, Object.class),
+                ()-> TypeResolver.getBindings(Foo.class, null),
+                ()-> TypeResolver.getBindings(Foo.class, List.class)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testOf() {
+        Type[] types = getGenericTypes();
+        TypeVariable<?> t = TestUtils.getMethod(TypeResolverTest.class, "generic", Map.class, List.class, Object[].class)
+                .getTypeParameters()[0];
+        // bindings from equivalent type variable implementations apply to the declared type variables
+        TypeResolver resolver = TypeResolver.of(Collections.singletonMap(new TypeVariableImpl<>(t), Integer.class));
+        Assertions.assertEquals(new ParameterizedTypeImpl(null, Map.class, String.class, Integer.class), resolver.resolve(types[0]));
+        Assertions.assertEquals(new ParameterizedTypeImpl(null, List.class, WildcardTypeImpl.forExtends(Integer.class)),
+                resolver.resolve(types[1]));
+        Assertions.assertEquals(Integer[].class, resolver.resolve(types[2]));
+        Assertions.assertEquals(Collections.singletonMap(t, Integer.class), resolver.getBindings());
+
+        TypeResolver listResolver = TypeResolver.of(Collections.singletonMap(t, new ParameterizedTypeImpl(null, List.class, t)));
+        Assertions.assertEquals(GenericArrayTypeImpl.withComponent(new ParameterizedTypeImpl(null, List.class, t)),
+                listResolver.resolve(types[2]));
+
+        Assertions.assertSame(TypeResolver.EMPTY, TypeResolver.of(Collections.emptyMap()));
+    }
+
+    @Test
+    public void testOfInvalid() {
+        List<Executable> invalid = Arrays.asList(
+                ()-> TypeResolver.of(null),
+                ()-> TypeResolver.of(Collections.singletonMap(null, String.class)),
+                ()-> TypeResolver.of(Collections.singletonMap(REPO_T, null)),
+                ()-> TypeResolver.EMPTY.resolve((Type) null),
+                ()-> TypeResolver.EMPTY.resolve((Type[]) null),
+                ()-> TypeResolver.EMPTY.resolve(String.class, null)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testResolveShares() {
+        Type[] types = getGenericTypes();
+        // nothing to resolve returns the same instances
+        TypeResolver resolver = TypeResolver.forType(Foo.class);
+        Assertions.assertSame(types[0], resolver.resolve(types[0]));
+        Assertions.assertSame(types, resolver.resolve(types));
+
+        // only the changed levels are recreated
+        TypeVariable<?> t = (TypeVariable<?>) ((ParameterizedType) types[0]).getActualTypeArguments()[1];
+        Type listOfString = new ParameterizedTypeImpl(null, List.class, String.class);
+        ParameterizedType map = new ParameterizedTypeImpl(null, Map.class, listOfString, t);
+        ParameterizedType resolved = (ParameterizedType) TypeResolver.of(Collections.singletonMap(t, Long.class)).resolve(map);
+        Assertions.assertSame(listOfString, resolved.getActualTypeArguments()[0]);
+        Assertions.assertSame(Long.class, resolved.getActualTypeArguments()[1]);
+    }
+
+    @Test
+    public void testResolveWildcards() {
+        Type[] types = getGenericTypes();
+        TypeVariable<?> t = TestUtils.getMethod(TypeResolverTest.class, "generic", Map.class, List.class, Object[].class)
+                .getTypeParameters()[0];
+        // wildcard bindings are flattened into wildcard boundaries
+        TypeResolver resolver = TypeResolver.of(Collections.singletonMap(t, WildcardTypeImpl.forExtends(Number.class)));
+        Assertions.assertEquals(new ParameterizedTypeImpl(null, List.class, WildcardTypeImpl.forExtends(Number.class)),
+                resolver.resolve(types[1]));
+        // resolving to an extension of Object is the full wildcard
+        TypeResolver objResolver = TypeResolver.of(Collections.singletonMap(t, Object.class));
+        ParameterizedType resolved = (ParameterizedType) objResolver.resolve(types[1]);
+        Assertions.assertSame(WildcardTypeImpl.FULL_WILDCARD, resolved.getActualTypeArguments()[0]);
+
+        // arrays of wildcards are arrays of their upper boundary, or of Object for lower boundaries
+        Assertions.assertSame(Number[].class, resolver.resolve(types[2]));
+        Type listOfString = new ParameterizedTypeImpl(null, List.class, String.class);
+        Assertions.assertEquals(new GenericArrayTypeImpl(listOfString), TypeResolver.of(Collections.singletonMap(t,
+                WildcardTypeImpl.forExtends(listOfString))).resolve(types[2]));
+        Assertions.assertSame(Object[].class, TypeResolver.of(Collections.singletonMap(t,
+                WildcardTypeImpl.forSuper(Number.class))).resolve(types[2]));
+        Assertions.assertSame(Object[].class, TypeResolver.of(Collections.singletonMap(t,
+                WildcardTypeImpl.FULL_WILDCARD)).resolve(types[2]));
+        Assertions.assertSame(Number[].class, TypeResolver.forType(new ParameterizedTypeImpl(TypeResolverTest.class,
+                Base.class, WildcardTypeImpl.forExtends(Number.class))).resolve(Repo.class.getTypeParameters()[1]));
+    }
+}
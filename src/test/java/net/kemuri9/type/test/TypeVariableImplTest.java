@@ -15,15 +15,19 @@
  */
 package net.kemuri9.type.test;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.Method;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import net.kemuri9.type.AnnotatedTypeImpl;
 import net.kemuri9.type.TypeVariableImpl;
 
 public class TypeVariableImplTest {
@@ -77,6 +81,56 @@ public class TypeVariableImplTest {
         TestUtils.assertThrows(IllegalArgumentException.class, invalid);
     }
 
+    @Test
+    public void testConstructionDeclarationChanges() {
+        // type parameters of unknown generic declarations are checked on every construction
+        FreeTypeVariable.GenericDeclarationImpl declaration = new FreeTypeVariable.GenericDeclarationImpl();
+        FreeTypeVariable<?> variable = new FreeTypeVariable<>(new Annotation[0], declaration, "T", new AnnotatedTypeImpl(Object.class));
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> new TypeVariableImpl<>(variable));
+        declaration.addTypeParameters(variable);
+        Assertions.assertEquals(new TypeVariableImpl<>(variable), variable);
+
+        // while those of classes and executables are shared across constructions
+        TypeVariable<Method> one = TestUtils.getMethod(getClass(), "one", Object.class).getTypeParameters()[0];
+        for (int idx = 0; idx < 3; ++idx) {
+            assertEquals(one, new TypeVariableImpl<>(one));
+        }
+    }
+
+    @Test
+    public void testBoundsValidation() {
+        Method twoMethod = TestUtils.getMethod(getClass(), "two", Number.class);
+        TypeVariable<Method> two = twoMethod.getTypeParameters()[0];
+
+        // bounds of the JDK and of this library are known to be valid, and are retained as-is
+        AnnotatedType core = two.getAnnotatedBounds()[0];
+        AnnotatedType library = new AnnotatedTypeImpl(Number.class, null, new Ann4Impl("Number"));
+        Assertions.assertSame(core, new TypeVariableImpl<>(twoMethod, "T", new Annotation[0], core).getAnnotatedBounds()[0]);
+        Assertions.assertSame(library, new TypeVariableImpl<>(twoMethod, "T", new Annotation[0], library).getAnnotatedBounds()[0]);
+
+        // other bounds are validated, including derivatives of the implementations of this library
+        int[] reads = new int[1];
+        AnnotatedType foreign = new FreeAnnotatedType(Number.class, null, new Annotation[0]) {
+            @Override
+            public Annotation[] getAnnotations() {
+                ++reads[0];
+                return super.getAnnotations();
+            }
+        };
+        Assertions.assertSame(foreign, new TypeVariableImpl<>(twoMethod, "T", new Annotation[0], foreign).getAnnotatedBounds()[0]);
+        Assertions.assertTrue(reads[0] > 0);
+        AnnotatedType derived = new AnnotatedTypeImpl(Number.class) {
+            @Override
+            public Annotation[] getAnnotations() {
+                return new Annotation[] { null };
+            }
+        };
+        TestUtils.assertThrows(IllegalArgumentException.class, Arrays.asList(
+                ()-> new TypeVariableImpl<>(twoMethod, "T", new Annotation[0], derived),
+                ()-> new TypeVariableImpl<>(twoMethod, "T", new Annotation[0],
+                        new FreeAnnotatedType(Number.class, null, new Annotation[] { null }))));
+    }
+
     @Test
     public void testBoundsMutable() {
         TypeVariableImpl<Method> type1 = new TypeVariableImpl<>(TestUtils.getMethod(getClass(), "one", Object.class).getTypeParameters()[0]);
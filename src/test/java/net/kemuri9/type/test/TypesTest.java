@@ -0,0 +1,767 @@
+/**
+ * Copyright 2022-2024 Steven Walters
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.kemuri9.type.test;
+
+import java.io.Serializable;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import net.kemuri9.type.GenericArrayTypeImpl;
+import net.kemuri9.type.ParameterizedTypeImpl;
+import net.kemuri9.type.TypeVariableImpl;
+import net.kemuri9.type.TypeResolver;
+import net.kemuri9.type.Types;
+import net.kemuri9.type.WildcardTypeImpl;
+
+public class TypesTest {
+
+    public interface Repo<T, ID> {}
+    public static class User {}
+    public static abstract class Base<A> implements Repo<List<A>, A[]> {}
+    public static class Sub extends Base<String> {}
+    @SuppressWarnings("rawtypes")
+    public static class RawSub extends Base {}
+    public static class Outer<O> {
+        public class Inner<I> extends ArrayList<O> {
+            private static final long serialVersionUID = 1L;
+        }
+    }
+
+    public static <T extends List<Integer> & Comparable<T>> void bounded(T value) {}
+    public static <T, U extends T> void variables(T t, U u) {}
+    public static <T> T read(Class<T> type) { return null; }
+    @SafeVarargs
+    public static <T> List<T> listOf(T... values) { return null; }
+    public static <K, V> Map<K, V> copy(Map<? extends K, ? extends V> map) { return null; }
+    public static <T extends Comparable<? super T>> T max(Collection<? extends T> values) { return null; }
+    public static <E, L extends List<E>> L first(L list) { return null; }
+    public static <T> void fill(List<? super T> list, T value) {}
+    public static <T> void drain(List<? super T> list) {}
+    public static <T> T[] array(T[] values) { return values; }
+    public static <T> T none() { return null; }
+    public static <T> T pick(T first, T second) { return null; }
+    public static <T extends Comparable<T>> T greater(T first, T second) { return null; }
+    public static <T extends Comparable<?>> T ranked(T first, T second) { return null; }
+    public interface Tagged<T> {}
+    public static abstract class Shape {}
+    public static class Circle extends Shape implements Tagged<Circle> {}
+    public static class Square extends Shape implements Tagged<Square> {}
+    public interface Bounded<N extends Number, C extends Comparable<C>, R extends N> {}
+    public interface Forward<A extends B, B extends Number> {}
+
+    private static final TypeVariable<?> ARRAY_LIST_E = ArrayList.class.getTypeParameters()[0];
+
+    private static Type pt(Class<?> raw, Type... args) {
+        return new ParameterizedTypeImpl(raw.getDeclaringClass(), raw, args);
+    }
+
+    @Test
+    public void testCapture() {
+        Assertions.assertSame(String.class, Types.capture(String.class));
+        Type listOfString = pt(List.class, String.class);
+        Assertions.assertSame(listOfString, Types.capture(listOfString));
+
+        ParameterizedType captured = (ParameterizedType) Types.capture(pt(List.class, WildcardTypeImpl.forExtends(Number.class)));
+        Assertions.assertEquals(List.class, captured.getRawType());
+        TypeVariable<?> variable = (TypeVariable<?>) captured.getActualTypeArguments()[0];
+        Assertions.assertArrayEquals(new Type[] { Number.class }, variable.getBounds());
+        Assertions.assertEquals(List.class, variable.getGenericDeclaration());
+        Assertions.assertTrue(variable.getName().endsWith(" of ? extends java.lang.Number"), variable.getName());
+        Assertions.assertEquals(variable, variable);
+        Assertions.assertNotEquals(captured, Types.capture(pt(List.class, WildcardTypeImpl.forExtends(Number.class))));
+        Assertions.assertTrue(Types.isAssignable(variable, Number.class));
+        Assertions.assertTrue(Types.isAssignable(captured, pt(Collection.class, WildcardTypeImpl.forExtends(Number.class))));
+        Assertions.assertFalse(Types.isAssignable(Integer.class, variable));
+        // results involving captures are computed without being memoized
+        Assertions.assertTrue(Types.isAssignable(variable, Number.class));
+        Assertions.assertSame(variable, Types.glb(variable, Number.class));
+        Assertions.assertSame(variable, Types.glb(variable, Number.class));
+
+        // lower bounds accept their subtypes
+        ParameterizedType superCaptured = (ParameterizedType) Types.capture(pt(List.class, WildcardTypeImpl.forSuper(Integer.class)));
+        TypeVariable<?> superVariable = (TypeVariable<?>) superCaptured.getActualTypeArguments()[0];
+        Assertions.assertArrayEquals(new Type[] { Object.class }, superVariable.getBounds());
+        Assertions.assertTrue(Types.isAssignable(Integer.class, superVariable));
+        Assertions.assertFalse(Types.isAssignable(Number.class, superVariable));
+    }
+
+    @Test
+    public void testCaptureDeclaredBounds() {
+        // declared bounds combine with the wildcard bounds, and refer to the other captures
+        Type full = WildcardTypeImpl.FULL_WILDCARD;
+        ParameterizedType captured = (ParameterizedType) Types.capture(
+                pt(Bounded.class, WildcardTypeImpl.forExtends(Integer.class), full, full));
+        Type[] args = captured.getActualTypeArguments();
+        Assertions.assertArrayEquals(new Type[] { Integer.class }, ((TypeVariable<?>) args[0]).getBounds());
+        Assertions.assertArrayEquals(new Type[] { pt(Comparable.class, args[1]) }, ((TypeVariable<?>) args[1]).getBounds());
+        Assertions.assertArrayEquals(new Type[] { args[0] }, ((TypeVariable<?>) args[2]).getBounds());
+        Assertions.assertTrue(Types.isAssignable(args[2], Integer.class));
+
+        // unrelated bounds are intersected, while related bounds keep the most specific
+        ParameterizedType related = (ParameterizedType) Types.capture(
+                pt(Bounded.class, WildcardTypeImpl.forExtends(Serializable.class), String.class, full));
+        Assertions.assertArrayEquals(new Type[] { Number.class },
+                ((TypeVariable<?>) related.getActualTypeArguments()[0]).getBounds());
+        ParameterizedType intersected = (ParameterizedType) Types.capture(
+                pt(Bounded.class, WildcardTypeImpl.forExtends(Runnable.class), String.class, full));
+        Assertions.assertArrayEquals(new Type[] { Number.class, Runnable.class },
+                ((TypeVariable<?>) intersected.getActualTypeArguments()[0]).getBounds());
+        Assertions.assertSame(String.class, intersected.getActualTypeArguments()[1]);
+
+        // bounds referring to later captures see their complete bounds
+        ParameterizedType forward = (ParameterizedType) Types.capture(
+                pt(Forward.class, WildcardTypeImpl.forExtends(Number.class), full));
+        Type[] forwardArgs = forward.getActualTypeArguments();
+        Assertions.assertArrayEquals(new Type[] { forwardArgs[1] }, ((TypeVariable<?>) forwardArgs[0]).getBounds());
+        Assertions.assertArrayEquals(new Type[] { Number.class }, ((TypeVariable<?>) forwardArgs[1]).getBounds());
+
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> Types.capture(null));
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> Types.capture(pt(Bounded.class, full)));
+    }
+
+    @Test
+    public void testErase() {
+        Assertions.assertEquals(String.class, Types.erase(String.class));
+        Assertions.assertEquals(int[].class, Types.erase(int[].class));
+        Assertions.assertEquals(List.class, Types.erase(pt(List.class, String.class)));
+        Assertions.assertEquals(Repo.class, Types.erase(Base.class.getGenericInterfaces()[0]));
+        Assertions.assertEquals(Object.class, Types.erase(WildcardTypeImpl.FULL_WILDCARD));
+        Assertions.assertEquals(Object.class, Types.erase(WildcardTypeImpl.forSuper(String.class)));
+        Assertions.assertEquals(Number.class, Types.erase(WildcardTypeImpl.forExtends(Number.class)));
+
+        // List<? extends Map<K, V>>[][] erases to List[][]
+        Type wildcard = WildcardTypeImpl.forExtends(pt(Map.class, String.class, Integer.class));
+        Type array = GenericArrayTypeImpl.withComponent(GenericArrayTypeImpl.withComponent(pt(List.class, wildcard)));
+        Assertions.assertEquals(List[][].class, Types.erase(array));
+        // cached erasure is consistent
+        Assertions.assertEquals(List[][].class, Types.erase(array));
+
+        TypeVariable<?> bounded = TestUtils.getMethod(TypesTest.class, "bounded", List.class).getTypeParameters()[0];
+        Assertions.assertEquals(List.class, Types.erase(bounded));
+        Assertions.assertEquals(List.class, Types.erase(new TypeVariableImpl<>(bounded)));
+        Assertions.assertEquals(List[].class, Types.erase(GenericArrayTypeImpl.withComponent(bounded)));
+        TypeVariable<?>[] vars = TestUtils.getMethod(TypesTest.class, "variables", Object.class, Object.class)
+                .getTypeParameters();
+        Assertions.assertEquals(Object.class, Types.erase(vars[1]));
+        Assertions.assertEquals(Object[].class, Types.erase(GenericArrayTypeImpl.withComponent(vars[0])));
+    }
+
+    @Test
+    public void testEraseInvalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> Types.erase(null));
+        List<Executable> unsupported = Arrays.asList(
+                ()-> Types.erase(new UnknownType()),
+                ()-> Types.erase(new FreeParameterizedType(null, new UnknownType())),
+                ()-> Types.erase(FreeParameterizedType.INVALID3)
+            );
+        TestUtils.assertThrows(UnsupportedOperationException.class, unsupported);
+    }
+
+    @Test
+    public void testLub() {
+        Assertions.assertEquals(String.class, Types.lub(String.class));
+        Assertions.assertEquals(Number.class, Types.lub(Number.class, Integer.class));
+        Assertions.assertEquals(CharSequence.class, Types.lub(String.class, StringBuilder.class, CharSequence.class));
+        Assertions.assertEquals(Integer.class, Types.lub(int.class, Integer.class));
+        Assertions.assertEquals(Object.class, Types.lub(Runnable.class, Integer.class));
+
+        // the intersection of unrelated common supertypes, with nested computations limited in depth
+        Type nested = WildcardTypeImpl.forExtends(Shape.class, pt(Tagged.class, WildcardTypeImpl.FULL_WILDCARD));
+        Type expected = WildcardTypeImpl.forExtends(Shape.class, pt(Tagged.class, nested));
+        Assertions.assertEquals(expected, Types.lub(Circle.class, Square.class));
+        Assertions.assertSame(Types.lub(Circle.class, Square.class), Types.lub(Circle.class, Square.class));
+        Assertions.assertEquals(pt(List.class, nested), Types.lub(pt(List.class, Circle.class), pt(List.class, Square.class)));
+        Assertions.assertEquals(pt(List.class, String.class), Types.lub(pt(ArrayList.class, String.class), pt(List.class, String.class)));
+        Assertions.assertEquals(pt(Collection.class, WildcardTypeImpl.forExtends(CharSequence.class)),
+                Types.lub(pt(List.class, String.class), pt(Set.class, CharSequence.class)));
+        Assertions.assertEquals(Shape.class, Types.lub(Shape.class, Square.class));
+        // intersections may be specified, and are their members
+        Assertions.assertEquals(expected, Types.lub(Types.lub(Circle.class, Square.class), Square.class));
+
+        // the boxed numbers share interfaces that vary by runtime, such as Constable and ConstantDesc since Java 12
+        List<Type> numberMembers = new ArrayList<>(Arrays.asList(Number.class, pt(Comparable.class, WildcardTypeImpl.FULL_WILDCARD)));
+        List<Class<?>> shared = new ArrayList<>();
+        for (Class<?> iface : Integer.class.getInterfaces()) {
+            if (iface != Comparable.class && iface.isAssignableFrom(Long.class)) {
+                shared.add(iface);
+            }
+        }
+        shared.sort(Comparator.comparing(Class::getName));
+        numberMembers.addAll(shared);
+        Assertions.assertEquals(pt(List.class, WildcardTypeImpl.forExtends(numberMembers.toArray(new Type[0]))),
+                Types.lub(pt(List.class, Integer.class), pt(List.class, Long.class)));
+        // raw parameterizations are raw
+        Assertions.assertEquals(List.class, Types.lub(ArrayList.class, pt(List.class, String.class)));
+
+        // wildcard type arguments
+        Type superInteger = WildcardTypeImpl.forSuper(Integer.class);
+        Assertions.assertEquals(pt(List.class, superInteger),
+                Types.lub(pt(List.class, superInteger), pt(List.class, WildcardTypeImpl.forSuper(Number.class))));
+        Assertions.assertEquals(pt(List.class, WildcardTypeImpl.FULL_WILDCARD),
+                Types.lub(pt(List.class, superInteger), pt(List.class, WildcardTypeImpl.forExtends(Number.class))));
+
+        // arrays
+        Assertions.assertEquals(Number[].class, Types.lub(Integer[].class, Number[].class));
+        Assertions.assertEquals(GenericArrayTypeImpl.withComponent(pt(List.class, String.class)),
+                Types.lub(GenericArrayTypeImpl.withComponent(pt(ArrayList.class, String.class)),
+                        GenericArrayTypeImpl.withComponent(pt(List.class, String.class))));
+        Assertions.assertEquals(WildcardTypeImpl.forExtends(Serializable.class, Cloneable.class), Types.lub(int[].class, long[].class));
+        // arrays of classes precede arrays of interfaces
+        Type[] arrayMembers = ((WildcardType) Types.lub(Integer[].class, Long[].class)).getUpperBounds();
+        Assertions.assertEquals(Number[].class, arrayMembers[0]);
+        Assertions.assertEquals(Comparable[].class, Types.erase(arrayMembers[1]));
+        for (int idx = 2; idx < arrayMembers.length; ++idx) {
+            Assertions.assertTrue(Types.erase(arrayMembers[idx]).getComponentType().isInterface());
+            Assertions.assertTrue(Types.erase(arrayMembers[idx - 1]).getName().compareTo(Types.erase(arrayMembers[idx]).getName()) < 0);
+        }
+
+        List<Executable> invalid = Arrays.asList(
+                ()-> Types.lub((Type[]) null),
+                ()-> Types.lub(),
+                ()-> Types.lub(String.class, null),
+                ()-> Types.lub(WildcardTypeImpl.forExtends(Number.class), Integer.class)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testNewArrayType() {
+        Assertions.assertSame(String[].class, Types.newArrayType(String.class));
+        Assertions.assertSame(int[][].class, Types.newArrayType(int[].class));
+        Assertions.assertSame(int[][][].class, Types.newArrayType(int.class, 3));
+        GenericArrayType classArray = ()-> String.class;
+        Assertions.assertSame(String[][].class, Types.newArrayType(classArray));
+
+        Type listOfString = pt(List.class, String.class);
+        Type listArray = Types.newArrayType(listOfString);
+        Assertions.assertEquals(GenericArrayTypeImpl.withComponent(listOfString), listArray);
+        Assertions.assertSame(listArray, ((GenericArrayType) Types.newArrayType(listArray)).getGenericComponentType());
+        Assertions.assertEquals(GenericArrayTypeImpl.withComponent(GenericArrayTypeImpl.withComponent(listOfString)),
+                Types.newArrayType(listOfString, 2));
+        Assertions.assertEquals(GenericArrayTypeImpl.withComponent(ARRAY_LIST_E), Types.newArrayType(ARRAY_LIST_E));
+    }
+
+    @Test
+    public void testNewArrayTypeInvalid() {
+        List<Executable> invalid = Arrays.asList(
+                ()-> Types.newArrayType(null),
+                ()-> Types.newArrayType(void.class),
+                ()-> Types.newArrayType(WildcardTypeImpl.FULL_WILDCARD),
+                ()-> Types.newArrayType(String.class, 0)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testNewParameterizedType() {
+        Type inner = Types.newParameterizedType(Outer.Inner.class, String.class, Integer.class);
+        Assertions.assertEquals(new ParameterizedTypeImpl(pt(Outer.class, String.class), Outer.Inner.class, Integer.class), inner);
+        // the owner chain takes part in resolution
+        Assertions.assertEquals(pt(ArrayList.class, String.class), Types.getSupertype(inner, ArrayList.class));
+        Assertions.assertEquals(String.class, TypeResolver.forType(inner).resolve(Outer.class.getTypeParameters()[0]));
+
+        Assertions.assertEquals(pt(Base.class, String.class), Types.newParameterizedType(Base.class, String.class));
+        Assertions.assertEquals(new ParameterizedTypeImpl(null, List.class, String.class),
+                Types.newParameterizedType(List.class, String.class));
+        Assertions.assertSame(User.class, Types.newParameterizedType(User.class));
+        Assertions.assertEquals(Outer.Inner.class.getGenericSuperclass(),
+                Types.getSupertype(Types.newParameterizedType(Outer.Inner.class, Outer.class.getTypeParameters()[0],
+                        Outer.Inner.class.getTypeParameters()[0]), ArrayList.class));
+    }
+
+    @Test
+    public void testNewParameterizedTypeInvalid() {
+        List<Executable> invalid = Arrays.asList(
+                ()-> Types.newParameterizedType(null),
+                ()-> Types.newParameterizedType(List.class, (Type[]) null),
+                ()-> Types.newParameterizedType(List.class, (Type) null),
+                ()-> Types.newParameterizedType(List.class),
+                ()-> Types.newParameterizedType(Outer.Inner.class, String.class),
+                ()-> Types.newParameterizedType(User.class, String.class)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testNormalize() {
+        Type full = WildcardTypeImpl.FULL_WILDCARD;
+        Assertions.assertSame(full, Types.normalize(new WildcardTypeImpl(null, new Type[] { Object.class })));
+        Assertions.assertSame(full, Types.normalize(new FreeWildcardType(new Type[0], new Type[] { Object.class })));
+        GenericArrayType classArray = ()-> String.class;
+        Assertions.assertSame(String[].class, Types.normalize(classArray));
+
+        TypeVariable<?> t = TestUtils.getMethod(TypesTest.class, "variables", Object.class, Object.class).getTypeParameters()[0];
+        Assertions.assertSame(t, Types.normalize(new TypeVariableImpl<>(t)));
+        Assertions.assertSame(t, Types.normalize(t));
+
+        // only changed levels are recreated
+        Type listOfString = pt(List.class, String.class);
+        Assertions.assertSame(listOfString, Types.normalize(listOfString));
+        Type map = pt(Map.class, listOfString, new FreeWildcardType(new Type[0], new Type[] { Object.class }));
+        ParameterizedType normalized = (ParameterizedType) Types.normalize(map);
+        Assertions.assertSame(listOfString, normalized.getActualTypeArguments()[0]);
+        Assertions.assertSame(full, normalized.getActualTypeArguments()[1]);
+        Type extendsT = WildcardTypeImpl.forExtends(new TypeVariableImpl<>(t));
+        Assertions.assertEquals(WildcardTypeImpl.forExtends(t), Types.normalize(extendsT));
+
+        Assertions.assertThrows(IllegalArgumentException.class, ()-> Types.normalize(null));
+        Assertions.assertThrows(UnsupportedOperationException.class, ()-> Types.normalize(new UnknownType()));
+    }
+
+    @Test
+    public void testGetSupertypeArrays() {
+        Assertions.assertEquals(Object[].class, Types.getSupertype(String[].class, Object[].class));
+        Assertions.assertEquals(GenericArrayTypeImpl.withComponent(pt(Comparable.class, String.class)),
+                Types.getSupertype(String[].class, Comparable[].class));
+        Assertions.assertEquals(Serializable.class, Types.getSupertype(int[].class, Serializable.class));
+        Assertions.assertEquals(int[].class, Types.getSupertype(int[].class, int[].class));
+        Assertions.assertEquals(GenericArrayTypeImpl.withComponent(pt(Collection.class, String.class)),
+                Types.getSupertype(GenericArrayTypeImpl.withComponent(pt(List.class, String.class)), Collection[].class));
+        Assertions.assertEquals(GenericArrayTypeImpl.withComponent(pt(Iterable.class, ARRAY_LIST_E)),
+                Types.getSupertype(ArrayList[].class, Iterable[].class));
+    }
+
+    @Test
+    public void testGetSupertypeClass() {
+        Assertions.assertEquals(pt(Iterable.class, ARRAY_LIST_E), Types.getSupertype(ArrayList.class, Iterable.class));
+        Assertions.assertEquals(pt(ArrayList.class, ARRAY_LIST_E), Types.getSupertype(ArrayList.class, ArrayList.class));
+        Assertions.assertEquals(pt(Repo.class, pt(List.class, String.class), String[].class),
+                Types.getSupertype(Sub.class, Repo.class));
+        Assertions.assertEquals(Object.class, Types.getSupertype(Repo.class, Object.class));
+        Assertions.assertEquals(User.class, Types.getSupertype(User.class, User.class));
+        Assertions.assertSame(Types.getSupertype(Sub.class, Repo.class), Types.getSupertype(Sub.class, Repo.class));
+
+        // raw inheritance yields the erasure
+        Assertions.assertEquals(Repo.class, Types.getSupertype(RawSub.class, Repo.class));
+        Assertions.assertEquals(Base.class, Types.getSupertype(RawSub.class, Base.class));
+
+        // inner classes inherit in terms of the enclosing type variables
+        Assertions.assertEquals(pt(List.class, Outer.class.getTypeParameters()[0]),
+                Types.getSupertype(Outer.Inner.class, List.class));
+    }
+
+    @Test
+    public void testGetSupertypeInvalid() {
+        List<Executable> invalid = Arrays.asList(
+                ()-> Types.getSupertype(null, Object.class),
+                ()-> Types.getSupertype(String.class, null),
+                ()-> Types.getSupertype(String.class, List.class),
+                ()-> Types.getSupertype(List.class, ArrayList.class),
+                ()-> Types.getSupertype(int.class, Object.class),
+                ()-> Types.getSupertype(int[].class, Object[].class),
+                ()-> Types.getSupertype(String[].class, Iterable.class),
+                ()-> Types.getSupertype(WildcardTypeImpl.forSuper(String.class), String.class)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testGetSupertypeParameterized() {
+        Assertions.assertEquals(pt(Iterable.class, String.class),
+                Types.getSupertype(pt(ArrayList.class, String.class), Iterable.class));
+        Assertions.assertEquals(pt(Repo.class, pt(List.class, Integer.class), Integer[].class),
+                Types.getSupertype(pt(Base.class, Integer.class), Repo.class));
+        Assertions.assertEquals(pt(Collection.class, WildcardTypeImpl.forExtends(Number.class)),
+                Types.getSupertype(pt(List.class, WildcardTypeImpl.forExtends(Number.class)), Collection.class));
+
+        Type outer = pt(Outer.class, String.class);
+        Type inner = new ParameterizedTypeImpl(outer, Outer.Inner.class, Integer.class);
+        Assertions.assertEquals(pt(List.class, String.class), Types.getSupertype(inner, List.class));
+    }
+
+    @Test
+    public void testGetSupertypeVariables() {
+        // type variables and wildcards are searched through their upper bounds
+        Assertions.assertEquals(pt(Collection.class, ARRAY_LIST_E),
+                Types.getSupertype(WildcardTypeImpl.forExtends(ArrayList.class), Collection.class));
+        TypeVariable<?> t = TestUtils.getMethod(TypesTest.class, "bounded", List.class).getTypeParameters()[0];
+        Assertions.assertEquals(pt(Iterable.class, Integer.class), Types.getSupertype(t, Iterable.class));
+        Assertions.assertEquals(pt(Comparable.class, t), Types.getSupertype(t, Comparable.class));
+    }
+
+    @Test
+    public void testGlb() {
+        Assertions.assertEquals(Integer.class, Types.glb(Number.class, Integer.class));
+        Assertions.assertEquals(Integer.class, Types.glb(Integer.class, Number.class, Object.class));
+        Assertions.assertEquals(Integer.class, Types.glb(int.class, Number.class));
+        Assertions.assertEquals(WildcardTypeImpl.forExtends(Number.class, Runnable.class), Types.glb(Number.class, Runnable.class));
+        Assertions.assertEquals(pt(ArrayList.class, String.class),
+                Types.glb(pt(List.class, String.class), pt(ArrayList.class, String.class)));
+        // intersections are flattened
+        Type intersection = Types.glb(Number.class, Runnable.class);
+        Assertions.assertEquals(WildcardTypeImpl.forExtends(Integer.class, Runnable.class), Types.glb(intersection, Integer.class));
+        Assertions.assertSame(intersection, Types.glb(Number.class, Runnable.class));
+        // members are ordered as with lub, regardless of the order specified
+        Assertions.assertEquals(WildcardTypeImpl.forExtends(Number.class, Comparable.class, Runnable.class),
+                Types.glb(Runnable.class, Comparable.class, Number.class));
+        Assertions.assertEquals(WildcardTypeImpl.forExtends(Number[].class, Runnable[].class), Types.glb(Runnable[].class, Number[].class));
+
+        List<Executable> invalid = Arrays.asList(
+                ()-> Types.glb((Type[]) null),
+                ()-> Types.glb(),
+                ()-> Types.glb(String.class, null),
+                ()-> Types.glb(WildcardTypeImpl.forExtends(Number.class), Integer.class)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testInferTypeArguments() {
+        Method read = TestUtils.getMethod(TypesTest.class, "read", Class.class);
+        TypeVariable<?> t = read.getTypeParameters()[0];
+        Map<TypeVariable<?>, Type> inferred = Types.inferTypeArguments(read, pt(Class.class, String.class));
+        Assertions.assertEquals(Collections.singletonMap(t, String.class), inferred);
+        Assertions.assertSame(inferred, Types.inferTypeArguments(read, pt(Class.class, String.class)));
+        Assertions.assertThrows(UnsupportedOperationException.class, ()-> inferred.clear());
+        // raw arguments do not infer
+        Assertions.assertEquals(Collections.emptyMap(), Types.inferTypeArguments(read, Class.class));
+
+        Method copy = TestUtils.getMethod(TypesTest.class, "copy", Map.class);
+        TypeVariable<?>[] kv = copy.getTypeParameters();
+        Map<TypeVariable<?>, Type> expected = new HashMap<>();
+        expected.put(kv[0], String.class);
+        expected.put(kv[1], Integer.class);
+        Assertions.assertEquals(expected, Types.inferTypeArguments(copy, pt(HashMap.class, String.class, Integer.class)));
+
+        Method max = TestUtils.getMethod(TypesTest.class, "max", Collection.class);
+        Assertions.assertEquals(Collections.singletonMap(max.getTypeParameters()[0], String.class),
+                Types.inferTypeArguments(max, pt(ArrayList.class, String.class)));
+
+        Method array = TestUtils.getMethod(TypesTest.class, "array", Object[].class);
+        Assertions.assertEquals(Collections.singletonMap(array.getTypeParameters()[0], String.class),
+                Types.inferTypeArguments(array, String[].class));
+
+        Method none = TestUtils.getMethod(TypesTest.class, "none");
+        Assertions.assertEquals(Collections.emptyMap(), Types.inferTypeArguments(none));
+    }
+
+    @Test
+    public void testInferTypeArgumentsBounds() {
+        // type parameters only within the bounds of others are inferred through those bounds
+        Method first = TestUtils.getMethod(TypesTest.class, "first", List.class);
+        TypeVariable<?>[] el = first.getTypeParameters();
+        Map<TypeVariable<?>, Type> expected = new HashMap<>();
+        expected.put(el[0], String.class);
+        expected.put(el[1], pt(ArrayList.class, String.class));
+        Assertions.assertEquals(expected, Types.inferTypeArguments(first, pt(ArrayList.class, String.class)));
+
+        // lower bounds are preferred over upper bounds
+        Method fill = TestUtils.getMethod(TypesTest.class, "fill", List.class, Object.class);
+        Assertions.assertEquals(Collections.singletonMap(fill.getTypeParameters()[0], Integer.class),
+                Types.inferTypeArguments(fill, pt(List.class, Number.class), Integer.class));
+        Method drain = TestUtils.getMethod(TypesTest.class, "drain", List.class);
+        Assertions.assertEquals(Collections.singletonMap(drain.getTypeParameters()[0], Number.class),
+                Types.inferTypeArguments(drain, pt(List.class, Number.class)));
+
+        // the first member of an intersection by name, among those satisfying the declared bounds
+        Method pick = TestUtils.getMethod(TypesTest.class, "pick", Object.class, Object.class);
+        Assertions.assertEquals(Collections.singletonMap(pick.getTypeParameters()[0], Serializable.class),
+                Types.inferTypeArguments(pick, Integer.class, String.class));
+        Method ranked = TestUtils.getMethod(TypesTest.class, "ranked", Comparable.class, Comparable.class);
+        Type rankedArg = Types.inferTypeArguments(ranked, Integer.class, String.class).get(ranked.getTypeParameters()[0]);
+        Assertions.assertEquals(Comparable.class, Types.erase(rankedArg));
+
+        // type arguments not satisfying the declared bounds are omitted
+        Method greater = TestUtils.getMethod(TypesTest.class, "greater", Comparable.class, Comparable.class);
+        Assertions.assertEquals(Collections.singletonMap(greater.getTypeParameters()[0], Integer.class),
+                Types.inferTypeArguments(greater, Integer.class, int.class));
+        Assertions.assertEquals(Collections.emptyMap(), Types.inferTypeArguments(greater, Integer.class, Long.class));
+    }
+
+    @Test
+    public void testInferTypeArgumentsInvalid() {
+        Method read = TestUtils.getMethod(TypesTest.class, "read", Class.class);
+        Method listOf = TestUtils.getMethod(TypesTest.class, "listOf", Object[].class);
+        List<Executable> invalid = Arrays.asList(
+                ()-> Types.inferTypeArguments(null, String.class),
+                ()-> Types.inferTypeArguments(read, (Type[]) null),
+                ()-> Types.inferTypeArguments(read, (Type) null),
+                ()-> Types.inferTypeArguments(read),
+                ()-> Types.inferTypeArguments(read, Class.class, Class.class),
+                ()-> Types.inferTypeArguments(read, WildcardTypeImpl.forExtends(Class.class)),
+                ()-> Types.inferTypeArguments(TestUtils.getMethod(TypesTest.class, "fill", List.class, Object.class), List.class)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+        Assertions.assertEquals(Collections.emptyMap(), Types.inferTypeArguments(listOf));
+    }
+
+    @Test
+    public void testInferTypeArgumentsVarArgs() {
+        Method listOf = TestUtils.getMethod(TypesTest.class, "listOf", Object[].class);
+        TypeVariable<?> t = listOf.getTypeParameters()[0];
+        Assertions.assertEquals(Collections.singletonMap(t, String.class), Types.inferTypeArguments(listOf, String.class));
+        Assertions.assertEquals(Collections.singletonMap(t, String.class), Types.inferTypeArguments(listOf, String[].class));
+        // primitives are boxed and unrelated arguments infer their common superclass
+        Assertions.assertEquals(Collections.singletonMap(t, Integer.class), Types.inferTypeArguments(listOf, int.class, Integer.class));
+        Assertions.assertEquals(Collections.singletonMap(t, Number.class), Types.inferTypeArguments(listOf, int.class, Long.class));
+        Assertions.assertEquals(Collections.singletonMap(t, Number.class), Types.inferTypeArguments(listOf, Number.class, Long.class));
+        Assertions.assertEquals(Collections.singletonMap(t, CharSequence.class),
+                Types.inferTypeArguments(listOf, String.class, StringBuilder.class, CharSequence.class));
+    }
+
+    @Test
+    public void testIsAssignableArrays() {
+        Assertions.assertTrue(Types.isAssignable(String[].class, Object[].class));
+        Assertions.assertTrue(Types.isAssignable(String[][].class, Object[].class));
+        Assertions.assertTrue(Types.isAssignable(int[].class, Object.class));
+        Assertions.assertTrue(Types.isAssignable(int[].class, Cloneable.class));
+        Assertions.assertFalse(Types.isAssignable(int[].class, Object[].class));
+        Assertions.assertFalse(Types.isAssignable(int[].class, long[].class));
+        Assertions.assertFalse(Types.isAssignable(Object[].class, String[].class));
+
+        Type listOfString = pt(List.class, String.class);
+        Type arrayOfList = GenericArrayTypeImpl.withComponent(listOfString);
+        Assertions.assertTrue(Types.isAssignable(arrayOfList, List[].class));
+        Assertions.assertTrue(Types.isAssignable(arrayOfList, Object[].class));
+        Assertions.assertTrue(Types.isAssignable(arrayOfList, GenericArrayTypeImpl.withComponent(
+                pt(Collection.class, WildcardTypeImpl.forExtends(CharSequence.class)))));
+        Assertions.assertFalse(Types.isAssignable(arrayOfList, GenericArrayTypeImpl.withComponent(pt(List.class, Integer.class))));
+        Assertions.assertFalse(Types.isAssignable(int[].class, GenericArrayTypeImpl.withComponent(listOfString)));
+    }
+
+    @Test
+    public void testIsAssignableClasses() {
+        Assertions.assertTrue(Types.isAssignable(String.class, String.class));
+        Assertions.assertTrue(Types.isAssignable(String.class, Object.class));
+        Assertions.assertTrue(Types.isAssignable(String.class, CharSequence.class));
+        Assertions.assertTrue(Types.isAssignable(Sub.class, Repo.class));
+        Assertions.assertTrue(Types.isAssignable(List.class, Object.class));
+        Assertions.assertFalse(Types.isAssignable(Object.class, String.class));
+        Assertions.assertFalse(Types.isAssignable(int.class, long.class));
+        Assertions.assertFalse(Types.isAssignable(int.class, Object.class));
+        Assertions.assertFalse(Types.isAssignable(Integer.class, int.class));
+        Assertions.assertTrue(Types.isAssignable(int.class, int.class));
+
+        // parameterized types are assignable to their erasure
+        Assertions.assertTrue(Types.isAssignable(pt(ArrayList.class, String.class), Iterable.class));
+        // raw types are assignable to parameterized types through unchecked conversion
+        Assertions.assertTrue(Types.isAssignable(ArrayList.class, pt(List.class, String.class)));
+        Assertions.assertTrue(Types.isAssignable(RawSub.class, pt(Repo.class, String.class, Integer.class)));
+        Assertions.assertFalse(Types.isAssignable(int.class, pt(List.class, String.class)));
+    }
+
+    @Test
+    public void testIsAssignableInvalid() {
+        List<Executable> invalid = Arrays.asList(
+                ()-> Types.isAssignable(null, Object.class),
+                ()-> Types.isAssignable(String.class, null)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testIsAssignableParameterized() {
+        Type listOfString = pt(List.class, String.class);
+        Assertions.assertTrue(Types.isAssignable(pt(ArrayList.class, String.class), listOfString));
+        Assertions.assertFalse(Types.isAssignable(pt(ArrayList.class, Integer.class), listOfString));
+        Assertions.assertFalse(Types.isAssignable(pt(List.class, Object.class), listOfString));
+        Assertions.assertFalse(Types.isAssignable(listOfString, pt(List.class, Object.class)));
+        Assertions.assertTrue(Types.isAssignable(Sub.class, pt(Repo.class, listOfString, String[].class)));
+        Assertions.assertFalse(Types.isAssignable(Sub.class, pt(Repo.class, listOfString, Object[].class)));
+        // JDK and library representations are interchangeable
+        Assertions.assertTrue(Types.isAssignable(Sub.class.getGenericSuperclass(), pt(Base.class, String.class)));
+
+        // owners must be compatible
+        Type outerString = pt(Outer.class, String.class);
+        Type innerString = new ParameterizedTypeImpl(outerString, Outer.Inner.class, Integer.class);
+        Type innerInteger = new ParameterizedTypeImpl(pt(Outer.class, Integer.class), Outer.Inner.class, Integer.class);
+        Assertions.assertTrue(Types.isAssignable(innerString, innerString));
+        Assertions.assertTrue(Types.isAssignable(innerString, pt(List.class, String.class)));
+        Assertions.assertFalse(Types.isAssignable(innerString, innerInteger));
+    }
+
+    @Test
+    public void testIsAssignableVariables() {
+        TypeVariable<?>[] vars = TestUtils.getMethod(TypesTest.class, "variables", Object.class, Object.class)
+                .getTypeParameters();
+        TypeVariable<?> t = vars[0];
+        TypeVariable<?> u = vars[1];
+        Assertions.assertTrue(Types.isAssignable(t, t));
+        Assertions.assertTrue(Types.isAssignable(u, t));
+        Assertions.assertFalse(Types.isAssignable(t, u));
+        Assertions.assertTrue(Types.isAssignable(t, Object.class));
+        Assertions.assertFalse(Types.isAssignable(Object.class, t));
+        Assertions.assertFalse(Types.isAssignable(String.class, t));
+        Assertions.assertTrue(Types.isAssignable(new TypeVariableImpl<>(u), t));
+        Assertions.assertTrue(Types.isAssignable(pt(List.class, u), pt(List.class, WildcardTypeImpl.forExtends(t))));
+        Assertions.assertTrue(Types.isAssignable(pt(List.class, t), pt(List.class, WildcardTypeImpl.forSuper(u))));
+
+        TypeVariable<?> bounded = TestUtils.getMethod(TypesTest.class, "bounded", List.class).getTypeParameters()[0];
+        Assertions.assertTrue(Types.isAssignable(bounded, pt(Collection.class, Integer.class)));
+        Assertions.assertTrue(Types.isAssignable(bounded, pt(Comparable.class, bounded)));
+        Assertions.assertFalse(Types.isAssignable(bounded, pt(Comparable.class, String.class)));
+    }
+
+    @Test
+    public void testIsAssignableWildcards() {
+        Type extendsNumber = WildcardTypeImpl.forExtends(Number.class);
+        Type superInteger = WildcardTypeImpl.forSuper(Integer.class);
+        Assertions.assertTrue(Types.isAssignable(pt(List.class, Integer.class), pt(List.class, extendsNumber)));
+        Assertions.assertTrue(Types.isAssignable(pt(List.class, Integer.class), pt(Collection.class, WildcardTypeImpl.FULL_WILDCARD)));
+        Assertions.assertFalse(Types.isAssignable(pt(List.class, String.class), pt(List.class, extendsNumber)));
+        Assertions.assertTrue(Types.isAssignable(pt(List.class, Number.class), pt(List.class, superInteger)));
+        Assertions.assertTrue(Types.isAssignable(pt(List.class, Object.class), pt(List.class, superInteger)));
+        Assertions.assertFalse(Types.isAssignable(pt(List.class, Long.class), pt(List.class, superInteger)));
+
+        // wildcards contain narrower wildcards
+        Type extendsInteger = WildcardTypeImpl.forExtends(Integer.class);
+        Assertions.assertTrue(Types.isAssignable(pt(List.class, extendsInteger), pt(Iterable.class, extendsNumber)));
+        Assertions.assertFalse(Types.isAssignable(pt(List.class, extendsNumber), pt(List.class, extendsInteger)));
+        Assertions.assertTrue(Types.isAssignable(pt(List.class, WildcardTypeImpl.forSuper(Number.class)), pt(List.class, superInteger)));
+        Assertions.assertFalse(Types.isAssignable(pt(List.class, superInteger), pt(List.class, WildcardTypeImpl.forSuper(Number.class))));
+        Assertions.assertFalse(Types.isAssignable(pt(List.class, superInteger), pt(List.class, extendsNumber)));
+        Assertions.assertFalse(Types.isAssignable(pt(List.class, WildcardTypeImpl.FULL_WILDCARD), pt(List.class, Object.class)));
+
+        // wildcards as a whole are assignable through their upper bounds
+        Assertions.assertTrue(Types.isAssignable(extendsInteger, Number.class));
+        Assertions.assertFalse(Types.isAssignable(superInteger, Number.class));
+        Assertions.assertTrue(Types.isAssignable(Integer.class, extendsNumber));
+    }
+
+    @Test
+    public void testIsConvertible() {
+        // widening primitive conversions
+        Assertions.assertTrue(Types.isConvertible(int.class, int.class));
+        Assertions.assertTrue(Types.isConvertible(int.class, long.class));
+        Assertions.assertTrue(Types.isConvertible(char.class, double.class));
+        Assertions.assertTrue(Types.isConvertible(byte.class, short.class));
+        Assertions.assertFalse(Types.isConvertible(long.class, int.class));
+        Assertions.assertFalse(Types.isConvertible(char.class, short.class));
+        Assertions.assertFalse(Types.isConvertible(boolean.class, int.class));
+
+        // boxing followed by widening reference conversions
+        Assertions.assertTrue(Types.isConvertible(int.class, Integer.class));
+        Assertions.assertTrue(Types.isConvertible(int.class, Number.class));
+        Assertions.assertTrue(Types.isConvertible(int.class, pt(Comparable.class, WildcardTypeImpl.forSuper(Integer.class))));
+        Assertions.assertFalse(Types.isConvertible(int.class, Long.class));
+        Assertions.assertFalse(Types.isConvertible(int.class, pt(Comparable.class, Long.class)));
+
+        // unboxing followed by widening primitive conversions
+        Assertions.assertTrue(Types.isConvertible(Integer.class, int.class));
+        Assertions.assertTrue(Types.isConvertible(Integer.class, long.class));
+        Assertions.assertTrue(Types.isConvertible(WildcardTypeImpl.forExtends(Character.class), int.class));
+        Assertions.assertFalse(Types.isConvertible(Integer.class, short.class));
+        Assertions.assertFalse(Types.isConvertible(Number.class, int.class));
+        Assertions.assertFalse(Types.isConvertible(Integer.class, Long.class));
+
+        // void is only convertible to itself
+        Assertions.assertTrue(Types.isConvertible(void.class, void.class));
+        Assertions.assertFalse(Types.isConvertible(void.class, Void.class));
+        Assertions.assertFalse(Types.isConvertible(Void.class, void.class));
+
+        // reference conversions are as assignability
+        Assertions.assertTrue(Types.isConvertible(pt(ArrayList.class, String.class), pt(List.class, String.class)));
+        Assertions.assertFalse(Types.isConvertible(pt(ArrayList.class, String.class), pt(List.class, Object.class)));
+    }
+
+    @Test
+    public void testIsConvertibleInvalid() {
+        List<Executable> invalid = Arrays.asList(
+                ()-> Types.isConvertible(null, Object.class),
+                ()-> Types.isConvertible(int.class, null)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    public void testIsReifiable() {
+        Type wildcards = pt(Map.class, WildcardTypeImpl.FULL_WILDCARD, WildcardTypeImpl.forExtends(Object.class));
+        Assertions.assertTrue(Types.isReifiable(int.class));
+        Assertions.assertTrue(Types.isReifiable(List.class));
+        Assertions.assertTrue(Types.isReifiable(wildcards));
+        Assertions.assertTrue(Types.isReifiable(new GenericArrayTypeImpl(wildcards)));
+        GenericArrayType classArray = ()-> String.class;
+        Assertions.assertTrue(Types.isReifiable(classArray));
+        Assertions.assertTrue(Types.isReifiable(pt(Outer.Inner.class, WildcardTypeImpl.FULL_WILDCARD)));
+
+        Assertions.assertFalse(Types.isReifiable(pt(List.class, String.class)));
+        Assertions.assertFalse(Types.isReifiable(pt(List.class, WildcardTypeImpl.forExtends(Number.class))));
+        Assertions.assertFalse(Types.isReifiable(pt(List.class, WildcardTypeImpl.forSuper(Number.class))));
+        Assertions.assertFalse(Types.isReifiable(new GenericArrayTypeImpl(ARRAY_LIST_E)));
+        Assertions.assertFalse(Types.isReifiable(ARRAY_LIST_E));
+        Assertions.assertFalse(Types.isReifiable(WildcardTypeImpl.FULL_WILDCARD));
+
+        // owners must also be reifiable
+        Type outerString = new ParameterizedTypeImpl(TypesTest.class, Outer.class, String.class);
+        Type outerWildcard = new ParameterizedTypeImpl(TypesTest.class, Outer.class, WildcardTypeImpl.FULL_WILDCARD);
+        Assertions.assertFalse(Types.isReifiable(
+                new ParameterizedTypeImpl(outerString, Outer.Inner.class, WildcardTypeImpl.FULL_WILDCARD)));
+        Assertions.assertTrue(Types.isReifiable(
+                new ParameterizedTypeImpl(outerWildcard, Outer.Inner.class, WildcardTypeImpl.FULL_WILDCARD)));
+
+        // repeated checks of the same instance agree
+        Type listOfString = pt(List.class, String.class);
+        Assertions.assertFalse(Types.isReifiable(listOfString));
+        Assertions.assertFalse(Types.isReifiable(listOfString));
+        Assertions.assertTrue(Types.isReifiable(wildcards));
+
+        // subclasses are examined through their accessors
+        Type overridden = new ParameterizedTypeImpl(null, List.class, String.class) {
+            @Override
+            public Type[] getActualTypeArguments() {
+                return new Type[] { WildcardTypeImpl.FULL_WILDCARD };
+            }
+
+            @Override
+            public Type getRawType() {
+                return ArrayList.class;
+            }
+        };
+        Assertions.assertTrue(Types.isReifiable(overridden));
+        Assertions.assertTrue(Types.isReifiable(overridden));
+        Assertions.assertSame(ArrayList.class, Types.erase(overridden));
+        Assertions.assertSame(ArrayList.class, Types.erase(overridden));
+    }
+
+    @Test
+    public void testToClassIfReifiable() {
+        Assertions.assertSame(int.class, Types.toClassIfReifiable(int.class));
+        Assertions.assertSame(Map.class, Types.toClassIfReifiable(pt(Map.class,
+                WildcardTypeImpl.FULL_WILDCARD, WildcardTypeImpl.FULL_WILDCARD)));
+        Assertions.assertSame(List[][].class, Types.toClassIfReifiable(GenericArrayTypeImpl.withComponent(
+                GenericArrayTypeImpl.withComponent(pt(List.class, WildcardTypeImpl.FULL_WILDCARD)))));
+        Assertions.assertNull(Types.toClassIfReifiable(pt(List.class, String.class)));
+        Assertions.assertNull(Types.toClassIfReifiable(ARRAY_LIST_E));
+    }
+
+    @Test
+    public void testIsReifiableInvalid() {
+        List<Executable> invalid = Arrays.asList(
+                ()-> Types.isReifiable(null),
+                ()-> Types.toClassIfReifiable(null)
+            );
+        TestUtils.assertThrows(IllegalArgumentException.class, invalid);
+        Assertions.assertThrows(UnsupportedOperationException.class, ()-> Types.isReifiable(new UnknownType()));
+        Assertions.assertThrows(UnsupportedOperationException.class, ()-> Types.toClassIfReifiable(new UnknownType()));
+    }
+}